@@ -0,0 +1,52 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.backend.ActionBackends;
+import com.myhotkey.shortcututitlity.backend.RecordingActionBackend;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Overhead of running an action up to the backend, measured against the
+ * recording backend so no OS work is included. {@code executeAsync} adds the
+ * common-pool hand-off on top of {@code execute}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActionDispatchBenchmark {
+
+    @Param({"VOLUME_UP", "PLAY_PAUSE"})
+    public SystemAction action;
+
+    @Setup
+    public void setUp() {
+        LogManager.getLogManager().reset();
+        ActionBackends.set(new RecordingActionBackend(1024));
+    }
+
+    @Benchmark
+    public void execute() {
+        action.execute();
+    }
+
+    @Benchmark
+    public Boolean executeAsync() {
+        return action.executeAsync().join();
+    }
+}
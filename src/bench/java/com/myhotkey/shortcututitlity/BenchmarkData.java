@@ -0,0 +1,120 @@
+package com.myhotkey.shortcututitlity;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic shortcut profiles and key events shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final String[] MODIFIER_NAMES = {"Ctrl", "Alt", "Shift", "Win"};
+    private static final int[] MODIFIER_FLAGS = {
+            NativeKeyEvent.CTRL_L_MASK, NativeKeyEvent.ALT_L_MASK,
+            NativeKeyEvent.SHIFT_L_MASK, NativeKeyEvent.META_L_MASK
+    };
+
+    /** Every distinct chord with at least one modifier, by combo string. */
+    private static final Map<String, Integer> DISTINCT = buildDistinct();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a profile of modified chords. Only about two thousand distinct
+     * chords exist, so larger profiles repeat them (later entries replace
+     * earlier ones in the service, exactly like duplicates in a real file).
+     *
+     * @param count Number of entries
+     * @return Shortcuts with cycling actions
+     */
+    static List<Shortcut> shortcuts(int count) {
+        List<String> combos = new ArrayList<>(DISTINCT.keySet());
+        // Layer toggles switch tables instead of dispatching, so they are left out
+        SystemAction[] actions = Arrays.stream(SystemAction.values())
+                .filter(action -> action != SystemAction.TOGGLE_LAYER)
+                .toArray(SystemAction[]::new);
+        List<Shortcut> shortcuts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            shortcuts.add(new Shortcut(combos.get(i % combos.size()), actions[i % actions.length]));
+        }
+        return shortcuts;
+    }
+
+    /**
+     * @return Number of distinct chords {@link #shortcuts(int)} cycles through
+     */
+    static int distinctChordCount() {
+        return DISTINCT.size();
+    }
+
+    /**
+     * Creates the key-pressed event a user would produce for a shortcut.
+     *
+     * @param shortcut Shortcut to press
+     * @return Synthetic native event
+     */
+    static NativeKeyEvent pressOf(Shortcut shortcut) {
+        int chord = KeyChord.parse(shortcut.getKeyCombo());
+        int mask = KeyChord.modifiers(chord);
+        int flags = 0;
+        for (int i = 0; i < MODIFIER_FLAGS.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                flags |= MODIFIER_FLAGS[i];
+            }
+        }
+        return press(KeyChord.keyCode(chord), flags);
+    }
+
+    /**
+     * @param keyCode   VC key code
+     * @param modifiers Raw JNativeHook modifier flags
+     * @return Synthetic key-pressed event
+     */
+    static NativeKeyEvent press(int keyCode, int modifiers) {
+        return new NativeKeyEvent(NativeKeyEvent.NATIVE_KEY_PRESSED, modifiers, 0, keyCode,
+                NativeKeyEvent.CHAR_UNDEFINED);
+    }
+
+    private static Map<String, Integer> buildDistinct() {
+        List<Integer> keyCodes = new ArrayList<>();
+        for (Field field : NativeKeyEvent.class.getFields()) {
+            if (field.getName().startsWith("VC_") && field.getType() == int.class
+                    && Modifier.isStatic(field.getModifiers())) {
+                try {
+                    keyCodes.add(field.getInt(null));
+                } catch (IllegalAccessException e) {
+                    // Public constants are always accessible
+                }
+            }
+        }
+
+        Map<String, Integer> distinct = new LinkedHashMap<>();
+        for (int mask = 1; mask < 16; mask++) {
+            StringBuilder prefix = new StringBuilder();
+            for (int i = 0; i < MODIFIER_NAMES.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    prefix.append(MODIFIER_NAMES[i]).append('+');
+                }
+            }
+            for (int keyCode : keyCodes) {
+                String combo = prefix + NativeKeyEvent.getKeyText(keyCode);
+                int chord = KeyChord.parse(combo);
+                if (chord != KeyChord.NONE && KeyChord.keyCode(chord) == keyCode
+                        && !distinct.containsValue(chord)) {
+                    distinct.put(combo, chord);
+                }
+            }
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,136 @@
+package com.myhotkey.shortcututitlity;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * {@link ShortcutCodec} against Jackson databind on the same file. The warm
+ * benchmarks read and write with a reused codec or mapper; run with
+ * {@code -prof gc} for allocation per operation. The cold ones measure
+ * start-to-loaded in a fresh JVM per fork: creating the codec or mapper and
+ * reading the file once, including class loading and databind's
+ * introspection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    /**
+     * A shortcut file of the given size.
+     */
+    @State(Scope.Thread)
+    public static class ShortcutFile {
+
+        @Param({"100", "10000"})
+        public int shortcutCount;
+
+        Path path;
+
+        @Setup
+        public void setUp() throws IOException {
+            LogManager.getLogManager().reset();
+            path = Files.createTempFile("keyflow-codec", ".json");
+            // Written by hand, so the cold benchmarks find no Jackson class loaded
+            List<Shortcut> shortcuts = BenchmarkData.shortcuts(shortcutCount);
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < shortcuts.size(); i++) {
+                Shortcut shortcut = shortcuts.get(i);
+                json.append(i == 0 ? "" : ",").append("\n  {\n    \"id\" : ").append(i + 1)
+                        .append(",\n    \"keyCombo\" : \"").append(shortcut.getKeyCombo())
+                        .append("\",\n    \"action\" : \"").append(shortcut.getAction().name())
+                        .append("\"\n  }");
+            }
+            Files.writeString(path, json.append("\n]").toString());
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * A reused codec and mapper, warmed by the warmup iterations.
+     */
+    @State(Scope.Thread)
+    public static class Codecs {
+
+        ShortcutCodec codec;
+        ObjectMapper mapper;
+        TypeReference<List<Shortcut>> listType = new TypeReference<>() {
+        };
+        List<Shortcut> shortcuts;
+
+        @Setup
+        public void setUp(ShortcutFile file) throws IOException {
+            codec = new ShortcutCodec();
+            mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            shortcuts = codec.read(file.path).shortcuts();
+        }
+    }
+
+    @Benchmark
+    public List<Shortcut> streamingRead(ShortcutFile file, Codecs codecs) throws IOException {
+        return codecs.codec.read(file.path).shortcuts();
+    }
+
+    @Benchmark
+    public List<Shortcut> databindRead(ShortcutFile file, Codecs codecs) throws IOException {
+        return codecs.mapper.readValue(file.path.toFile(), codecs.listType);
+    }
+
+    @Benchmark
+    public byte[] streamingWrite(Codecs codecs) throws IOException {
+        return codecs.codec.write(codecs.shortcuts);
+    }
+
+    @Benchmark
+    public byte[] databindWrite(Codecs codecs) throws IOException {
+        return codecs.mapper.writeValueAsBytes(codecs.shortcuts);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public List<Shortcut> coldStreamingLoad(ShortcutFile file) throws IOException {
+        return new ShortcutCodec().read(file.path).shortcuts();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public List<Shortcut> coldDatabindLoad(ShortcutFile file) throws IOException {
+        return new ObjectMapper().readValue(file.path.toFile(), new TypeReference<List<Shortcut>>() {
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package com.myhotkey.shortcututitlity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and formatting of key combinations. {@link KeyChord#parse} and
+ * {@link KeyChord#format} replaced the service's normalizeKeyCombo and
+ * buildKeyCombo; they now run when a profile is compiled or displayed
+ * rather than on every key event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyChordBenchmark {
+
+    private static final String[] COMBOS = {
+            "Ctrl+F12", "ctrl + alt + delete", "Shift+Win+Left", "Alt+Shift+9"
+    };
+
+    private int[] chords;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        chords = new int[COMBOS.length];
+        for (int i = 0; i < COMBOS.length; i++) {
+            chords[i] = KeyChord.parse(COMBOS[i]);
+        }
+    }
+
+    @Benchmark
+    public int parse() {
+        return KeyChord.parse(COMBOS[index++ & (COMBOS.length - 1)]);
+    }
+
+    @Benchmark
+    public String format() {
+        return KeyChord.format(chords[index++ & (chords.length - 1)]);
+    }
+}
@@ -0,0 +1,85 @@
+package com.myhotkey.shortcututitlity;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.myhotkey.shortcututitlity.backend.ActionBackends;
+import com.myhotkey.shortcututitlity.backend.RecordingActionBackend;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Cost of {@link GlobalHotkeyService#nativeKeyPressed} on the hook thread,
+ * for events that match a shortcut and for plain typing that does not.
+ * Matched shortcuts are only enqueued here; they run against the recording
+ * backend on the dispatcher threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyEventBenchmark {
+
+    private static final int EVENTS = 8;
+
+    @Param({"8", "1000"})
+    public int shortcutCount;
+
+    private GlobalHotkeyService service;
+    private NativeKeyEvent[] matching;
+    private NativeKeyEvent[] nonMatching;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        LogManager.getLogManager().reset();
+        ActionBackends.set(new RecordingActionBackend(1024));
+
+        List<Shortcut> shortcuts = BenchmarkData.shortcuts(shortcutCount);
+        service = new GlobalHotkeyService();
+        service.setShortcuts(shortcuts);
+        service.enableWithoutHook();
+
+        // Rotate over different chords so the debounce filter does not reject them
+        matching = new NativeKeyEvent[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            matching[i] = BenchmarkData.pressOf(shortcuts.get(i % shortcuts.size()));
+        }
+
+        // Unmodified letters never match: every benchmark shortcut has a modifier
+        nonMatching = new NativeKeyEvent[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            nonMatching[i] = BenchmarkData.press(NativeKeyEvent.VC_A + i, 0);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public void matching() {
+        service.nativeKeyPressed(matching[index++ & (EVENTS - 1)]);
+    }
+
+    @Benchmark
+    public void nonMatching() {
+        service.nativeKeyPressed(nonMatching[index++ & (EVENTS - 1)]);
+    }
+}
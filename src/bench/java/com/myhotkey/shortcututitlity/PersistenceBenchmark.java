@@ -0,0 +1,106 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * {@link JsonManager} load and save on large profiles, against a file in the
+ * temp directory. Loads are measured through the binary profile cache and
+ * straight from the JSON, both alone and compiled into the service table as
+ * at startup. Saves include the wait for the durable write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int shortcutCount;
+
+    private Path file;
+    private JsonManager jsonManager;
+    private JsonManager jsonOnlyManager;
+    private GlobalHotkeyService service;
+    private List<Shortcut> shortcuts;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() throws IOException {
+        // JsonManager reports every save on stdout
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        LogManager.getLogManager().reset();
+
+        file = Files.createTempFile("keyflow-bench", ".json");
+        jsonManager = new JsonManager(file.toString());
+        jsonOnlyManager = new JsonManager(file.toString(), false);
+        service = new GlobalHotkeyService();
+        shortcuts = BenchmarkData.shortcuts(shortcutCount);
+        // Writes the JSON and, behind it, the binary snapshot
+        jsonManager.saveShortcuts(shortcuts);
+        jsonManager.flush();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        jsonManager.close();
+        jsonOnlyManager.close();
+        service.close();
+        System.setOut(stdout);
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling(file.getFileName().toString().replace(".json", ".bin")));
+        Files.deleteIfExists(file.resolveSibling(file.getFileName().toString().replace(".json", ".journal")));
+    }
+
+    @Benchmark
+    public List<Shortcut> load() {
+        return jsonManager.loadShortcuts();
+    }
+
+    @Benchmark
+    public List<Shortcut> loadWithoutCache() {
+        return jsonOnlyManager.loadShortcuts();
+    }
+
+    @Benchmark
+    public int loadAndCompile() {
+        service.setShortcuts(jsonManager.loadProfile());
+        return service.getShortcutCount();
+    }
+
+    @Benchmark
+    public int loadAndCompileWithoutCache() {
+        service.setShortcuts(jsonOnlyManager.loadProfile());
+        return service.getShortcutCount();
+    }
+
+    @Benchmark
+    public void save() {
+        jsonManager.saveShortcuts(shortcuts);
+        jsonManager.flush();
+    }
+}
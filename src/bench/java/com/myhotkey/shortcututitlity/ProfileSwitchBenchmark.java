@@ -0,0 +1,85 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.ProfileSet;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Latency of switching between two large profiles and of toggling a layer on
+ * top of one, against rebuilding the table with
+ * {@link GlobalHotkeyService#setShortcuts} (the only way to switch before
+ * profiles were precompiled).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfileSwitchBenchmark {
+
+    @Param({"1000", "10000"})
+    public int shortcutCount;
+
+    private GlobalHotkeyService service;
+    private List<Shortcut> coding;
+    private List<Shortcut> gaming;
+    private boolean flip;
+
+    @Setup
+    public void setUp() {
+        LogManager.getLogManager().reset();
+        coding = BenchmarkData.shortcuts(shortcutCount);
+        // Same chords, shifted actions: a different table of the same size
+        gaming = new ArrayList<>(BenchmarkData.shortcuts(shortcutCount + 1).subList(1, shortcutCount + 1));
+
+        ProfileSet set = new ProfileSet();
+        set.getProfiles().put("coding", coding);
+        set.getProfiles().put("gaming", gaming);
+        set.getLayers().put("nav", BenchmarkData.shortcuts(shortcutCount / 10));
+
+        service = new GlobalHotkeyService();
+        service.setShortcuts(coding);
+        service.setProfiles(set);
+        service.activateProfile("coding");
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public boolean activateProfile() {
+        flip = !flip;
+        return service.activateProfile(flip ? "gaming" : "coding");
+    }
+
+    @Benchmark
+    public boolean toggleLayer() {
+        return service.toggleLayer("nav");
+    }
+
+    @Benchmark
+    public int rebuildWithSetShortcuts() {
+        flip = !flip;
+        service.setShortcuts(flip ? gaming : coding);
+        return service.getShortcutCount();
+    }
+}
@@ -0,0 +1,58 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Cost of compiling a profile into the lookup table with
+ * {@link GlobalHotkeyService#setShortcuts}. Profiles above the number of
+ * distinct chords repeat entries, so the largest sizes measure per-entry
+ * parsing rather than table growth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortcutCompileBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int shortcutCount;
+
+    private GlobalHotkeyService service;
+    private List<Shortcut> shortcuts;
+
+    @Setup
+    public void setUp() {
+        LogManager.getLogManager().reset();
+        service = new GlobalHotkeyService();
+        shortcuts = BenchmarkData.shortcuts(shortcutCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public int setShortcuts() {
+        service.setShortcuts(shortcuts);
+        return service.getShortcutCount();
+    }
+}
@@ -0,0 +1,112 @@
+package com.myhotkey.shortcututitlity;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Hook-path lookup throughput while a writer thread churns shortcuts.
+ * Compare the "contended" group against "uncontended" to see what writers cost readers.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortcutTableContentionBenchmark {
+
+    private static final int[] LETTERS = {
+            NativeKeyEvent.VC_A, NativeKeyEvent.VC_B, NativeKeyEvent.VC_C, NativeKeyEvent.VC_D,
+            NativeKeyEvent.VC_E, NativeKeyEvent.VC_F, NativeKeyEvent.VC_G, NativeKeyEvent.VC_H
+    };
+
+    @Param({"8", "256"})
+    public int shortcutCount;
+
+    private GlobalHotkeyService service;
+    private Shortcut[] churned;
+    private int readIndex;
+    private int writeIndex;
+
+    @Setup
+    public void setUp() {
+        LogManager.getLogManager().reset();
+
+        service = new GlobalHotkeyService();
+        service.setShortcuts(distinctShortcuts(shortcutCount));
+
+        churned = new Shortcut[LETTERS.length];
+        for (int i = 0; i < LETTERS.length; i++) {
+            churned[i] = new Shortcut("Ctrl+Alt+" + KeyChord.format(LETTERS[i]), SystemAction.PLAY_PAUSE);
+        }
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    @GroupThreads(1)
+    public void hookOnly() {
+        pressNext();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void hookPath() {
+        pressNext();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void writer() {
+        Shortcut shortcut = churned[writeIndex++ & (churned.length - 1)];
+        if (!service.removeShortcut(shortcut.getKeyCombo())) {
+            service.addShortcut(shortcut);
+        }
+    }
+
+    static List<Shortcut> distinctShortcuts(int count) {
+        String[] prefixes = {"Win+", "Win+Shift+", "Win+Ctrl+", "Win+Alt+",
+                "Shift+Alt+", "Ctrl+Shift+", "Win+Ctrl+Shift+", "Win+Alt+Shift+"};
+        List<String> keys = new ArrayList<>();
+        for (int f = 1; f <= 24; f++) {
+            keys.add("F" + f);
+        }
+        for (int d = 0; d <= 9; d++) {
+            keys.add(String.valueOf(d));
+        }
+
+        List<Shortcut> shortcuts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String prefix = prefixes[(i / keys.size()) % prefixes.length];
+            shortcuts.add(new Shortcut(prefix + keys.get(i % keys.size()), SystemAction.MUTE));
+        }
+        return shortcuts;
+    }
+
+    private void pressNext() {
+        // Plain typing (unbound) mixed with the churned Ctrl+Alt chords
+        int key = LETTERS[readIndex++ & (LETTERS.length - 1)];
+        int modifiers = (readIndex & 1) == 0 ? 0 : NativeKeyEvent.CTRL_L_MASK | NativeKeyEvent.ALT_L_MASK;
+        service.handleKeyPressed(key, modifiers);
+    }
+}
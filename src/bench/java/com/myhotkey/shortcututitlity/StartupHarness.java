@@ -0,0 +1,176 @@
+package com.myhotkey.shortcututitlity;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches the application repeatedly and reports time-to-hook-registered and
+ * time-to-first-frame, with and without a class data sharing archive, plus
+ * the heap in use after a full GC and the resident set size (where the OS
+ * reports it) at that point.
+ *
+ * Each launch runs with {@code keyflow.startup.exit}, so it exits once
+ * {@link StartupTimer} has printed its timings, and with APPDATA pointing at
+ * a scratch directory, so the user's shortcuts are left alone. Launches
+ * are sequential because the application allows only one instance.
+ *
+ * <pre>
+ * StartupHarness [--image &lt;jlink image&gt;] [--runs &lt;n&gt;] [--tray true]
+ * </pre>
+ *
+ * With {@code --tray true}, the application starts minimized, as at login, so
+ * the figures are those of an idle tray instance and there is no frame.
+ *
+ * With {@code --image}, the image is launched as is (its default archive
+ * holds the application classes when built with {@code -Pcds}) and with
+ * sharing turned off. Without it, the application runs from the current
+ * class path: without sharing, with the JDK's archive, and with a dynamic
+ * archive recorded by a first training launch.
+ */
+public final class StartupHarness {
+
+    private static final String MODULE_MAIN = "com.myhotkey.shortcututitlity/" + Launcher.class.getName();
+    private static final long LAUNCH_TIMEOUT_SECONDS = 60;
+
+    private final List<String> command;
+    private final Path scratch;
+
+    private StartupHarness(List<String> command, Path scratch) {
+        this.command = command;
+        this.scratch = scratch;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path image = null;
+        int runs = 5;
+        List<String> appArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--image" -> {
+                    // Blank when the Maven property is unset
+                    String dir = args[++i];
+                    image = dir.isBlank() ? null : Path.of(dir);
+                }
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--tray" -> {
+                    if (Boolean.parseBoolean(args[++i])) {
+                        appArgs.add("--tray");
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        Path scratch = Files.createTempDirectory("keyflow-startup");
+        Map<String, List<String>> configurations = new LinkedHashMap<>();
+        StartupHarness harness;
+        if (image != null) {
+            harness = new StartupHarness(concat(List.of(image.resolve("bin").resolve("java").toString(), "-m",
+                    MODULE_MAIN), appArgs), scratch);
+            harness.launch(List.of());
+            configurations.put("no sharing", List.of("-Xshare:off"));
+            configurations.put("image archive", List.of());
+        } else {
+            harness = new StartupHarness(concat(List.of(Path.of(System.getProperty("java.home"), "bin", "java")
+                    .toString(), "-cp", System.getProperty("java.class.path"), Launcher.class.getName()), appArgs),
+                    scratch);
+            Path archive = scratch.resolve("keyflow.jsa");
+            // Training launch; also creates the scratch profile
+            harness.launch(List.of("-XX:ArchiveClassesAtExit=" + archive));
+            configurations.put("no sharing", List.of("-Xshare:off"));
+            configurations.put("JDK archive", List.of());
+            configurations.put("AppCDS archive", List.of("-XX:SharedArchiveFile=" + archive));
+        }
+
+        System.out.printf("%-16s %-16s %10s %10s%n", "", "", "median", "min");
+        for (Map.Entry<String, List<String>> configuration : configurations.entrySet()) {
+            Map<String, List<Long>> samples = new LinkedHashMap<>();
+            for (int i = 0; i < runs; i++) {
+                harness.launch(configuration.getValue()).forEach((name, value) -> {
+                    List<Long> values = samples.computeIfAbsent(name, k -> new ArrayList<>());
+                    if (value >= 0) {
+                        values.add(value);
+                    }
+                });
+            }
+            String label = configuration.getKey();
+            for (Map.Entry<String, List<Long>> metric : samples.entrySet()) {
+                System.out.printf("%-16s %-16s %s%n", label, metric.getKey(), summary(metric.getValue()));
+                label = "";
+            }
+        }
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    /**
+     * Runs one launch to completion.
+     *
+     * @param jvmOptions Options placed before the main class or module
+     * @return The reported milestones; empty if the launch printed none
+     */
+    private Map<String, Long> launch(List<String> jvmOptions) throws IOException, InterruptedException {
+        List<String> full = new ArrayList<>();
+        full.add(command.get(0));
+        full.addAll(jvmOptions);
+        full.add("-Dkeyflow.startup.exit=true");
+        full.add("-Dkeyflow.startup.memory=true");
+        full.add("-Dkeyflow.launchedAt=" + System.currentTimeMillis());
+        full.addAll(command.subList(1, command.size()));
+
+        ProcessBuilder builder = new ProcessBuilder(full).redirectErrorStream(true);
+        builder.environment().put("APPDATA", scratch.toString());
+        Process process = builder.start();
+        // A launch that hangs is killed, which also ends the read below
+        process.onExit().orTimeout(LAUNCH_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .exceptionally(ex -> process.destroyForcibly().onExit().join());
+
+        Map<String, Long> marks = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(StartupTimer.REPORT_PREFIX)) {
+                    parse(line.substring(StartupTimer.REPORT_PREFIX.length()), marks);
+                }
+            }
+        }
+        process.waitFor();
+        if (marks.isEmpty()) {
+            System.err.println("No startup timings from: " + String.join(" ", full));
+        }
+        return marks;
+    }
+
+    private static void parse(String timings, Map<String, Long> marks) {
+        // name=value pairs: milliseconds for milestones, KB for memory
+        for (String token : timings.trim().split(" ")) {
+            String[] pair = token.split("=", 2);
+            if (pair.length == 2) {
+                marks.put(pair[0], "failed".equals(pair[1]) ? -1L : Long.parseLong(pair[1]));
+            }
+        }
+    }
+
+    private static String summary(List<Long> samples) {
+        if (samples.isEmpty()) {
+            return String.format("%10s %10s", "-", "-");
+        }
+        long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        return String.format("%10d %10d", sorted[sorted.length / 2], Arrays.stream(sorted).min().getAsLong());
+    }
+}
@@ -0,0 +1,137 @@
+package com.myhotkey.shortcututitlity;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.myhotkey.shortcututitlity.backend.ActionBackends;
+import com.myhotkey.shortcututitlity.backend.RecordingActionBackend;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Replays a recorded-style typing trace (prose and code, capitals via Shift,
+ * the occasional Backspace) through {@link GlobalHotkeyService#nativeKeyPressed}.
+ * Events that would match the profile are removed, so every invocation is the
+ * cost of one unbound keystroke.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypingTraceBenchmark {
+
+    private static final String TEXT = """
+            The quick brown fox jumps over the lazy dog, twice.
+            for (int i = 0; i < 10; i++) { total += values[i]; }
+            Meeting moved to Thursday at 3pm; see the notes in Chapter 7.
+            String name = "KeyFlow"; System.out.println(name);
+            """;
+
+    @Param({"8", "1000"})
+    public int shortcutCount;
+
+    private GlobalHotkeyService service;
+    private NativeKeyEvent[] trace;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        LogManager.getLogManager().reset();
+        ActionBackends.set(new RecordingActionBackend(1024));
+
+        List<Shortcut> shortcuts = BenchmarkData.shortcuts(shortcutCount);
+        service = new GlobalHotkeyService();
+        service.setShortcuts(shortcuts);
+        service.enableWithoutHook();
+
+        Set<Integer> bound = new HashSet<>();
+        for (Shortcut shortcut : shortcuts) {
+            bound.add(KeyChord.parse(shortcut.getKeyCombo()));
+        }
+
+        List<NativeKeyEvent> events = new ArrayList<>();
+        for (NativeKeyEvent event : typingTrace(new Random(42))) {
+            if (!bound.contains(KeyChord.of(event.getKeyCode(), event.getModifiers()))) {
+                events.add(event);
+            }
+        }
+        trace = events.toArray(new NativeKeyEvent[0]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public void unboundKeystroke() {
+        int i = index;
+        service.nativeKeyPressed(trace[i]);
+        index = i + 1 == trace.length ? 0 : i + 1;
+    }
+
+    private static List<NativeKeyEvent> typingTrace(Random random) {
+        List<NativeKeyEvent> events = new ArrayList<>();
+        for (char c : TEXT.toCharArray()) {
+            if (random.nextInt(40) == 0) {
+                // Typo and correction
+                events.add(BenchmarkData.press(NativeKeyEvent.VC_BACKSPACE, 0));
+            }
+
+            boolean shifted = Character.isUpperCase(c) || "(){}<>\"+".indexOf(c) >= 0;
+            int keyCode = keyCodeOf(c);
+            if (keyCode == NativeKeyEvent.VC_UNDEFINED) {
+                continue;
+            }
+            if (shifted) {
+                events.add(BenchmarkData.press(NativeKeyEvent.VC_SHIFT, NativeKeyEvent.SHIFT_L_MASK));
+            }
+            events.add(BenchmarkData.press(keyCode, shifted ? NativeKeyEvent.SHIFT_L_MASK : 0));
+        }
+        return events;
+    }
+
+    private static int keyCodeOf(char c) {
+        if (Character.isLetterOrDigit(c)) {
+            try {
+                return NativeKeyEvent.class.getField("VC_" + Character.toUpperCase(c)).getInt(null);
+            } catch (ReflectiveOperationException e) {
+                return NativeKeyEvent.VC_UNDEFINED;
+            }
+        }
+        return switch (c) {
+            case ' ' -> NativeKeyEvent.VC_SPACE;
+            case '\n' -> NativeKeyEvent.VC_ENTER;
+            case '.' -> NativeKeyEvent.VC_PERIOD;
+            case ',' -> NativeKeyEvent.VC_COMMA;
+            case ';' -> NativeKeyEvent.VC_SEMICOLON;
+            case '=', '+' -> NativeKeyEvent.VC_EQUALS;
+            case '[', '{' -> NativeKeyEvent.VC_OPEN_BRACKET;
+            case ']', '}' -> NativeKeyEvent.VC_CLOSE_BRACKET;
+            case '(' -> NativeKeyEvent.VC_9;
+            case ')' -> NativeKeyEvent.VC_0;
+            case '<' -> NativeKeyEvent.VC_COMMA;
+            case '"' -> NativeKeyEvent.VC_QUOTE;
+            default -> NativeKeyEvent.VC_UNDEFINED;
+        };
+    }
+}
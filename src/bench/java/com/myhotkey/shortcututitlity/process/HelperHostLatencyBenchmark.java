@@ -0,0 +1,76 @@
+package com.myhotkey.shortcututitlity.process;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-command latency of a warm helper shell versus spawning a process per command.
+ * A stand-in script plays the part of nircmd.exe, so this runs on Linux.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HelperHostLatencyBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private Path standIn;
+    private HelperProcessPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        standIn = Files.createTempFile("standin-nircmd", ".sh");
+        Files.writeString(standIn, "#!/bin/sh\nexit 0\n");
+        Files.setPosixFilePermissions(standIn, PosixFilePermissions.fromString("rwx------"));
+
+        pool = new HelperProcessPool("standin", HelperShell.POSIX, 2);
+        pool.warmUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        pool.close();
+        Files.deleteIfExists(standIn);
+    }
+
+    @Benchmark
+    public int spawnPerCommand() throws Exception {
+        Process process = new ProcessBuilder(standIn.toString(), "changesysvolume", "2000").start();
+        if (!process.waitFor(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            return -1;
+        }
+        return process.exitValue();
+    }
+
+    @Benchmark
+    public int helperHost() throws Exception {
+        return pool.execute(standIn + " changesysvolume 2000", TIMEOUT).exitCode();
+    }
+
+    @Benchmark
+    public int helperHostBuiltin() throws Exception {
+        // Lower bound: round trip through the helper without any child process
+        return pool.execute(":", TIMEOUT).exitCode();
+    }
+}
@@ -0,0 +1,537 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable open-addressing hash table from packed chord codes to shortcuts.
+ * Lookups use primitive int keys only, so {@link #get(int)} never allocates.
+ *
+ * Tables are never modified once built: writers derive a new table through
+ * {@link #toBuilder()} and publish it, so readers need no locking.
+ *
+ * Multi-stroke sequences are kept beside the single chords and compiled into a
+ * {@link SequenceTrie} when the table is built. A table never holds two
+ * bindings where one is a prefix of the other; {@link Builder#findConflict}
+ * reports such clashes before they are bound.
+ *
+ * Every built table also carries a rejection filter: a bitset of the key codes
+ * and a bit mask of the modifier combinations used by any binding, including
+ * every stroke of a sequence. {@link #mayMatch(int)} answers "no" for plain
+ * typing with two bit tests, before any lookup.
+ */
+final class ChordTable {
+
+    /**
+     * A multi-stroke binding.
+     *
+     * @param chords   Chord codes in stroke order (at least two)
+     * @param shortcut The bound shortcut
+     */
+    record SequenceBinding(int[] chords, Shortcut shortcut) {
+    }
+
+    private static final int MIN_CAPACITY = 16;
+
+    static final ChordTable EMPTY = new ChordTable(0);
+
+    // One bit per VC key code (16 bits of key code -> 1024 words)
+    private static final int FILTER_WORDS = 1 << 10;
+    private static final long[] NO_KEYS = new long[FILTER_WORDS];
+
+    private int[] keys;
+    private Shortcut[] values;
+    private int size;
+
+    // Rejection filter, recomputed by Builder.build(); never mutated once published
+    private long[] keyFilter = NO_KEYS;
+    private int modifierFilter;
+
+    // Keyed by sequenceKey(); prefixes counts how many sequences share each proper prefix
+    private Map<String, SequenceBinding> sequences = Map.of();
+    private Map<String, Integer> prefixes = Map.of();
+    private SequenceTrie trie = SequenceTrie.EMPTY;
+
+    private ChordTable(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new Shortcut[capacity];
+    }
+
+    /**
+     * @param chord Packed chord code
+     * @return The bound shortcut, or null if none
+     */
+    Shortcut get(int chord) {
+        int slot = slotOf(chord);
+        return slot < 0 ? null : values[slot];
+    }
+
+    /**
+     * Fast pre-check for the hook thread: false means no binding (single or
+     * any stroke of a sequence) uses this key code or this modifier mask, so
+     * the event can be dropped without a lookup. True may be a false positive.
+     *
+     * @param chord Packed chord code
+     * @return false if the chord certainly matches nothing
+     */
+    boolean mayMatch(int chord) {
+        int key = KeyChord.keyCode(chord);
+        return ((modifierFilter >>> KeyChord.modifiers(chord)) & 1) != 0
+                && (keyFilter[key >>> 6] & (1L << key)) != 0;
+    }
+
+    /**
+     * Finds the slot a chord is stored in. Slots are stable for the lifetime
+     * of this table and lie in {@code 0..capacity()-1}, so per-shortcut state
+     * can be kept in plain arrays indexed by slot.
+     *
+     * @param chord Packed chord code
+     * @return The slot, or -1 if the chord is not bound
+     */
+    int slotOf(int chord) {
+        if (chord == KeyChord.NONE) {
+            return -1;
+        }
+        int[] k = keys;
+        int mask = k.length - 1;
+        int i = mix(chord) & mask;
+        while (true) {
+            int key = k[i];
+            if (key == chord) {
+                return i;
+            }
+            if (key == KeyChord.NONE) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * @param slot A slot returned by {@link #slotOf(int)}
+     * @return The shortcut stored in the slot
+     */
+    Shortcut valueAt(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * @return Number of slots (an upper bound for slot indexes)
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * @return Trie of the multi-stroke bindings ({@link SequenceTrie#EMPTY} if none)
+     */
+    SequenceTrie sequences() {
+        return trie;
+    }
+
+    /**
+     * @return Number of bindings, single chords and sequences
+     */
+    int size() {
+        return size + sequences.size();
+    }
+
+    List<Shortcut> values() {
+        List<Shortcut> result = new ArrayList<>(size());
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != KeyChord.NONE) {
+                result.add(values[i]);
+            }
+        }
+        for (SequenceBinding binding : sequences.values()) {
+            result.add(binding.shortcut());
+        }
+        return result;
+    }
+
+    /**
+     * Creates a builder pre-populated with a copy of this table's bindings.
+     *
+     * @return A new builder; this table is left untouched
+     */
+    Builder toBuilder() {
+        ChordTable copy = new ChordTable(0);
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.size = size;
+        if (!sequences.isEmpty()) {
+            copy.sequences = new LinkedHashMap<>(sequences);
+            copy.prefixes = new HashMap<>(prefixes);
+            copy.trie = trie;
+        }
+        return new Builder(copy);
+    }
+
+    /**
+     * @param expectedSize Number of bindings the builder should be sized for
+     * @return A new empty builder
+     */
+    static Builder builder(int expectedSize) {
+        return new Builder(new ChordTable(expectedSize));
+    }
+
+    /**
+     * Binds a chord to a shortcut, replacing any previous binding.
+     *
+     * @return The previously bound shortcut, or null
+     */
+    private Shortcut put(int chord, Shortcut shortcut) {
+        if (chord == KeyChord.NONE) {
+            throw new IllegalArgumentException("Cannot bind an empty chord");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+        int mask = keys.length - 1;
+        int i = mix(chord) & mask;
+        while (keys[i] != KeyChord.NONE) {
+            if (keys[i] == chord) {
+                Shortcut previous = values[i];
+                values[i] = shortcut;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = chord;
+        values[i] = shortcut;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the binding for a chord.
+     *
+     * @return The removed shortcut, or null if the chord was not bound
+     */
+    private Shortcut remove(int chord) {
+        if (chord == KeyChord.NONE) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        int i = mix(chord) & mask;
+        while (keys[i] != chord) {
+            if (keys[i] == KeyChord.NONE) {
+                return null;
+            }
+            i = (i + 1) & mask;
+        }
+
+        Shortcut removed = values[i];
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int gap = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != KeyChord.NONE) {
+            int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[gap] = KeyChord.NONE;
+        values[gap] = null;
+        size--;
+        return removed;
+    }
+
+    private void clear() {
+        Arrays.fill(keys, KeyChord.NONE);
+        Arrays.fill(values, null);
+        size = 0;
+        sequences = Map.of();
+        prefixes = Map.of();
+        trie = SequenceTrie.EMPTY;
+    }
+
+    /**
+     * Binds a multi-stroke sequence, replacing any binding of the same sequence.
+     *
+     * @return The previously bound shortcut, or null
+     */
+    private Shortcut putSequence(int[] chords, Shortcut shortcut) {
+        if (chords.length < 2) {
+            throw new IllegalArgumentException("A sequence needs at least two strokes");
+        }
+        if (sequences.isEmpty()) {
+            sequences = new LinkedHashMap<>();
+            prefixes = new HashMap<>();
+        }
+        SequenceBinding previous = sequences.put(sequenceKey(chords, chords.length),
+                new SequenceBinding(chords.clone(), shortcut));
+        if (previous != null) {
+            return previous.shortcut();
+        }
+        for (int length = 1; length < chords.length; length++) {
+            prefixes.merge(sequenceKey(chords, length), 1, Integer::sum);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the binding of a multi-stroke sequence.
+     *
+     * @return The removed shortcut, or null if the sequence was not bound
+     */
+    private Shortcut removeSequence(int[] chords) {
+        SequenceBinding removed = sequences.isEmpty() ? null
+                : sequences.remove(sequenceKey(chords, chords.length));
+        if (removed == null) {
+            return null;
+        }
+        for (int length = 1; length < chords.length; length++) {
+            prefixes.computeIfPresent(sequenceKey(chords, length), (k, n) -> n == 1 ? null : n - 1);
+        }
+        return removed.shortcut();
+    }
+
+    /**
+     * @param chords Chord codes in stroke order
+     * @return The shortcut bound to exactly these strokes, or null
+     */
+    private Shortcut bound(int[] chords) {
+        if (chords.length == 1) {
+            return get(chords[0]);
+        }
+        SequenceBinding binding = sequences.get(sequenceKey(chords, chords.length));
+        return binding != null ? binding.shortcut() : null;
+    }
+
+    /**
+     * Finds an existing binding that would make a new one ambiguous: a binding
+     * that is a proper prefix of it, or one it is a proper prefix of. Binding
+     * exactly the same strokes again is a replacement, not a conflict.
+     *
+     * @param chords Chord codes of the new binding, in stroke order
+     * @return The conflicting shortcut, or null if there is none
+     */
+    private Shortcut findConflict(int[] chords) {
+        int[] strokes = conflictingStrokes(chords);
+        if (strokes == null) {
+            return null;
+        }
+        return strokes.length == 1 ? get(strokes[0]) : sequences.get(sequenceKey(strokes, strokes.length)).shortcut();
+    }
+
+    /**
+     * Checks a binding against this table without deriving a new one.
+     *
+     * @param chords Chord codes of a binding that may be added, in stroke order
+     * @return An existing shortcut that is a prefix or an extension of it, or null
+     */
+    Shortcut conflictWith(int[] chords) {
+        return findConflict(chords);
+    }
+
+    /**
+     * Like {@link #findConflict}, but reports the strokes of the conflicting
+     * binding so it can be unbound.
+     */
+    private int[] conflictingStrokes(int[] chords) {
+        // An existing binding is a prefix of the new one
+        if (chords.length > 1 && get(chords[0]) != null) {
+            return new int[] {chords[0]};
+        }
+        for (int length = 2; length < chords.length; length++) {
+            SequenceBinding binding = sequences.get(sequenceKey(chords, length));
+            if (binding != null) {
+                return binding.chords();
+            }
+        }
+
+        // The new binding is a prefix of existing ones
+        String key = sequenceKey(chords, chords.length);
+        if (!prefixes.containsKey(key)) {
+            return null;
+        }
+        for (SequenceBinding binding : sequences.values()) {
+            if (binding.chords().length > chords.length
+                    && Arrays.equals(binding.chords(), 0, chords.length, chords, 0, chords.length)) {
+                return binding.chords();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Derives a table with another table's bindings stacked on top of this
+     * one's. Chords the upper table does not bind fall through to this table;
+     * bindings here that clash with an upper one (same strokes, or a prefix
+     * either way) are shadowed.
+     *
+     * @param upper The table that takes precedence
+     * @return A new table; both inputs are left untouched
+     */
+    ChordTable overlay(ChordTable upper) {
+        Builder builder = toBuilder();
+        ChordTable merged = builder.table();
+        for (int i = 0; i < upper.keys.length; i++) {
+            if (upper.keys[i] != KeyChord.NONE) {
+                merged.shadow(new int[] {upper.keys[i]});
+                merged.put(upper.keys[i], upper.values[i]);
+            }
+        }
+        for (SequenceBinding binding : upper.sequences.values()) {
+            merged.shadow(binding.chords());
+            builder.putSequence(binding.chords(), binding.shortcut());
+        }
+        if (!sequences.isEmpty()) {
+            // Shadowing may have removed sequences of this table
+            builder.sequencesChanged = true;
+        }
+        return builder.build();
+    }
+
+    private void shadow(int[] chords) {
+        int[] strokes;
+        while ((strokes = conflictingStrokes(chords)) != null) {
+            if (strokes.length == 1) {
+                remove(strokes[0]);
+            } else {
+                removeSequence(strokes);
+            }
+        }
+    }
+
+    private void rebuildFilter() {
+        long[] filter = new long[FILTER_WORDS];
+        int modifiers = 0;
+        for (int chord : keys) {
+            if (chord != KeyChord.NONE) {
+                modifiers |= addToFilter(filter, chord);
+            }
+        }
+        for (SequenceBinding binding : sequences.values()) {
+            for (int chord : binding.chords()) {
+                modifiers |= addToFilter(filter, chord);
+            }
+        }
+        keyFilter = filter;
+        modifierFilter = modifiers;
+    }
+
+    private static int addToFilter(long[] filter, int chord) {
+        int key = KeyChord.keyCode(chord);
+        filter[key >>> 6] |= 1L << key;
+        return 1 << KeyChord.modifiers(chord);
+    }
+
+    private static String sequenceKey(int[] chords, int length) {
+        StringBuilder sb = new StringBuilder(length * 9);
+        for (int i = 0; i < length; i++) {
+            sb.append(Integer.toHexString(chords[i])).append(' ');
+        }
+        return sb.toString();
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Shortcut[] oldValues = values;
+        keys = new int[capacity];
+        values = new Shortcut[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != KeyChord.NONE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(int chord) {
+        int h = chord * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Single-use mutable view used to derive a new table.
+     * After {@link #build()} the builder must not be used again.
+     */
+    static final class Builder {
+        private ChordTable table;
+        private boolean sequencesChanged;
+
+        private Builder(ChordTable table) {
+            this.table = table;
+        }
+
+        Shortcut put(int chord, Shortcut shortcut) {
+            return table().put(chord, shortcut);
+        }
+
+        Shortcut remove(int chord) {
+            return table().remove(chord);
+        }
+
+        Shortcut get(int chord) {
+            return table().get(chord);
+        }
+
+        Shortcut putSequence(int[] chords, Shortcut shortcut) {
+            sequencesChanged = true;
+            return table().putSequence(chords, shortcut);
+        }
+
+        Shortcut removeSequence(int[] chords) {
+            Shortcut removed = table().removeSequence(chords);
+            sequencesChanged |= removed != null;
+            return removed;
+        }
+
+        /**
+         * @param chords Chord codes in stroke order
+         * @return The shortcut bound to exactly these strokes, or null
+         */
+        Shortcut bound(int[] chords) {
+            return table().bound(chords);
+        }
+
+        /**
+         * @param chords Chord codes of a binding about to be added, in stroke order
+         * @return An existing shortcut that is a prefix or an extension of it, or null
+         */
+        Shortcut findConflict(int[] chords) {
+            return table().findConflict(chords);
+        }
+
+        Builder clear() {
+            table().clear();
+            return this;
+        }
+
+        int size() {
+            return table().size();
+        }
+
+        ChordTable build() {
+            ChordTable built = table();
+            if (sequencesChanged) {
+                built.trie = SequenceTrie.build(built.sequences.values());
+            }
+            built.rebuildFilter();
+            table = null;
+            return built;
+        }
+
+        private ChordTable table() {
+            if (table == null) {
+                throw new IllegalStateException("Builder already used");
+            }
+            return table;
+        }
+    }
+}
@@ -4,30 +4,81 @@ import com.github.kwhat.jnativehook.GlobalScreen;
 import com.github.kwhat.jnativehook.NativeHookException;
 import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
 import com.github.kwhat.jnativehook.keyboard.NativeKeyListener;
+import com.myhotkey.shortcututitlity.enums.LatencyStage;
+import com.myhotkey.shortcututitlity.enums.OverflowPolicy;
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.ProfileSet;
 import com.myhotkey.shortcututitlity.model.Shortcut;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service for managing global keyboard shortcuts across the entire system.
  * This service uses JNativeHook to capture keyboard events at the OS level.
  * 
- * Thread-safe implementation with optimized shortcut lookup.
+ * Thread-safe implementation with optimized shortcut lookup: the hook thread
+ * reads an immutable snapshot table without locking, and writers publish a
+ * new snapshot (copy-on-write) on every change. Matched shortcuts are handed
+ * to a {@link ShortcutDispatcher} so actions never run on the hook thread.
+ *
+ * Named profiles and layers ({@link #setProfiles}) are compiled ahead of
+ * time; activating a profile or toggling a layer publishes another
+ * precompiled table, so a switch is a reference swap. A layer toggle key
+ * switches with a compare-and-set on the hook thread, to a table built in
+ * advance; the next targets are built afterwards on a dispatcher thread.
  */
 public class GlobalHotkeyService implements NativeKeyListener, AutoCloseable {
 
     private static final Logger LOGGER = Logger.getLogger(GlobalHotkeyService.class.getName());
 
-    // Thread-safe shortcut storage with fast lookup
-    private final Map<String, Shortcut> shortcutMap = new ConcurrentHashMap<>();
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * The active stack, swapped as a whole.
+     *
+     * @param profile Name of the active profile
+     * @param layers  Active layers, bottom to top
+     * @param table   The flattened table the hook thread reads
+     * @param toggles For every layer, the flattened table with that layer
+     *                toggled; empty until prepared after a hook-thread switch
+     */
+    private record ActiveStack(String profile, List<String> layers, ChordTable table,
+            Map<String, ChordTable> toggles) {
+
+        static final ActiveStack EMPTY = new ActiveStack(ProfileSet.DEFAULT_PROFILE, List.of(),
+                ChordTable.EMPTY, Map.of());
+
+        ActiveStack toggle(String layer, ChordTable target) {
+            return new ActiveStack(profile, ProfileTables.toggled(layers, layer), target, Map.of());
+        }
+    }
+
+    // Immutable snapshot of shortcuts compiled to packed chord codes, with its
+    // layer toggle targets. Readers never lock; writers serialize on writeLock
+    // and swap the reference by CAS, as the hook thread may switch a layer.
+    private final AtomicReference<ActiveStack> activeStack = new AtomicReference<>(ActiveStack.EMPTY);
+    private final Object writeLock = new Object();
+
+    // The profile of shortcuts.json, which the editing methods change, and the
+    // precompiled named profiles and layers. Guarded by writeLock.
+    private ChordTable defaultTable = ChordTable.EMPTY;
+    private ProfileTables profiles = ProfileTables.EMPTY;
+
+    // Layers toggled on the hook thread whose target was not built yet, in key
+    // order; applied by the dispatcher. While any wait, the hook queues further
+    // toggles behind them instead of switching itself.
+    private final Queue<String> pendingToggles = new ConcurrentLinkedQueue<>();
+
+    // Chord of the layer toggle still held down; its auto-repeat must not toggle again.
+    // Hook thread only.
+    private int heldToggleChord = KeyChord.NONE;
 
     // Atomic flag for enabling/disabling the service
     private final AtomicBoolean enabled = new AtomicBoolean(false);
@@ -35,52 +86,251 @@ public class GlobalHotkeyService implements NativeKeyListener, AutoCloseable {
     // Track if we've registered the native hook
     private final AtomicBoolean hooked = new AtomicBoolean(false);
 
-    // Statistics tracking
-    private final AtomicBoolean statisticsEnabled = new AtomicBoolean(false);
-    private volatile long eventsProcessed = 0;
-    private volatile long shortcutsTriggered = 0;
-    private volatile long lastEventTimestamp = 0;
+    private volatile HookSupervisor supervisor;
 
-    // Debouncing to prevent double-triggering
-    private static final long DEBOUNCE_THRESHOLD_MS = 50;
-    private final Map<String, Long> lastTriggerTime = new ConcurrentHashMap<>();
+    // Statistics tracking (per action and per shortcut, striped counters)
+    private final HotkeyStatistics statistics = new HotkeyStatistics();
+
+    // Debouncing to prevent double-triggering. The filter's state is indexed by
+    // table slot and replaced whenever the hook thread sees a new table.
+    private static final Duration DEFAULT_DEBOUNCE_WINDOW = Duration.ofMillis(50);
+    private volatile long debounceWindowNanos = DEFAULT_DEBOUNCE_WINDOW.toNanos();
+    private volatile RepeatPolicy defaultRepeatPolicy = RepeatPolicy.THROTTLE;
+    private volatile RepeatFilter repeatFilter = new RepeatFilter(ChordTable.EMPTY);
 
     // Listener for raw key press events
-    private Consumer<String> onKeyPressedListener;
+    private volatile Consumer<String> onKeyPressedListener;
+
+    // Runs matched shortcuts on worker threads, in order per action
+    private final ShortcutDispatcher dispatcher;
+
+    // Merges bursts of volume/brightness steps into single backend commands
+    private final TriggerCoalescer coalescer = new TriggerCoalescer(statistics::recordFailure);
+
+    // Timer-driven repeat of held volume/brightness shortcuts (one scheduler thread)
+    private final HoldRepeater holdRepeater = new HoldRepeater(this::repeatShortcut);
+
+    // Cursor into the multi-stroke trie of the table it was taken from.
+    // Touched by the hook thread only; reset when it times out or the table changes.
+    private static final Duration DEFAULT_SEQUENCE_TIMEOUT = Duration.ofMillis(1500);
+    private volatile long sequenceTimeoutNanos = DEFAULT_SEQUENCE_TIMEOUT.toNanos();
+    private SequenceTrie sequenceTrie = SequenceTrie.EMPTY;
+    private int sequenceNode = SequenceTrie.ROOT;
+    private long sequenceDeadline;
+
+    // Per-stage latency histograms; recorded only while statistics are enabled
+    private final LatencyMonitor latency = LatencyMonitor.getInstance();
 
     /**
      * Creates a new GlobalHotkeyService instance.
      */
     public GlobalHotkeyService() {
+        this.dispatcher = new ShortcutDispatcher(this::executeShortcut);
         LOGGER.info("GlobalHotkeyService initialized");
     }
 
     /**
      * Sets the list of shortcuts to monitor.
      * This method is thread-safe and rebuilds the internal shortcut map.
+     * Shortcuts whose strokes are a prefix or an extension of an earlier
+     * entry are skipped, as they could never be told apart while typing.
      * 
      * @param shortcuts List of shortcuts to set (null-safe, creates defensive copy)
      */
     public void setShortcuts(List<Shortcut> shortcuts) {
-        lock.writeLock().lock();
-        try {
-            shortcutMap.clear();
-
-            if (shortcuts != null) {
-                for (Shortcut shortcut : shortcuts) {
-                    if (shortcut != null && isValidShortcut(shortcut)) {
-                        String normalizedCombo = normalizeKeyCombo(shortcut.getKeyCombo());
-                        shortcutMap.put(normalizedCombo, shortcut);
-                    } else {
-                        LOGGER.warning("Skipping invalid shortcut: " + shortcut);
-                    }
+        setShortcuts(shortcuts, null);
+    }
+
+    /**
+     * Sets the list of shortcuts from a profile that is already compiled
+     * (e.g. read from the binary profile cache), skipping key parsing.
+     *
+     * @param profile Shortcuts, with chord codes per entry if available
+     */
+    void setShortcuts(ProfileCache.CompiledProfile profile) {
+        setShortcuts(profile.shortcuts(), profile.chords());
+    }
+
+    /**
+     * @param shortcuts List of shortcuts to set (null-safe)
+     * @param compiled  Chord codes per entry, or null to compile here
+     */
+    private void setShortcuts(List<Shortcut> shortcuts, int[][] compiled) {
+        if (shortcuts == null) {
+            synchronized (writeLock) {
+                defaultTable = ChordTable.EMPTY;
+                publish(null, null);
+            }
+            LOGGER.info("Shortcuts list is null, clearing all shortcuts");
+            return;
+        }
+
+        // Compile outside the write lock; only the swap is serialized
+        ChordTable table = compileTable(shortcuts, compiled);
+
+        synchronized (writeLock) {
+            defaultTable = table;
+            publish(null, null);
+        }
+        LOGGER.info("Loaded " + table.size() + " valid shortcuts");
+    }
+
+    /**
+     * @param shortcuts Entries to bind, in order
+     * @param compiled  Chord codes per entry, or null to compile here
+     * @return The table; invalid and conflicting entries are skipped, and of
+     *         several entries with the same keys the first is bound, as in
+     *         {@link ShortcutRepository}
+     */
+    private ChordTable compileTable(List<Shortcut> shortcuts, int[][] compiled) {
+        ChordTable.Builder builder = ChordTable.builder(shortcuts.size());
+        for (int i = 0; i < shortcuts.size(); i++) {
+            Shortcut shortcut = shortcuts.get(i);
+            int[] chords = compiled != null && isValidShortcut(shortcut) ? compiled[i] : compile(shortcut);
+            if (chords.length > 0) {
+                if (builder.bound(chords) == null) {
+                    bind(builder, chords, shortcut);
                 }
-                LOGGER.info("Loaded " + shortcutMap.size() + " valid shortcuts");
             } else {
-                LOGGER.info("Shortcuts list is null, clearing all shortcuts");
+                LOGGER.warning("Skipping invalid shortcut: " + shortcut);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Installs named profiles and layers. Each is compiled into its own table
+     * here, together with the stacks one layer toggle away from the active
+     * one, so that {@link #activateProfile} and {@link #toggleLayer} only swap
+     * tables.
+     * The profile named as active in the set is activated; active layers
+     * that still exist stay active.
+     *
+     * @param set Profiles and layers (null clears them)
+     */
+    public void setProfiles(ProfileSet set) {
+        Map<String, ChordTable> profileTables = new LinkedHashMap<>();
+        Map<String, ChordTable> layerTables = new LinkedHashMap<>();
+        if (set != null) {
+            set.getProfiles().forEach((name, shortcuts) -> {
+                if (!ProfileSet.DEFAULT_PROFILE.equals(name) && shortcuts != null) {
+                    profileTables.put(name, compileTable(shortcuts, null));
+                }
+            });
+            set.getLayers().forEach((name, shortcuts) -> {
+                if (shortcuts != null) {
+                    layerTables.put(name, compileTable(shortcuts, null));
+                }
+            });
+        }
+        ProfileTables tables = new ProfileTables(profileTables, layerTables);
+
+        synchronized (writeLock) {
+            profiles = tables;
+            String requested = set != null ? set.getActiveProfile() : null;
+            // Layers and a profile that no longer exist are dropped by publish
+            publish(requested != null && tables.hasProfile(requested) ? requested : null, null);
+        }
+        LOGGER.info("Loaded " + profileTables.size() + " profiles and " + layerTables.size() + " layers");
+    }
+
+    /**
+     * Activates a profile: its shortcuts replace those of shortcuts.json
+     * until another profile is activated. Active layers stay on top.
+     *
+     * @param name Profile name; null or "default" for shortcuts.json
+     * @return true if switched, false if there is no such profile
+     */
+    public boolean activateProfile(String name) {
+        String profile = name != null ? name : ProfileSet.DEFAULT_PROFILE;
+        synchronized (writeLock) {
+            if (!profiles.hasProfile(profile)) {
+                LOGGER.warning("Unknown profile: " + profile);
+                return false;
+            }
+            publish(profile, null);
+        }
+        LOGGER.fine("Activated profile " + profile);
+        return true;
+    }
+
+    /**
+     * Turns a layer on (on top of all active layers) or off.
+     *
+     * @param name Layer name
+     * @return true if the layer is now on
+     */
+    public boolean toggleLayer(String name) {
+        synchronized (writeLock) {
+            if (name == null || !profiles.hasLayer(name)) {
+                LOGGER.warning("Unknown layer: " + name);
+                return false;
+            }
+            return publish(null, name).layers().contains(name);
+        }
+    }
+
+    /**
+     * @return Name of the active profile ("default" for shortcuts.json)
+     */
+    public String getActiveProfile() {
+        return activeStack.get().profile();
+    }
+
+    /**
+     * @return Active layers, bottom to top
+     */
+    public List<String> getActiveLayers() {
+        return activeStack.get().layers();
+    }
+
+    /**
+     * @return Names of the installed profiles, not including "default"
+     */
+    public Set<String> getProfileNames() {
+        synchronized (writeLock) {
+            return Set.copyOf(profiles.profileNames());
+        }
+    }
+
+    /**
+     * Publishes the active stack, rebuilt from the current tables, with the
+     * layer toggles queued by the hook thread applied and the toggle targets
+     * of the result built. Called under writeLock after any change to the
+     * tables or the stack, and by the dispatcher after a toggle key.
+     *
+     * @param profile Profile to activate, or null to keep the active one
+     * @param layer   Layer to toggle, or null
+     * @return The published stack
+     */
+    private ActiveStack publish(String profile, String layer) {
+        while (true) {
+            ActiveStack current = activeStack.get();
+            List<String> queued = List.copyOf(pendingToggles);
+
+            String name = profile != null ? profile : current.profile();
+            if (!profiles.hasProfile(name)) {
+                name = ProfileSet.DEFAULT_PROFILE;
+            }
+            List<String> layers = current.layers();
+            for (String toggled : queued) {
+                layers = ProfileTables.toggled(layers, toggled);
+            }
+            if (layer != null) {
+                layers = ProfileTables.toggled(layers, layer);
             }
-        } finally {
-            lock.writeLock().unlock();
+            layers = layers.stream().filter(profiles::hasLayer).toList();
+
+            ActiveStack next = new ActiveStack(name, layers, profiles.stack(defaultTable, name, layers),
+                    profiles.toggleTargets(defaultTable, name, layers));
+            if (activeStack.compareAndSet(current, next)) {
+                // Only this thread removes, so the head still holds the toggles just applied
+                for (int i = 0; i < queued.size(); i++) {
+                    pendingToggles.poll();
+                }
+                return next;
+            }
+            // The hook thread switched a layer meanwhile; rebuild on top of its switch
         }
     }
 
@@ -90,41 +340,63 @@ public class GlobalHotkeyService implements NativeKeyListener, AutoCloseable {
      * @return List of shortcuts (never null)
      */
     public List<Shortcut> getShortcuts() {
-        lock.readLock().lock();
-        try {
-            return new ArrayList<>(shortcutMap.values());
-        } finally {
-            lock.readLock().unlock();
-        }
+        return activeStack.get().table().values();
     }
 
     /**
      * Adds a single shortcut to the service.
      * 
      * @param shortcut The shortcut to add
-     * @return true if added successfully, false otherwise
+     * @return true if added successfully, false if invalid or in prefix conflict
      */
     public boolean addShortcut(Shortcut shortcut) {
-        if (shortcut == null || !isValidShortcut(shortcut)) {
+        int[] chords = compile(shortcut);
+        if (chords.length == 0) {
             LOGGER.warning("Cannot add invalid shortcut: " + shortcut);
             return false;
         }
 
-        lock.writeLock().lock();
-        try {
-            String normalizedCombo = normalizeKeyCombo(shortcut.getKeyCombo());
-            shortcutMap.put(normalizedCombo, shortcut);
-            LOGGER.info("Added shortcut: " + normalizedCombo);
-            return true;
-        } finally {
-            lock.writeLock().unlock();
+        synchronized (writeLock) {
+            ChordTable.Builder builder = defaultTable.toBuilder();
+            if (!bind(builder, chords, shortcut)) {
+                return false;
+            }
+            defaultTable = builder.build();
+            publish(null, null);
+        }
+        LOGGER.info("Added shortcut: " + KeyChord.formatSequence(chords));
+        return true;
+    }
+
+    /**
+     * Checks whether a shortcut could be added: its keys are valid and it is
+     * neither a prefix nor an extension of a bound sequence. Binding the same
+     * keys again is allowed, as it replaces the old binding.
+     *
+     * @param shortcut The shortcut to check
+     * @return true if {@link #addShortcut} would accept it
+     */
+    boolean canBind(Shortcut shortcut) {
+        int[] chords = compile(shortcut);
+        if (chords.length == 0) {
+            return false;
+        }
+        Shortcut conflict;
+        synchronized (writeLock) {
+            conflict = defaultTable.conflictWith(chords);
         }
+        if (conflict != null) {
+            LOGGER.warning("Cannot add shortcut " + KeyChord.formatSequence(chords)
+                    + ": prefix conflict with " + conflict.getKeyCombo());
+            return false;
+        }
+        return true;
     }
 
     /**
      * Removes a shortcut by its key combination.
      * 
-     * @param keyCombo The key combination to remove
+     * @param keyCombo The key combination (or sequence) to remove
      * @return true if removed, false if not found
      */
     public boolean removeShortcut(String keyCombo) {
@@ -132,17 +404,167 @@ public class GlobalHotkeyService implements NativeKeyListener, AutoCloseable {
             return false;
         }
 
-        lock.writeLock().lock();
-        try {
-            String normalizedCombo = normalizeKeyCombo(keyCombo);
-            boolean removed = shortcutMap.remove(normalizedCombo) != null;
-            if (removed) {
-                LOGGER.info("Removed shortcut: " + normalizedCombo);
+        int[] chords = KeyChord.parseSequence(keyCombo);
+        if (chords.length == 0) {
+            return false;
+        }
+
+        boolean removed;
+        synchronized (writeLock) {
+            if (chords.length == 1 && defaultTable.get(chords[0]) == null) {
+                return false;
             }
-            return removed;
-        } finally {
-            lock.writeLock().unlock();
+            ChordTable.Builder builder = defaultTable.toBuilder();
+            removed = unbind(builder, chords) != null;
+            defaultTable = builder.build();
+            publish(null, null);
+        }
+        if (removed) {
+            LOGGER.info("Removed shortcut: " + KeyChord.formatSequence(chords));
         }
+        return removed;
+    }
+
+    /**
+     * Applies a batch of additions and removals as a single snapshot swap.
+     * Removals are applied before additions, so a combo may be rebound in one batch.
+     *
+     * @param added            Shortcuts to add (null-safe)
+     * @param removedKeyCombos Key combinations to remove (null-safe)
+     * @return Number of bindings actually changed
+     */
+    public int applyChanges(Collection<Shortcut> added, Collection<String> removedKeyCombos) {
+        // Compile outside the write lock
+        List<int[]> removedChords = new ArrayList<>();
+        if (removedKeyCombos != null) {
+            for (String keyCombo : removedKeyCombos) {
+                int[] chords = KeyChord.parseSequence(keyCombo);
+                if (chords.length > 0) {
+                    removedChords.add(chords);
+                }
+            }
+        }
+
+        List<Shortcut> validAdds = new ArrayList<>();
+        List<int[]> addedChords = new ArrayList<>();
+        if (added != null) {
+            for (Shortcut shortcut : added) {
+                int[] chords = compile(shortcut);
+                if (chords.length > 0) {
+                    addedChords.add(chords);
+                    validAdds.add(shortcut);
+                } else {
+                    LOGGER.warning("Skipping invalid shortcut: " + shortcut);
+                }
+            }
+        }
+
+        int changed = 0;
+        synchronized (writeLock) {
+            ChordTable.Builder builder = defaultTable.toBuilder();
+            for (int[] chords : removedChords) {
+                if (unbind(builder, chords) != null) {
+                    changed++;
+                }
+            }
+            for (int i = 0; i < validAdds.size(); i++) {
+                if (bind(builder, addedChords.get(i), validAdds.get(i))) {
+                    changed++;
+                }
+            }
+            defaultTable = builder.build();
+            publish(null, null);
+        }
+        LOGGER.info("Applied shortcut batch: " + changed + " changes");
+        return changed;
+    }
+
+    /**
+     * Applies a change of the shortcut repository as one snapshot swap.
+     *
+     * Bindings are changed per entry, not per key combination: for every key
+     * combination the change touches, the entry the repository now resolves
+     * it to is bound. So removing or rebinding one of several entries with
+     * the same keys leaves the one that wins in the repository bound, and
+     * nothing else is unbound. Trigger counts of removed entries are dropped.
+     *
+     * @param delta      What changed
+     * @param liveByCombo The entry a key combination resolves to after the
+     *                    change, or null (e.g. {@link ShortcutRepository#findByCombo})
+     * @return Number of key combinations whose binding changed
+     */
+    int applyDelta(ShortcutDelta delta, Function<String, Shortcut> liveByCombo) {
+        // Resolve outside the write lock: strokes of every touched combination -> entry to bind
+        Map<String, int[]> touched = new LinkedHashMap<>();
+        for (List<Shortcut> entries : List.of(delta.removed(), List.copyOf(delta.updated().keySet()),
+                delta.added(), List.copyOf(delta.updated().values()))) {
+            for (Shortcut shortcut : entries) {
+                int[] chords = KeyChord.parseSequence(shortcut.getKeyCombo());
+                if (chords.length > 0) {
+                    touched.putIfAbsent(KeyChord.formatSequence(chords), chords);
+                }
+            }
+        }
+        List<int[]> strokes = new ArrayList<>(touched.size());
+        List<Shortcut> wanted = new ArrayList<>(touched.size());
+        for (Map.Entry<String, int[]> combo : touched.entrySet()) {
+            Shortcut live = liveByCombo.apply(combo.getKey());
+            strokes.add(combo.getValue());
+            wanted.add(live != null && compile(live).length > 0 ? live : null);
+        }
+
+        int changed = 0;
+        synchronized (writeLock) {
+            ChordTable.Builder builder = defaultTable.toBuilder();
+            // Unbind first, so a binding is never refused for a prefix that is going away
+            boolean[] stale = new boolean[strokes.size()];
+            for (int i = 0; i < strokes.size(); i++) {
+                Shortcut bound = builder.bound(strokes.get(i));
+                stale[i] = bound != wanted.get(i);
+                if (stale[i]) {
+                    changed++;
+                    if (bound != null) {
+                        unbind(builder, strokes.get(i));
+                    }
+                }
+            }
+            for (int i = 0; i < strokes.size(); i++) {
+                if (stale[i] && wanted.get(i) != null) {
+                    bind(builder, strokes.get(i), wanted.get(i));
+                }
+            }
+            defaultTable = builder.build();
+            publish(null, null);
+        }
+        statistics.forget(delta.removed());
+        delta.updated().forEach(statistics::rebind);
+        LOGGER.info("Applied shortcut change: " + changed + " bindings changed");
+        return changed;
+    }
+
+    /**
+     * Binds compiled strokes in a builder unless they clash with the prefix of
+     * another binding.
+     *
+     * @return true if bound, false if skipped because of a prefix conflict
+     */
+    private static boolean bind(ChordTable.Builder builder, int[] chords, Shortcut shortcut) {
+        Shortcut conflict = builder.findConflict(chords);
+        if (conflict != null) {
+            LOGGER.warning("Skipping shortcut " + KeyChord.formatSequence(chords)
+                    + ": prefix conflict with " + conflict.getKeyCombo());
+            return false;
+        }
+        if (chords.length == 1) {
+            builder.put(chords[0], shortcut);
+        } else {
+            builder.putSequence(chords, shortcut);
+        }
+        return true;
+    }
+
+    private static Shortcut unbind(ChordTable.Builder builder, int[] chords) {
+        return chords.length == 1 ? builder.remove(chords[0]) : builder.removeSequence(chords);
     }
 
     /**
@@ -174,6 +596,78 @@ public class GlobalHotkeyService implements NativeKeyListener, AutoCloseable {
         }
     }
 
+    /**
+     * Registers the native hook in the background and keeps it registered:
+     * failed attempts are retried with backoff, and a hook the OS dropped
+     * silently is registered again (see {@link HookSupervisor}).
+     *
+     * @param onReady        Runs once, on the supervisor thread, when the hook is first registered
+     * @param onFirstFailure Runs once if the first attempt fails; may be null
+     */
+    public synchronized void startSupervisedHook(Runnable onReady, Runnable onFirstFailure) {
+        if (supervisor != null) {
+            return;
+        }
+        supervisor = new HookSupervisor(this, HookSupervisor.DEFAULT_HEARTBEAT);
+        supervisor.start(onReady, onFirstFailure);
+        supervisor.watchSystemEvents();
+    }
+
+    /**
+     * Registers the hook from scratch, e.g. after the OS dropped it, and
+     * keeps the enabled state the user chose.
+     *
+     * @return true if the hook is registered again
+     */
+    boolean reregisterHook() {
+        // Left alone here, so the user's pause survives failed attempts
+        boolean wasEnabled = enabled.get();
+        // A key-up in flight when the hook went away is never delivered
+        holdRepeater.cancel();
+        GlobalScreen.removeNativeKeyListener(this);
+        try {
+            if (GlobalScreen.isNativeHookRegistered()) {
+                GlobalScreen.unregisterNativeHook();
+            }
+        } catch (NativeHookException ex) {
+            LOGGER.log(Level.WARNING, "Could not unregister the stale native hook", ex);
+        }
+        hooked.set(false);
+        if (!startHook()) {
+            return false;
+        }
+        enabled.set(wasEnabled);
+        return true;
+    }
+
+    /**
+     * @return true if JNativeHook's hook thread is running
+     */
+    boolean isNativeHookRegistered() {
+        return GlobalScreen.isNativeHookRegistered();
+    }
+
+    /**
+     * Registers the supervised hook again after a change the OS may have
+     * dropped it across, e.g. when the displays changed.
+     *
+     * @param reason Logged with the re-registration
+     */
+    public void hookMayBeStale(String reason) {
+        HookSupervisor hookSupervisor = supervisor;
+        if (hookSupervisor != null) {
+            hookSupervisor.sessionChanged(reason);
+        }
+    }
+
+    /**
+     * Enables event processing without registering the native hook, so that
+     * synthetic events can be fed to {@link #nativeKeyPressed} (e.g. benchmarks).
+     */
+    void enableWithoutHook() {
+        enabled.set(true);
+    }
+
     /**
      * Checks if the service is currently active (processing events).
      * 
@@ -219,6 +713,12 @@ public class GlobalHotkeyService implements NativeKeyListener, AutoCloseable {
      */
     public void unregisterService() {
         enabled.set(false);
+        synchronized (this) {
+            if (supervisor != null) {
+                // Shutting down; don't let it register again
+                supervisor.close();
+            }
+        }
 
         if (!hooked.get()) {
             LOGGER.info("Native hook not registered, nothing to unregister");
@@ -237,100 +737,228 @@ public class GlobalHotkeyService implements NativeKeyListener, AutoCloseable {
 
     /**
      * AutoCloseable implementation for try-with-resources support.
+     * Also stops the dispatcher; pending shortcut executions are discarded.
      */
     @Override
     public void close() {
         unregisterService();
+        dispatcher.shutdown();
+        coalescer.shutdown();
+        holdRepeater.shutdown();
     }
 
-   @Override
-public void nativeKeyPressed(NativeKeyEvent e) {
-    if (!enabled.get()) return;
-
-    updateStatistics();
-    if (isModifierKey(e.getKeyCode())) return;
+    @Override
+    public void nativeKeyPressed(NativeKeyEvent e) {
+        if (!enabled.get()) return;
 
-    try {
-        String currentCombo = buildKeyCombo(e);
-        String normalizedCombo = normalizeKeyCombo(currentCombo);
+        // Plain typing exits here: one chord pack and two bit tests
+        int chord = KeyChord.of(e.getKeyCode(), e.getModifiers());
+        ChordTable table = activeStack.get().table();
+        if (!table.mayMatch(chord)) {
+            skipUnbound(e.getKeyCode());
+            return;
+        }
 
-        if (isDebouncedEvent(normalizedCombo)) return;
+        if (latency.isEnabled()) {
+            long entryNanos = System.nanoTime();
+            latency.recordOsDelay(e.getWhen(), System.currentTimeMillis());
+            handleKeyPressed(table, chord, entryNanos);
+        } else {
+            handleKeyPressed(table, chord, 0);
+        }
+    }
 
-        lock.readLock().lock();
-        try {
-            Shortcut shortcut = shortcutMap.get(normalizedCombo);
-            if (shortcut != null) {
-                // We only execute and notify if a valid shortcut was found
-                executeShortcut(shortcut, normalizedCombo);
-            }
-        } finally {
-            lock.readLock().unlock();
+    /**
+     * Hook-thread body of {@link #nativeKeyPressed}, split out so the matching
+     * path can be driven without a registered native hook (e.g. benchmarks).
+     *
+     * @param keyCode   VC key code of the event
+     * @param modifiers Raw JNativeHook modifier flags
+     */
+    void handleKeyPressed(int keyCode, int modifiers) {
+        int chord = KeyChord.of(keyCode, modifiers);
+        ChordTable table = activeStack.get().table();
+        if (!table.mayMatch(chord)) {
+            skipUnbound(keyCode);
+            return;
         }
-    } catch (Exception ex) {
-        LOGGER.log(Level.SEVERE, "Error processing key event", ex);
+        handleKeyPressed(table, chord, latency.isEnabled() ? System.nanoTime() : 0);
     }
-}
 
-    @Override
-    public void nativeKeyReleased(NativeKeyEvent e) {
-        // Can be used for key-up detection if needed in the future
+    /**
+     * Accounts for a key press the rejection filter dropped. Like any other
+     * non-modifier key, it breaks a pending sequence and ends a hold.
+     *
+     * @param keyCode VC key code of the event
+     */
+    private void skipUnbound(int keyCode) {
+        statistics.recordEvent();
+        if (!isModifierKey(keyCode)) {
+            sequenceNode = SequenceTrie.ROOT;
+            holdRepeater.cancel();
+        }
     }
 
-    @Override
-    public void nativeKeyTyped(NativeKeyEvent e) {
-        // Not used for shortcut detection
+    /**
+     * @param table      The snapshot the filter was checked against
+     * @param chord      Packed chord code of the event
+     * @param entryNanos {@link System#nanoTime()} at hook entry, or 0 if latency is not measured
+     */
+    private void handleKeyPressed(ChordTable table, int chord, long entryNanos) {
+        statistics.recordEvent();
+        if (isModifierKey(KeyChord.keyCode(chord))) return;
+
+        try {
+            // Lock-free lookup in the snapshot: no String building per keystroke
+            int slot = table.slotOf(chord);
+            Shortcut shortcut = slot < 0 ? null : table.valueAt(slot);
+            long lookupNanos = 0;
+            if (entryNanos != 0) {
+                lookupNanos = System.nanoTime();
+                latency.record(LatencyStage.LOOKUP, shortcut != null ? shortcut.getAction() : null,
+                        lookupNanos - entryNanos);
+            }
+
+            if (holdRepeater.isHolding(chord)) {
+                // OS auto-repeat of a held shortcut; the repeat scheduler drives it
+                statistics.recordDebounced();
+                return;
+            }
+            // Any other key ends a hold, as it ends OS auto-repeat
+            holdRepeater.cancel();
+
+            // A pending sequence takes precedence over single chords
+            if (sequenceNode != SequenceTrie.ROOT || (shortcut == null && !table.sequences().isEmpty())) {
+                if (advanceSequence(table.sequences(), chord, entryNanos)) {
+                    return;
+                }
+            }
+
+            if (shortcut != null && shortcut.getAction() == SystemAction.TOGGLE_LAYER) {
+                if (chord == heldToggleChord) {
+                    // Auto-repeat of the toggle; the table was swapped, so the repeat filter can't tell
+                    statistics.recordDebounced();
+                } else {
+                    heldToggleChord = chord;
+                    switchLayer(shortcut);
+                }
+            } else if (shortcut != null) {
+                RepeatPolicy policy = shortcut.getRepeatPolicy();
+                if (policy == null) {
+                    policy = defaultRepeatPolicy;
+                }
+
+                if (isDebouncedEvent(table, slot, policy)) {
+                    statistics.recordDebounced();
+                } else {
+                    // Only enqueue here; the action runs on a dispatcher thread
+                    dispatcher.submit(shortcut, entryNanos,
+                            lookupNanos != 0 ? lookupNanos : System.nanoTime());
+                    if (policy == RepeatPolicy.THROTTLE && shortcut.getAction().isRepeatable()) {
+                        holdRepeater.start(shortcut, chord);
+                    }
+                }
+            }
+        } catch (Exception ex) {
+            LOGGER.log(Level.SEVERE, "Error processing key event", ex);
+        }
     }
 
     /**
-     * Builds a key combination string from the native key event.
-     * 
-     * @param e The native key event
-     * @return Formatted key combination string (e.g., "Ctrl+Shift+A")
+     * Steps the multi-stroke cursor by one stroke and dispatches a completed
+     * sequence. Runs on the hook thread only; constant time, no allocation.
+     *
+     * @param trie       Trie of the current table
+     * @param chord      Packed chord code of the stroke
+     * @param entryNanos {@link System#nanoTime()} at hook entry, or 0 if latency is not measured
+     * @return true if the stroke was consumed by a sequence
      */
-    private String buildKeyCombo(NativeKeyEvent e) {
-        StringBuilder sb = new StringBuilder(32); // Pre-sized for typical combos
-        int modifiers = e.getModifiers();
+    private boolean advanceSequence(SequenceTrie trie, int chord, long entryNanos) {
+        long now = System.nanoTime();
+        int node = sequenceNode;
+        if (node != SequenceTrie.ROOT && (sequenceTrie != trie || now - sequenceDeadline > 0)) {
+            // Timed out, or the shortcuts changed under the cursor
+            node = SequenceTrie.ROOT;
+        }
 
-        // Build in consistent order: Ctrl -> Alt -> Shift -> Win
-        if ((modifiers & NativeKeyEvent.CTRL_MASK) != 0) {
-            sb.append("Ctrl+");
+        int next = trie.next(node, chord);
+        if (next == SequenceTrie.NO_NODE && node != SequenceTrie.ROOT) {
+            // A broken sequence; the stroke may still start a new one
+            next = trie.next(SequenceTrie.ROOT, chord);
         }
-        if ((modifiers & NativeKeyEvent.ALT_MASK) != 0) {
-            sb.append("Alt+");
+        if (next == SequenceTrie.NO_NODE) {
+            sequenceNode = SequenceTrie.ROOT;
+            return false;
+        }
+
+        Shortcut completed = trie.terminalAt(next);
+        if (completed == null) {
+            sequenceNode = next;
+            sequenceTrie = trie;
+            sequenceDeadline = now + sequenceTimeoutNanos;
+        } else {
+            sequenceNode = SequenceTrie.ROOT;
+            // Sequences are deliberate, so they bypass debouncing and hold-to-repeat
+            if (completed.getAction() == SystemAction.TOGGLE_LAYER) {
+                switchLayer(completed);
+            } else {
+                dispatcher.submit(completed, entryNanos, now);
+            }
         }
-        if ((modifiers & NativeKeyEvent.SHIFT_MASK) != 0) {
-            sb.append("Shift+");
+        return true;
+    }
+
+    /**
+     * Toggles the layer named by a TOGGLE_LAYER shortcut. Runs on the hook
+     * thread and takes no lock: if the target table was built in advance, it
+     * is swapped in by CAS, so the very next key press already sees it.
+     * Otherwise (right after another switch, before its next targets are
+     * built) the toggle is queued. Either way the dispatcher then applies
+     * queued toggles and builds the next targets.
+     */
+    private void switchLayer(Shortcut shortcut) {
+        String layer = shortcut.getLayer();
+        if (layer == null) {
+            return;
         }
-        if ((modifiers & NativeKeyEvent.META_MASK) != 0) {
-            sb.append("Win+");
+        ActiveStack current = activeStack.get();
+        ChordTable target = current.toggles().get(layer);
+        if (target == null || !pendingToggles.isEmpty()
+                || !activeStack.compareAndSet(current, current.toggle(layer, target))) {
+            pendingToggles.offer(layer);
         }
+        dispatcher.submit(shortcut, 0, System.nanoTime());
+    }
 
-        String keyText = NativeKeyEvent.getKeyText(e.getKeyCode());
-        sb.append(keyText);
+    @Override
+    public void nativeKeyReleased(NativeKeyEvent e) {
+        // Key-up ends hold-to-repeat
+        holdRepeater.release(e.getKeyCode(), isModifierKey(e.getKeyCode()));
+        heldToggleChord = KeyChord.NONE;
+    }
 
-        return sb.toString();
+    @Override
+    public void nativeKeyTyped(NativeKeyEvent e) {
+        // Not used for shortcut detection
     }
 
     /**
-     * Normalizes a key combination for consistent lookup.
-     * Handles case sensitivity and whitespace.
-     * 
-     * @param keyCombo The key combination to normalize
-     * @return Normalized key combination
+     * Validates a shortcut and compiles its key combination to chord codes,
+     * one per stroke.
+     *
+     * @param shortcut The shortcut to compile
+     * @return Packed chord codes in stroke order, or an empty array if invalid
      */
-    private String normalizeKeyCombo(String keyCombo) {
-        if (keyCombo == null) {
-            return "";
+    private int[] compile(Shortcut shortcut) {
+        if (!isValidShortcut(shortcut)) {
+            return new int[0];
         }
-        // Normalize to title case with consistent formatting
-        return keyCombo.trim()
-                .replaceAll("\\s+", "")
-                .toLowerCase()
-                .replace("ctrl", "Ctrl")
-                .replace("alt", "Alt")
-                .replace("shift", "Shift")
-                .replace("win", "Win")
-                .replace("meta", "Win");
+
+        int[] chords = KeyChord.parseSequence(shortcut.getKeyCombo());
+        if (chords.length == 0) {
+            LOGGER.warning("Invalid shortcut: unrecognized key combination " + shortcut.getKeyCombo());
+        }
+        return chords;
     }
 
     /**
@@ -372,58 +1000,87 @@ public void nativeKeyPressed(NativeKeyEvent e) {
     }
 
     /**
-     * Checks if an event should be debounced (ignored due to rapid repetition).
+     * Checks if an event should be debounced according to the shortcut's
+     * repeat policy. Runs on the hook thread only.
      * 
-     * @param keyCombo The key combination
+     * @param table  The table the shortcut was found in
+     * @param slot   Slot of the shortcut in that table
+     * @param policy Effective repeat policy of the shortcut
      * @return true if event should be ignored
      */
-    private boolean isDebouncedEvent(String keyCombo) {
-        long now = System.currentTimeMillis();
-        Long lastTime = lastTriggerTime.get(keyCombo);
-
-        if (lastTime != null && (now - lastTime) < DEBOUNCE_THRESHOLD_MS) {
-            return true;
+    private boolean isDebouncedEvent(ChordTable table, int slot, RepeatPolicy policy) {
+        RepeatFilter filter = repeatFilter;
+        if (!filter.isFor(table)) {
+            // Table was swapped: start over with state sized for the new slots
+            filter = new RepeatFilter(table);
+            repeatFilter = filter;
         }
-
-        lastTriggerTime.put(keyCombo, now);
-        return false;
+        return !filter.accept(slot, policy, System.nanoTime(), debounceWindowNanos);
     }
 
     /**
      * Executes a shortcut action with proper error handling.
+     * Runs on a dispatcher worker thread, never on the hook thread.
      * 
-     * @param shortcut The shortcut to execute
-     * @param keyCombo The key combination (for logging)
+     * @param trigger The dequeued trigger
      */
-private void executeShortcut(Shortcut shortcut, String keyCombo) {
-    try {
-        // 1. Perform the System Action
-        shortcut.getAction().execute();
-        
-        // 2. Notify the UI only if a shortcut was successfully triggered
-        if (onKeyPressedListener != null) {
-            // We pass the Action Name directly, not the raw key combo
-            onKeyPressedListener.accept(shortcut.getAction().name());
+private void executeShortcut(ShortcutDispatcher.Trigger trigger) {
+    Shortcut shortcut = trigger.shortcut();
+    SystemAction action = shortcut.getAction();
+    if (action == SystemAction.TOGGLE_LAYER) {
+        // Switched or queued on the hook thread; build the next toggle targets
+        synchronized (writeLock) {
+            publish(null, null);
         }
+        notifyTriggered(shortcut);
+        return;
+    }
+    try {
+        // 1. Perform the System Action (repeatable steps may be merged)
+        long dispatchNanos = System.nanoTime();
+        latency.record(LatencyStage.QUEUE, action, dispatchNanos - trigger.enqueuedNanos());
 
-        if (statisticsEnabled.get()) {
-            shortcutsTriggered++;
+        if (!coalescer.submit(action)) {
+            action.execute();
         }
+        latency.completeTrigger(action, trigger.hookEntryNanos(), dispatchNanos);
+        
+        // 2. Notify the UI only if a shortcut was successfully triggered
+        notifyTriggered(shortcut);
     } catch (Exception ex) {
+        statistics.recordFailure(action);
         LOGGER.log(Level.SEVERE, "Error executing shortcut", ex);
     }
 }
 
     /**
-     * Updates internal statistics.
+     * Runs one hold-to-repeat tick on the repeat scheduler thread.
+     * Steps are already merged, so the coalescer is bypassed.
+     *
+     * @param shortcut The held shortcut
+     * @param steps    Number of steps to issue
      */
-    private void updateStatistics() {
-        if (statisticsEnabled.get()) {
-            eventsProcessed++;
-            lastEventTimestamp = System.currentTimeMillis();
+    private void repeatShortcut(Shortcut shortcut, int steps) {
+        SystemAction action = shortcut.getAction();
+        try {
+            action.executeSteps(steps);
+            notifyTriggered(shortcut);
+        } catch (Exception ex) {
+            statistics.recordFailure(action);
+            LOGGER.log(Level.SEVERE, "Error repeating shortcut", ex);
         }
     }
 
+    private void notifyTriggered(Shortcut shortcut) {
+        SystemAction action = shortcut.getAction();
+        Consumer<String> listener = onKeyPressedListener;
+        if (listener != null) {
+            // We pass the Action Name directly, not the raw key combo
+            listener.accept(action.name());
+        }
+        statistics.recordTrigger(action, shortcut);
+    }
+
     /**
      * Configures JNativeHook's logging to reduce noise.
      */
@@ -439,35 +1096,71 @@ private void executeShortcut(Shortcut shortcut, String keyCombo) {
      * @param enabled true to enable, false to disable
      */
     public void setStatisticsEnabled(boolean enabled) {
-        this.statisticsEnabled.set(enabled);
+        statistics.setEnabled(enabled);
+        latency.setEnabled(enabled);
         if (!enabled) {
-            eventsProcessed = 0;
-            shortcutsTriggered = 0;
-            lastEventTimestamp = 0;
+            latency.reset();
+            dispatcher.resetStatistics();
+            coalescer.resetStatistics();
         }
     }
 
     /**
-     * Gets service statistics.
+     * Gets an immutable snapshot of the trigger counters, per action and per
+     * shortcut.
+     *
+     * @return Snapshot of the counters (all zero while statistics are disabled)
+     */
+    public StatisticsSnapshot getStatisticsSnapshot() {
+        return statistics.snapshot();
+    }
+
+    /**
+     * Gets service statistics: the counter snapshot plus dispatcher,
+     * coalescer and latency figures.
      * 
      * @return Map containing statistics
      */
     public Map<String, Object> getStatistics() {
-        Map<String, Object> stats = new HashMap<>();
+        Map<String, Object> stats = statistics.snapshot().toMap();
         stats.put("enabled", enabled.get());
         stats.put("hooked", hooked.get());
-        stats.put("shortcutsRegistered", shortcutMap.size());
-        stats.put("eventsProcessed", eventsProcessed);
-        stats.put("shortcutsTriggered", shortcutsTriggered);
-        stats.put("lastEventTimestamp", lastEventTimestamp);
+        stats.put("shortcutsRegistered", getShortcutCount());
+        stats.put("activeProfile", getActiveProfile());
+        stats.put("activeLayers", getActiveLayers());
+        dispatcher.putStatistics(stats);
+        coalescer.putStatistics(stats);
+        latency.putStatistics(stats);
+        HookSupervisor hookSupervisor = supervisor;
+        if (hookSupervisor != null) {
+            hookSupervisor.putStatistics(stats);
+        }
         return stats;
     }
 
+    /**
+     * Gets per-stage latency percentiles of the key press pipeline.
+     * Only recorded while statistics are enabled.
+     *
+     * @param action The action to report, or null for all actions
+     * @return p50/p99/p999/max per stage
+     */
+    public Map<LatencyStage, LatencyHistogram.Snapshot> getLatencySnapshot(SystemAction action) {
+        return action == null ? latency.getSnapshot() : latency.getSnapshot(action);
+    }
+
+    /**
+     * Clears the latency histograms without disabling statistics.
+     */
+    public void resetLatencyStatistics() {
+        latency.reset();
+    }
+
     /**
      * Clears debounce cache. Useful for testing or manual reset.
      */
     public void clearDebounceCache() {
-        lastTriggerTime.clear();
+        repeatFilter = new RepeatFilter(ChordTable.EMPTY);
         LOGGER.info("Debounce cache cleared");
     }
 
@@ -477,7 +1170,75 @@ private void executeShortcut(Shortcut shortcut, String keyCombo) {
      * @return Number of shortcuts
      */
     public int getShortcutCount() {
-        return shortcutMap.size();
+        return activeStack.get().table().size();
+    }
+
+    /**
+     * Sets what happens when an action's dispatch queue is full.
+     *
+     * @param policy Overflow policy (DROP_OLDEST or COALESCE)
+     */
+    public void setOverflowPolicy(OverflowPolicy policy) {
+        if (policy != null) {
+            dispatcher.setOverflowPolicy(policy);
+        }
+    }
+
+    /**
+     * Sets the window in which repeated volume/brightness steps are merged
+     * into a single command.
+     *
+     * @param window Merge window; zero disables coalescing
+     */
+    public void setCoalescingWindow(Duration window) {
+        if (window != null) {
+            coalescer.setWindow(window);
+        }
+    }
+
+    /**
+     * Sets the window used by the DEBOUNCE and THROTTLE repeat policies.
+     *
+     * @param window Debounce window; zero accepts every press
+     */
+    public void setDebounceWindow(Duration window) {
+        if (window != null && !window.isNegative()) {
+            debounceWindowNanos = window.toNanos();
+        }
+    }
+
+    /**
+     * Sets how long a multi-stroke sequence waits for its next stroke before
+     * it is abandoned.
+     *
+     * @param timeout Time allowed between strokes
+     */
+    public void setSequenceTimeout(Duration timeout) {
+        if (timeout != null && !timeout.isNegative()) {
+            sequenceTimeoutNanos = timeout.toNanos();
+        }
+    }
+
+    /**
+     * Configures hold-to-repeat for volume and brightness shortcuts with the
+     * THROTTLE policy: while the keys are held, the action repeats on a timer
+     * following the curve and OS auto-repeat events are ignored.
+     *
+     * @param curve Repeat timing, or null to fall back to OS auto-repeat
+     */
+    public void setHoldToRepeat(RepeatCurve curve) {
+        holdRepeater.setCurve(curve);
+    }
+
+    /**
+     * Sets the repeat policy of shortcuts that do not define their own.
+     *
+     * @param policy Default repeat policy (THROTTLE unless changed)
+     */
+    public void setDefaultRepeatPolicy(RepeatPolicy policy) {
+        if (policy != null) {
+            defaultRepeatPolicy = policy;
+        }
     }
 
     /**
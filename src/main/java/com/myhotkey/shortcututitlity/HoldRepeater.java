@@ -0,0 +1,218 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Repeats a held shortcut on a timer instead of relying on OS auto-repeat.
+ *
+ * Key-down starts a hold, key-up (or any other key) ends it. While a hold is
+ * active, the OS auto-repeat events of the held chord are reported as such
+ * so the caller can drop them. Only one hold exists at a time, matching how
+ * keyboards only auto-repeat the last key pressed, and all holds share one
+ * repeat thread.
+ *
+ * The key-up can get lost: on a secure desktop (UAC prompt, Ctrl+Alt+Del,
+ * lock screen) the hook sees nothing, and a hook the OS dropped misses it
+ * too. OS auto-repeat stops in those cases, so a hold also ends when no
+ * auto-repeat of its chord arrived for {@code repeatTimeout}, longer than
+ * the slowest OS repeat delay. The owner also cancels holds when it
+ * registers the hook again.
+ *
+ * {@link #start}, {@link #isHolding}, {@link #release} and {@link #cancel}
+ * are called from the hook thread and allocate nothing: they only publish
+ * the held shortcut under a new generation and wake the repeat thread,
+ * which keeps the timing of the current hold to itself.
+ */
+final class HoldRepeater {
+
+    private static final Logger LOGGER = Logger.getLogger(HoldRepeater.class.getName());
+
+    /**
+     * Runs one repeat of a held shortcut on the repeat thread.
+     */
+    @FunctionalInterface
+    interface Tick {
+        void run(Shortcut shortcut, int steps);
+    }
+
+    /** Longer than the slowest Windows keyboard delay (1 s) and repeat period. */
+    static final Duration DEFAULT_REPEAT_TIMEOUT = Duration.ofMillis(1500);
+
+    private final Tick tick;
+    private final long repeatTimeoutNanos;
+    private final Thread worker;
+    private volatile RepeatCurve curve = RepeatCurve.DEFAULT;
+    private volatile boolean running = true;
+
+    // Bumped by every start and cancel, after the held fields are written
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile Shortcut held;
+    private volatile int heldChord = KeyChord.NONE;
+    // Generation the repeat thread ended for lack of auto-repeat
+    private volatile int expired = -1;
+    // Key-down or the latest OS auto-repeat of the held chord
+    private volatile long lastRepeatNanos;
+
+    HoldRepeater(Tick tick) {
+        this(tick, DEFAULT_REPEAT_TIMEOUT);
+    }
+
+    /**
+     * @param repeatTimeout A hold ends when no OS auto-repeat of it arrived for this long
+     */
+    HoldRepeater(Tick tick, Duration repeatTimeout) {
+        this.tick = tick;
+        this.repeatTimeoutNanos = repeatTimeout.toNanos();
+        worker = new Thread(this::run, "keyflow-repeat");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * @param curve Repeat timing, or null to disable hold-to-repeat
+     */
+    void setCurve(RepeatCurve curve) {
+        this.curve = curve;
+        if (curve == null) {
+            cancel();
+        }
+    }
+
+    RepeatCurve getCurve() {
+        return curve;
+    }
+
+    boolean isEnabled() {
+        return curve != null;
+    }
+
+    /**
+     * @param chord Packed chord code of a key press
+     * @return true if the press is OS auto-repeat of the chord being held
+     */
+    boolean isHolding(int chord) {
+        if (chord != heldChord || expired == generation.get()) {
+            return false;
+        }
+        // The keys are still down
+        lastRepeatNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Starts repeating a shortcut whose keys just went down. The caller has
+     * already run the initial press. Replaces any previous hold.
+     *
+     * @param shortcut The held shortcut
+     * @param chord    Its packed chord code
+     */
+    void start(Shortcut shortcut, int chord) {
+        if (curve == null || !running) {
+            return;
+        }
+        lastRepeatNanos = System.nanoTime();
+        held = shortcut;
+        heldChord = chord;
+        generation.incrementAndGet();
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Ends the hold if the released key belongs to the held chord.
+     *
+     * @param keyCode    VC key code of the released key
+     * @param isModifier true if the released key is Ctrl, Alt, Shift or Win
+     */
+    void release(int keyCode, boolean isModifier) {
+        int chord = heldChord;
+        if (chord != KeyChord.NONE && (isModifier || KeyChord.keyCode(chord) == keyCode)) {
+            cancel();
+        }
+    }
+
+    /**
+     * Ends the current hold, if any.
+     */
+    void cancel() {
+        if (held == null) {
+            return;
+        }
+        held = null;
+        heldChord = KeyChord.NONE;
+        generation.incrementAndGet();
+        LockSupport.unpark(worker);
+    }
+
+    void shutdown() {
+        running = false;
+        cancel();
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        // Not read from generation: a hold may start before this thread runs
+        int finished = 0;
+        while (running) {
+            int gen = generation.get();
+            // Published before gen, so it belongs to gen or a newer one
+            Shortcut shortcut = held;
+            if (gen == finished || shortcut == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            repeat(shortcut, gen);
+            finished = gen;
+        }
+    }
+
+    /**
+     * Runs the ticks of one hold until it is replaced, cancelled or stale.
+     */
+    private void repeat(Shortcut shortcut, int gen) {
+        RepeatCurve c = curve;
+        if (c == null) {
+            return;
+        }
+        long intervalNanos = c.interval().toNanos();
+        long minNanos = c.minInterval().toNanos();
+        int steps = 1;
+        long due = System.nanoTime() + c.initialDelay().toNanos();
+        while (true) {
+            long now;
+            while ((now = System.nanoTime()) - due < 0) {
+                if (!running || generation.get() != gen) {
+                    return;
+                }
+                LockSupport.parkNanos(this, due - now);
+            }
+            if (!running || generation.get() != gen) {
+                return;
+            }
+            if (now - lastRepeatNanos > repeatTimeoutNanos) {
+                // No auto-repeat for too long: the key-up was lost
+                expired = gen;
+                LOGGER.fine("Hold of " + shortcut.getKeyCombo() + " ended without a key-up");
+                return;
+            }
+            try {
+                tick.run(shortcut, steps);
+            } catch (Exception ex) {
+                LOGGER.log(Level.SEVERE, "Error repeating held shortcut", ex);
+            }
+
+            // Speed up until the minimum interval, then grow the step size
+            if (intervalNanos > minNanos) {
+                intervalNanos = Math.max(minNanos, (long) (intervalNanos * c.acceleration()));
+            } else if (steps < c.maxSteps()) {
+                steps++;
+            }
+            due = System.nanoTime() + intervalNanos;
+        }
+    }
+}
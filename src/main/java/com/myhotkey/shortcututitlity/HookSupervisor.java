@@ -0,0 +1,241 @@
+package com.myhotkey.shortcututitlity;
+
+import java.awt.Desktop;
+import java.awt.GraphicsEnvironment;
+import java.awt.desktop.SystemSleepEvent;
+import java.awt.desktop.SystemSleepListener;
+import java.awt.desktop.UserSessionEvent;
+import java.awt.desktop.UserSessionListener;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the native keyboard hook of a {@link GlobalHotkeyService} registered.
+ *
+ * Registration is attempted at once and, while it fails, retried with
+ * exponential backoff. Once the hook is up, a heartbeat checks that the
+ * hook thread is still registered. The OS can also drop a low-level hook
+ * without notice, mostly across session changes, so the hook is registered
+ * again when the session is unlocked, the system resumes (or a beat comes
+ * much later than due, which means the machine was suspended) and when the
+ * displays change ({@link #sessionChanged}).
+ *
+ * Nothing is ever injected: synthetic input would reset the OS idle timer,
+ * keeping screen lock and sleep from starting, and reach other applications.
+ *
+ * All work runs on one daemon thread ("keyflow-hook-supervisor").
+ */
+final class HookSupervisor implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(HookSupervisor.class.getName());
+
+    static final Duration INITIAL_BACKOFF = Duration.ofMillis(500);
+    static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+    static final Duration DEFAULT_HEARTBEAT = Duration.ofSeconds(30);
+
+    private final GlobalHotkeyService service;
+    private final long heartbeatNanos;
+    private final LongSupplier wallClockMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private long startedNanos;
+    private Runnable onReady;
+    private Runnable onFirstFailure;
+
+    // Supervisor thread only
+    private long backoffNanos = INITIAL_BACKOFF.toNanos();
+    private boolean ready;
+    private long lastBeatMillis;
+    private ScheduledFuture<?> next;
+
+    private volatile long timeToReadyNanos = -1;
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder reregistrations = new LongAdder();
+    private final LongAdder sessionChanges = new LongAdder();
+
+    /**
+     * @param service   Service whose hook is supervised
+     * @param heartbeat Time between liveness checks
+     */
+    HookSupervisor(GlobalHotkeyService service, Duration heartbeat) {
+        this(service, heartbeat, System::currentTimeMillis);
+    }
+
+    /**
+     * @param wallClockMillis Wall clock; keeps running while the system is suspended
+     */
+    HookSupervisor(GlobalHotkeyService service, Duration heartbeat, LongSupplier wallClockMillis) {
+        this.service = service;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.wallClockMillis = wallClockMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "keyflow-hook-supervisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the first registration attempt without waiting for it.
+     *
+     * @param onReady        Runs once, on the supervisor thread, when the hook is first registered
+     * @param onFirstFailure Runs once if the first attempt fails (retries go on); may be null
+     */
+    void start(Runnable onReady, Runnable onFirstFailure) {
+        this.startedNanos = System.nanoTime();
+        this.onReady = onReady;
+        this.onFirstFailure = onFirstFailure;
+        scheduler.execute(this::register);
+    }
+
+    /**
+     * Registers for the OS session events (unlock, resume) where supported,
+     * in the background so the AWT toolkit does not delay startup.
+     */
+    void watchSystemEvents() {
+        scheduler.execute(() -> {
+            if (GraphicsEnvironment.isHeadless() || !Desktop.isDesktopSupported()) {
+                return;
+            }
+            try {
+                Desktop desktop = Desktop.getDesktop();
+                if (desktop.isSupported(Desktop.Action.APP_EVENT_USER_SESSION)) {
+                    desktop.addAppEventListener(new UserSessionListener() {
+                        @Override
+                        public void userSessionDeactivated(UserSessionEvent e) {
+                        }
+
+                        @Override
+                        public void userSessionActivated(UserSessionEvent e) {
+                            sessionChanged("the session was unlocked");
+                        }
+                    });
+                }
+                if (desktop.isSupported(Desktop.Action.APP_EVENT_SYSTEM_SLEEP)) {
+                    desktop.addAppEventListener(new SystemSleepListener() {
+                        @Override
+                        public void systemAboutToSleep(SystemSleepEvent e) {
+                        }
+
+                        @Override
+                        public void systemAwoke(SystemSleepEvent e) {
+                            sessionChanged("the system resumed");
+                        }
+                    });
+                }
+            } catch (RuntimeException ex) {
+                // Resume is still caught by the heartbeat gap
+                LOGGER.log(Level.WARNING, "Could not listen for session events", ex);
+            }
+        });
+    }
+
+    /**
+     * Registers the hook again, e.g. after the session was unlocked or the
+     * displays changed. Ignored until the hook is first registered.
+     *
+     * @param reason Logged with the re-registration
+     */
+    void sessionChanged(String reason) {
+        try {
+            scheduler.execute(() -> {
+                if (!ready) {
+                    return;
+                }
+                sessionChanges.increment();
+                if (next != null) {
+                    next.cancel(false);
+                }
+                reregister(reason);
+            });
+        } catch (RejectedExecutionException ex) {
+            // Closed
+        }
+    }
+
+    /**
+     * Adds supervisor counters to a statistics map.
+     *
+     * @param stats Map to populate
+     */
+    void putStatistics(Map<String, Object> stats) {
+        long toReady = timeToReadyNanos;
+        stats.put("hookTimeToReadyMillis", toReady < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(toReady));
+        stats.put("hookRegistrationAttempts", attempts.sum());
+        stats.put("hookRegistrationFailures", failures.sum());
+        stats.put("hookReregistrations", reregistrations.sum());
+        stats.put("hookSessionChanges", sessionChanges.sum());
+    }
+
+    /**
+     * Stops retries and heartbeats. The hook itself is left as it is.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void register() {
+        attempts.increment();
+        boolean registered = ready ? service.reregisterHook() : service.startHook();
+        if (!registered) {
+            failures.increment();
+            if (failures.sum() == 1 && !ready && onFirstFailure != null) {
+                onFirstFailure.run();
+            }
+            LOGGER.warning("Native hook not registered; retrying in "
+                    + TimeUnit.NANOSECONDS.toMillis(backoffNanos) + " ms");
+            schedule(this::register, backoffNanos);
+            backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF.toNanos());
+            return;
+        }
+
+        backoffNanos = INITIAL_BACKOFF.toNanos();
+        if (!ready) {
+            ready = true;
+            timeToReadyNanos = System.nanoTime() - startedNanos;
+            LOGGER.info("Native hook ready after " + TimeUnit.NANOSECONDS.toMillis(timeToReadyNanos) + " ms");
+            onReady.run();
+        }
+        lastBeatMillis = wallClockMillis.getAsLong();
+        schedule(this::heartbeat, heartbeatNanos);
+    }
+
+    private void heartbeat() {
+        long now = wallClockMillis.getAsLong();
+        long sinceLastBeat = now - lastBeatMillis;
+        lastBeatMillis = now;
+        if (!service.isNativeHookRegistered()) {
+            reregister("the hook is no longer registered");
+        } else if (sinceLastBeat > 2 * TimeUnit.NANOSECONDS.toMillis(heartbeatNanos)) {
+            // The beat was held up far longer than any scheduling delay: the system was suspended
+            reregister("the system was suspended for " + sinceLastBeat / 1000 + " s");
+        } else {
+            schedule(this::heartbeat, heartbeatNanos);
+        }
+    }
+
+    private void reregister(String reason) {
+        LOGGER.warning("Registering the native hook again: " + reason);
+        reregistrations.increment();
+        register();
+    }
+
+    private void schedule(Runnable task, long delayNanos) {
+        try {
+            next = scheduler.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ex) {
+            // Closed
+        }
+    }
+}
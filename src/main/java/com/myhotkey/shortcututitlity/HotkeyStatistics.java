@@ -0,0 +1,203 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Race-free counters of the hotkey service, broken down per action and per
+ * shortcut. Counters are {@link LongAdder}s, so the hook thread and the
+ * dispatcher workers never contend on one cache line.
+ *
+ * Every record method checks a single volatile flag first; while statistics
+ * are disabled nothing else is touched.
+ *
+ * Per-shortcut counters are keyed by the shortcut id, or by the key text for
+ * entries without one (profile and layer shortcuts), so a reloaded or edited
+ * copy of a shortcut keeps counting on the same entry. Each counter carries
+ * the canonical key sequence it is reported under, formatted once when the
+ * counter is created. Counters of removed shortcuts are dropped with
+ * {@link #forget}.
+ */
+final class HotkeyStatistics {
+
+    private volatile boolean enabled;
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder debounced = new LongAdder();
+    private volatile long lastEventTimestamp;
+
+    private final LongAdder[] triggersByAction = newAdders();
+    private final LongAdder[] failuresByAction = newAdders();
+
+    // Only touched on dispatcher and repeat threads (and by forget)
+    private final Map<Long, ShortcutCounter> triggersById = new ConcurrentHashMap<>();
+    private final Map<String, ShortcutCounter> triggersByKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Trigger count of one shortcut.
+     *
+     * @param keys  Canonical key sequence the count is reported under
+     * @param count Number of triggers
+     */
+    private record ShortcutCounter(String keys, LongAdder count) {
+        ShortcutCounter(Shortcut shortcut) {
+            this(canonicalKeys(shortcut), new LongAdder());
+        }
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled true to collect; disabling also clears all counters
+     */
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            reset();
+        }
+    }
+
+    /**
+     * Counts a key event. Called on the hook thread for every key press.
+     */
+    void recordEvent() {
+        if (enabled) {
+            events.increment();
+            lastEventTimestamp = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Counts a matched key event that the debounce filter dropped.
+     */
+    void recordDebounced() {
+        if (enabled) {
+            debounced.increment();
+        }
+    }
+
+    /**
+     * Counts a handled shortcut trigger.
+     *
+     * @param action   The executed action
+     * @param shortcut The shortcut that fired
+     */
+    void recordTrigger(SystemAction action, Shortcut shortcut) {
+        if (enabled) {
+            triggersByAction[action.ordinal()].increment();
+            counterOf(shortcut).count().increment();
+        }
+    }
+
+    /**
+     * Drops the per-shortcut counters of shortcuts that were removed.
+     *
+     * @param shortcuts The removed shortcuts
+     */
+    void forget(Collection<Shortcut> shortcuts) {
+        for (Shortcut shortcut : shortcuts) {
+            if (shortcut.getId() != null) {
+                triggersById.remove(shortcut.getId());
+            } else if (shortcut.getKeyCombo() != null) {
+                triggersByKeys.remove(shortcut.getKeyCombo());
+            }
+        }
+    }
+
+    /**
+     * Drops the counter of an updated shortcut if it now has other keys, so
+     * its triggers are not reported under the old ones.
+     *
+     * @param previous The shortcut before the update
+     * @param current  The shortcut after it, with the same id
+     */
+    void rebind(Shortcut previous, Shortcut current) {
+        Long id = previous.getId();
+        ShortcutCounter counter = id != null ? triggersById.get(id) : null;
+        if (counter != null && !counter.keys().equals(canonicalKeys(current))) {
+            triggersById.remove(id, counter);
+        }
+    }
+
+    /**
+     * Counts an action command that threw.
+     *
+     * @param action The action that failed
+     */
+    void recordFailure(SystemAction action) {
+        if (enabled) {
+            failuresByAction[action.ordinal()].increment();
+        }
+    }
+
+    /**
+     * @return Immutable copy of all counters
+     */
+    StatisticsSnapshot snapshot() {
+        Map<SystemAction, Long> triggers = new EnumMap<>(SystemAction.class);
+        Map<SystemAction, Long> failures = new EnumMap<>(SystemAction.class);
+        long totalTriggers = 0;
+        long totalFailures = 0;
+        for (SystemAction action : SystemAction.values()) {
+            long t = triggersByAction[action.ordinal()].sum();
+            long f = failuresByAction[action.ordinal()].sum();
+            triggers.put(action, t);
+            failures.put(action, f);
+            totalTriggers += t;
+            totalFailures += f;
+        }
+
+        Map<String, Long> byShortcut = new HashMap<>();
+        // Canonical keys, so the same binding spelled differently is reported once
+        triggersById.values().forEach(counter -> byShortcut.merge(counter.keys(), counter.count().sum(), Long::sum));
+        triggersByKeys.values().forEach(counter -> byShortcut.merge(counter.keys(), counter.count().sum(), Long::sum));
+
+        return new StatisticsSnapshot(enabled, events.sum(), totalTriggers, totalFailures,
+                debounced.sum(), lastEventTimestamp, triggers, failures, byShortcut);
+    }
+
+    void reset() {
+        events.reset();
+        debounced.reset();
+        lastEventTimestamp = 0;
+        for (int i = 0; i < triggersByAction.length; i++) {
+            triggersByAction[i].reset();
+            failuresByAction[i].reset();
+        }
+        triggersById.clear();
+        triggersByKeys.clear();
+    }
+
+    private ShortcutCounter counterOf(Shortcut shortcut) {
+        Long id = shortcut.getId();
+        if (id != null) {
+            ShortcutCounter counter = triggersById.get(id);
+            return counter != null ? counter : triggersById.computeIfAbsent(id, k -> new ShortcutCounter(shortcut));
+        }
+        String keys = String.valueOf(shortcut.getKeyCombo());
+        ShortcutCounter counter = triggersByKeys.get(keys);
+        return counter != null ? counter : triggersByKeys.computeIfAbsent(keys, k -> new ShortcutCounter(shortcut));
+    }
+
+    private static String canonicalKeys(Shortcut shortcut) {
+        int[] chords = shortcut.getKeyCombo() != null ? KeyChord.parseSequence(shortcut.getKeyCombo()) : new int[0];
+        return chords.length > 0 ? KeyChord.formatSequence(chords) : String.valueOf(shortcut.getKeyCombo());
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[SystemAction.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -2,26 +2,115 @@ package com.myhotkey.shortcututitlity;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.myhotkey.shortcututitlity.model.ProfileSet;
 import com.myhotkey.shortcututitlity.model.Shortcut;
 import com.myhotkey.shortcututitlity.enums.SystemAction;
 
-public class JsonManager {
+/**
+ * Loads and saves the shortcut profile (shortcuts.json).
+ *
+ * Saves are write-behind: {@link #saveShortcuts} returns at once and a single
+ * background writer coalesces bursts into one crash-safe write (temp file,
+ * fsync, atomic rename). Call {@link #flush()} or {@link #close()} before
+ * exiting.
+ *
+ * Single edits go to an append-only journal instead ({@link #recordAdd},
+ * {@link #recordRemove}, {@link #recordUpdate}), which costs one small
+ * group-committed append per click. Once {@link #attach attached} to the
+ * {@link ShortcutRepository}, every change made in the application is
+ * journaled this way. Loading replays the
+ * journal on top of the JSON snapshot, and the journal is folded into a new
+ * snapshot in the background once it grows past a threshold.
+ *
+ * Loads prefer a binary snapshot of the profile (see {@link ProfileCache})
+ * that is only trusted while it matches the JSON file.
+ *
+ * {@link #attach} also picks up edits made to the file by other programs and
+ * hands only what changed to the repository.
+ *
+ * Named profiles and layers live beside it in profiles.json
+ * ({@link #loadProfileSet}, {@link #saveProfileSet}).
+ *
+ * Both files are read and written with {@link ShortcutCodec}. Entries that
+ * cannot be used are skipped instead of failing the whole file; the file as
+ * it was is kept beside it (shortcuts.broken) before it is next rewritten.
+ */
+public class JsonManager implements AutoCloseable {
     private final String filePath;
-    private final ObjectMapper mapper;
+    private final Path profileSetPath;
+    private final ShortcutCodec codec = new ShortcutCodec();
+    private final ShortcutWriter writer;
+    private final ProfileCache profileCache;
+    private final ShortcutJournal journal;
+    private ShortcutFileWatcher watcher;
 
-    public JsonManager() {
-        this.mapper = new ObjectMapper();
-        this.mapper.enable(SerializationFeature.INDENT_OUTPUT);
+    // Key of the file content last read or written by this process
+    private volatile ProfileCache.Key knownKey;
+
+    // Next id handed to a shortcut that has none
+    private final AtomicLong nextId = new AtomicLong(1);
 
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder externalReloads = new LongAdder();
+    private final LongAdder skippedRecords = new LongAdder();
+
+    public JsonManager() {
         // Determine the persistent storage path
-        this.filePath = getAppDataPath();
+        this(null);
+    }
+
+    /**
+     * Creates a manager for a specific shortcuts file instead of the AppData one.
+     *
+     * @param filePath Path of the shortcuts JSON file
+     */
+    public JsonManager(String filePath) {
+        this(filePath, true);
+    }
+
+    /**
+     * @param filePath        Path of the shortcuts JSON file, or null for the AppData one
+     * @param useProfileCache false to always parse the JSON (e.g. benchmarks)
+     */
+    JsonManager(String filePath, boolean useProfileCache) {
+        this.filePath = filePath != null ? filePath : getAppDataPath();
+
+        Path json = Path.of(this.filePath);
+        this.profileSetPath = json.resolveSibling("profiles.json");
+        this.profileCache = useProfileCache ? new ProfileCache(json.resolveSibling(siblingName(json, ".bin"))) : null;
+        this.writer = new ShortcutWriter(json, new ShortcutWriter.Sink() {
+            @Override
+            public byte[] serialize(List<Shortcut> shortcuts) throws IOException {
+                return codec.write(shortcuts);
+            }
+
+            @Override
+            public void written(List<Shortcut> shortcuts, byte[] bytes) {
+                System.out.println("Shortcuts saved to: " + JsonManager.this.filePath);
+                snapshotWritten(json, shortcuts, bytes);
+            }
+        }, ShortcutWriter.DEFAULT_DELAY);
+        this.journal = new ShortcutJournal(json.resolveSibling(siblingName(json, ".journal")), writer::execute,
+                ShortcutJournal.DEFAULT_COMPACTION_THRESHOLD, this::compact);
+    }
+
+    private static String siblingName(Path json, String extension) {
+        String name = json.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + extension;
     }
 
     private String getAppDataPath() {
@@ -43,39 +132,425 @@ public class JsonManager {
         return new File(appFolder, "shortcuts.json").getAbsolutePath();
     }
 
+    /**
+     * Queues the list for saving and returns without waiting for the disk.
+     * Saves in quick succession are merged into one write of the latest list.
+     *
+     * @param shortcuts The full list to persist
+     */
     public void saveShortcuts(List<Shortcut> shortcuts) {
+        writer.submit(shortcuts);
+    }
+
+    /**
+     * Journals a newly added shortcut, assigning it an id if it has none.
+     *
+     * @param shortcut The added shortcut
+     */
+    public void recordAdd(Shortcut shortcut) {
+        journal.append(new ShortcutJournal.Entry(ShortcutJournal.Op.ADD, ensureId(shortcut), shortcut));
+    }
+
+    /**
+     * Journals the removal of a shortcut.
+     *
+     * @param shortcut The removed shortcut
+     */
+    public void recordRemove(Shortcut shortcut) {
+        if (shortcut.getId() != null) {
+            journal.append(new ShortcutJournal.Entry(ShortcutJournal.Op.REMOVE, shortcut.getId(), null));
+        }
+    }
+
+    /**
+     * Journals a changed shortcut (same id, new keys, action or policy).
+     *
+     * @param shortcut The shortcut in its new state
+     */
+    public void recordUpdate(Shortcut shortcut) {
+        journal.append(new ShortcutJournal.Entry(ShortcutJournal.Op.UPDATE, ensureId(shortcut), shortcut));
+    }
+
+    /**
+     * Journals a batch of changes: one record per removed, updated and added
+     * shortcut, in that order.
+     *
+     * @param delta The changes
+     */
+    void recordChanges(ShortcutDelta delta) {
+        for (Shortcut shortcut : delta.removed()) {
+            recordRemove(shortcut);
+        }
+        for (Shortcut shortcut : delta.updated().values()) {
+            recordUpdate(shortcut);
+        }
+        for (Shortcut shortcut : delta.added()) {
+            recordAdd(shortcut);
+        }
+    }
+
+    /**
+     * @return The lowest id not used by the loaded profile or its journal
+     */
+    long nextFreeId() {
+        return nextId.get();
+    }
+
+    /**
+     * Loads the named profiles and layers.
+     *
+     * @return The set; empty if profiles.json does not exist or cannot be read
+     */
+    public ProfileSet loadProfileSet() {
+        if (!Files.exists(profileSetPath)) {
+            return new ProfileSet();
+        }
         try {
-            mapper.writeValue(new File(filePath), shortcuts);
-            System.out.println("Shortcuts saved to: " + filePath);
+            return codec.readProfileSet(profileSetPath);
         } catch (IOException e) {
-            System.err.println("Could not save shortcuts: " + e.getMessage());
+            System.err.println("Error loading profiles: " + e.getMessage());
+            return new ProfileSet();
         }
     }
 
+    /**
+     * Queues the named profiles and layers (e.g. a new active profile) for
+     * an atomic write on the background writer.
+     *
+     * @param profileSet The set to persist
+     */
+    public void saveProfileSet(ProfileSet profileSet) {
+        byte[] bytes;
+        try {
+            // Serialized now, so later changes to the set don't race the writer
+            bytes = codec.write(profileSet);
+        } catch (IOException e) {
+            System.err.println("Could not save profiles: " + e.getMessage());
+            return;
+        }
+        writer.execute(() -> {
+            try {
+                ShortcutWriter.writeAtomically(profileSetPath, bytes);
+            } catch (IOException e) {
+                System.err.println("Could not save profiles: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Keeps the file in step with the repository in both directions.
+     *
+     * Changes made in the application are journaled as they are committed.
+     * The file is watched for changes made outside the application, e.g. by
+     * provisioning tools. After each burst of file events the file is parsed,
+     * the journal records not yet folded into it are replayed on top (a tool
+     * that read the file before them did not see them), and the result is
+     * handed to the repository, which publishes only the difference (on the
+     * writer thread). The file is then rewritten with ids and the journal
+     * emptied.
+     *
+     * @param repository The live shortcuts, loaded from this manager
+     * @throws IOException If the directory cannot be watched; changes are still journaled
+     */
+    synchronized void attach(ShortcutRepository repository) throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        repository.addListener(change -> {
+            if (change.source() == ShortcutRepository.Source.USER) {
+                recordChanges(change.delta());
+            }
+        });
+        watcher = new ShortcutFileWatcher(Path.of(filePath), ShortcutFileWatcher.DEFAULT_QUIET_PERIOD,
+                () -> writer.execute(() -> reload(repository)));
+        watcher.start();
+    }
+
+    /**
+     * Writes any queued save now and waits for it.
+     *
+     * @return true if every save so far is on disk
+     */
+    public boolean flush() {
+        return writer.flush(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Flushes queued saves and journal records and stops the background writer.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (watcher != null) {
+                watcher.close();
+            }
+        }
+        writer.close();
+        journal.close();
+    }
+
+    /**
+     * Gets persistence statistics: write-behind counters, write latency,
+     * journal group commits, compactions and profile cache hits.
+     *
+     * @return Map containing statistics
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        writer.putStatistics(stats);
+        journal.putStatistics(stats);
+        stats.put("journalCompactions", compactions.sum());
+        stats.put("externalReloads", externalReloads.sum());
+        stats.put("skippedRecords", skippedRecords.sum());
+        synchronized (this) {
+            if (watcher != null) {
+                watcher.putStatistics(stats);
+            }
+        }
+        stats.put("profileCacheHits", cacheHits.sum());
+        stats.put("profileCacheMisses", cacheMisses.sum());
+        return stats;
+    }
+
     public List<Shortcut> loadShortcuts() {
+        return loadProfile().shortcuts();
+    }
+
+    /**
+     * Loads the profile: the JSON snapshot (or its binary copy when current)
+     * with the journal replayed on top. Chord codes come with it when the
+     * binary copy was used and the journal was empty. A missing or stale
+     * binary copy is rebuilt in the background, and a non-empty journal is
+     * folded into a new snapshot.
+     *
+     * @return The profile; its list is a copy the caller may keep
+     */
+    ProfileCache.CompiledProfile loadProfile() {
         File file = new File(filePath);
 
         // Check if the file doesn't exist OR is empty
         if (!file.exists() || file.length() == 0) {
             System.out.println("No existing shortcut file found. Initializing defaults...");
             List<Shortcut> defaults = createDefaultShortcuts();
+            assignIds(defaults);
+
+            // A journal without its snapshot cannot be replayed
+            writer.execute(journal::truncate);
 
             // Save defaults to AppData immediately so the file exists for next time
             saveShortcuts(defaults);
 
-            return new CopyOnWriteArrayList<>(defaults);
+            return new ProfileCache.CompiledProfile(new ArrayList<>(defaults), null);
         }
 
+        ProfileCache.CompiledProfile snapshot;
         try {
-            List<Shortcut> loadedList = mapper.readValue(file, new TypeReference<List<Shortcut>>() {
-            });
-            return new CopyOnWriteArrayList<>(loadedList);
+            snapshot = readSnapshot(file.toPath());
         } catch (IOException e) {
             System.err.println("Error loading shortcuts: " + e.getMessage());
             // If the file is corrupted, it's safer to return the defaults rather than an
             // empty list
-            return new CopyOnWriteArrayList<>(createDefaultShortcuts());
+            List<Shortcut> defaults = createDefaultShortcuts();
+            assignIds(defaults);
+            return new ProfileCache.CompiledProfile(new ArrayList<>(defaults), null);
+        }
+
+        List<Shortcut> shortcuts = snapshot.shortcuts();
+        int[][] chords = snapshot.chords();
+        boolean assigned = assignIds(shortcuts);
+
+        List<ShortcutJournal.Entry> entries = journal.readAll();
+        if (!entries.isEmpty()) {
+            shortcuts = ShortcutJournal.replay(shortcuts, entries);
+            // Chord codes were compiled for the snapshot alone
+            chords = null;
+            for (ShortcutJournal.Entry entry : entries) {
+                nextId.accumulateAndGet(entry.id() + 1, Math::max);
+            }
+        }
+        if (assigned || !entries.isEmpty()) {
+            // Persist the ids and fold the journal, so the next start reads one file
+            writer.execute(this::compact);
+        }
+        return new ProfileCache.CompiledProfile(new ArrayList<>(shortcuts), chords);
+    }
+
+    private ProfileCache.CompiledProfile readSnapshot(Path json) throws IOException {
+        ProfileCache.Key key = profileCache != null ? ProfileCache.keyOf(json) : null;
+        knownKey = key;
+        ProfileCache.CompiledProfile cached = key != null ? profileCache.read(key) : null;
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+
+        cacheMisses.increment();
+        List<Shortcut> loadedList = readShortcuts(json);
+        if (key != null) {
+            writer.execute(() -> profileCache.write(key, ProfileCache.compile(loadedList)));
+        }
+        return new ProfileCache.CompiledProfile(loadedList, null);
+    }
+
+    /**
+     * Folds the journal into a new JSON snapshot and empties it. Runs on the
+     * writer thread, so no commit or save interleaves.
+     */
+    private void compact() {
+        // A queued full save is older than the journal records that follow it
+        writer.writePending();
+        journal.commit();
+
+        Path json = Path.of(filePath);
+        try {
+            List<Shortcut> base = Files.exists(json) && Files.size(json) > 0
+                    ? readShortcuts(json)
+                    : new ArrayList<>();
+            assignIds(base);
+            List<Shortcut> folded = ShortcutJournal.replay(base, journal.readAll());
+
+            writeSnapshot(json, folded);
+            journal.truncate();
+            compactions.increment();
+        } catch (IOException e) {
+            System.err.println("Could not compact the shortcut journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies an external edit of the file. Runs on the writer thread, so no
+     * commit, compaction or save interleaves.
+     */
+    private void reload(ShortcutRepository repository) {
+        Path json = Path.of(filePath);
+        List<Shortcut> next;
+        try {
+            if (!Files.exists(json) || Files.size(json) == 0) {
+                // Deleted or truncated mid-write: the next event brings the content
+                return;
+            }
+            ProfileCache.Key key = ProfileCache.keyOf(json);
+            if (key.equals(knownKey)) {
+                // Our own write
+                return;
+            }
+            ShortcutCodec.Decoded decoded = codec.read(json);
+            if (decoded.truncated()) {
+                // Most likely still being written; the rest of the write brings another event
+                return;
+            }
+            keepIfLossy(json, decoded);
+            knownKey = key;
+            // Edits made here since the last compaction are only in the journal
+            journal.commit();
+            next = ShortcutJournal.replay(decoded.shortcuts(), journal.readAll());
+        } catch (IOException e) {
+            // Most likely still being written; the rest of the write brings another event
+            System.err.println("Could not reload shortcuts: " + e.getMessage());
+            return;
+        }
+
+        // The repository assigns ids to new entries
+        if (!repository.replaceAll(next, ShortcutRepository.Source.FILE).isEmpty()) {
+            externalReloads.increment();
+        }
+
+        // The file now holds the journal too; rewrite it with ids
+        rewrite(repository);
+    }
+
+    /**
+     * Replaces the file with the repository's shortcuts and empties the
+     * journal. Runs on the writer thread.
+     */
+    private void rewrite(ShortcutRepository repository) {
+        writer.writePending();
+        // Every committed record is in the list read below
+        journal.commit();
+        try {
+            writeSnapshot(Path.of(filePath), repository.list());
+            journal.truncate();
+        } catch (IOException e) {
+            System.err.println("Could not save reloaded shortcuts: " + e.getMessage());
+        }
+    }
+
+    private void writeSnapshot(Path json, List<Shortcut> shortcuts) throws IOException {
+        byte[] bytes = codec.write(shortcuts);
+        ShortcutWriter.writeAtomically(json, bytes);
+        snapshotWritten(json, shortcuts, bytes);
+    }
+
+    /**
+     * Reads a shortcut file, keeping a copy of it if entries were dropped.
+     */
+    private List<Shortcut> readShortcuts(Path json) throws IOException {
+        ShortcutCodec.Decoded decoded = codec.read(json);
+        keepIfLossy(json, decoded);
+        return decoded.shortcuts();
+    }
+
+    private void keepIfLossy(Path json, ShortcutCodec.Decoded decoded) {
+        if (decoded.skipped() == 0 && !decoded.truncated()) {
+            return;
+        }
+        skippedRecords.add(decoded.skipped());
+        // The next save writes only what was read, so keep the original for repair
+        Path copy = json.resolveSibling(siblingName(json, ".broken"));
+        try {
+            Files.copy(json, copy, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("Some shortcuts could not be read; the original file was copied to: " + copy);
+        } catch (IOException e) {
+            System.err.println("Could not keep a copy of " + json + ": " + e.getMessage());
+        }
+    }
+
+    private void snapshotWritten(Path json, List<Shortcut> shortcuts, byte[] bytes) {
+        ProfileCache.Key key;
+        try {
+            key = ProfileCache.keyOf(json, bytes);
+        } catch (IOException e) {
+            knownKey = null;
+            return;
+        }
+        // Lets the watcher recognize the events of this write
+        knownKey = key;
+        if (profileCache != null) {
+            // Keep the binary copy in step with the file just written
+            profileCache.write(key, ProfileCache.compile(shortcuts));
+        }
+    }
+
+    /**
+     * Gives every shortcut without an id the next free one, in list order, so
+     * the same snapshot always gets the same ids.
+     *
+     * @return true if any id was assigned
+     */
+    private boolean assignIds(List<Shortcut> shortcuts) {
+        long max = 0;
+        for (Shortcut shortcut : shortcuts) {
+            if (shortcut != null && shortcut.getId() != null) {
+                max = Math.max(max, shortcut.getId());
+            }
+        }
+        long next = max + 1;
+        boolean assigned = false;
+        for (Shortcut shortcut : shortcuts) {
+            if (shortcut != null && shortcut.getId() == null) {
+                shortcut.setId(next++);
+                assigned = true;
+            }
+        }
+        nextId.accumulateAndGet(next, Math::max);
+        return assigned;
+    }
+
+    private long ensureId(Shortcut shortcut) {
+        if (shortcut.getId() == null) {
+            shortcut.setId(nextId.getAndIncrement());
         }
+        return shortcut.getId();
     }
 
     private List<Shortcut> createDefaultShortcuts() {
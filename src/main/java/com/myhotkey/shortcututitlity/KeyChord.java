@@ -0,0 +1,231 @@
+package com.myhotkey.shortcututitlity;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles key combination strings (e.g. "Ctrl+Shift+A") into packed primitive
+ * chord codes that can be matched against native key events without any String
+ * work.
+ *
+ * Layout of a chord code: bits 0-15 hold the JNativeHook VC key code, bits
+ * 16-19 hold the modifier mask (Ctrl, Alt, Shift, Win). A chord code of
+ * {@link #NONE} never matches any event.
+ *
+ * Multi-stroke sequences ("Ctrl+K, Ctrl+M") compile to one chord code per
+ * stroke.
+ */
+public final class KeyChord {
+
+    /** Chord code returned when a combination cannot be compiled. */
+    public static final int NONE = 0;
+
+    public static final int MOD_CTRL = 1;
+    public static final int MOD_ALT = 1 << 1;
+    public static final int MOD_SHIFT = 1 << 2;
+    public static final int MOD_WIN = 1 << 3;
+
+    private static final int[] EMPTY_SEQUENCE = new int[0];
+
+    private static final int KEY_MASK = 0xFFFF;
+    private static final int MODIFIER_SHIFT = 16;
+
+    // Normalized key text (lower case, no whitespace) -> VC key code.
+    // Built once from the same getKeyText() table the old string matcher used.
+    private static final Map<String, Integer> KEY_CODES_BY_NAME = buildKeyNameIndex();
+
+    private KeyChord() {
+    }
+
+    /**
+     * Packs a native key code and JNativeHook modifier flags into a chord code.
+     * Allocation-free; safe to call on the hook thread for every event.
+     *
+     * @param keyCode   The VC key code of the event
+     * @param modifiers The raw modifier flags of the event
+     * @return Packed chord code
+     */
+    public static int of(int keyCode, int modifiers) {
+        int mask = 0;
+        if ((modifiers & NativeKeyEvent.CTRL_MASK) != 0) {
+            mask |= MOD_CTRL;
+        }
+        if ((modifiers & NativeKeyEvent.ALT_MASK) != 0) {
+            mask |= MOD_ALT;
+        }
+        if ((modifiers & NativeKeyEvent.SHIFT_MASK) != 0) {
+            mask |= MOD_SHIFT;
+        }
+        if ((modifiers & NativeKeyEvent.META_MASK) != 0) {
+            mask |= MOD_WIN;
+        }
+        return (mask << MODIFIER_SHIFT) | (keyCode & KEY_MASK);
+    }
+
+    /**
+     * Compiles a key combination string into a chord code.
+     * Modifier names and key names are matched case-insensitively and
+     * whitespace is ignored, mirroring the previous normalization rules.
+     *
+     * @param keyCombo The key combination (e.g. "Ctrl+F12")
+     * @return Packed chord code, or {@link #NONE} if the combination is invalid
+     */
+    public static int parse(String keyCombo) {
+        if (keyCombo == null || keyCombo.isBlank()) {
+            return NONE;
+        }
+
+        int mask = 0;
+        int keyCode = NativeKeyEvent.VC_UNDEFINED;
+
+        for (String token : keyCombo.split("\\+")) {
+            String name = token.replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+
+            int modifier = modifierFor(name);
+            if (modifier != 0) {
+                mask |= modifier;
+                continue;
+            }
+
+            // Only one non-modifier key is allowed per chord
+            Integer code = KEY_CODES_BY_NAME.get(name);
+            if (code == null || keyCode != NativeKeyEvent.VC_UNDEFINED) {
+                return NONE;
+            }
+            keyCode = code;
+        }
+
+        if (keyCode == NativeKeyEvent.VC_UNDEFINED) {
+            return NONE;
+        }
+        return (mask << MODIFIER_SHIFT) | keyCode;
+    }
+
+    /**
+     * Compiles a key sequence such as "Ctrl+K, Ctrl+M" into one chord code per
+     * stroke. A plain combination compiles to a sequence of length one.
+     *
+     * @param keySequence Strokes separated by {@link Shortcut#SEQUENCE_SEPARATOR}
+     * @return Chord codes in stroke order, or an empty array if any stroke is invalid
+     */
+    public static int[] parseSequence(String keySequence) {
+        if (keySequence == null || keySequence.isBlank()) {
+            return EMPTY_SEQUENCE;
+        }
+
+        String[] strokes = keySequence.split(Shortcut.SEQUENCE_SEPARATOR, -1);
+        int[] chords = new int[strokes.length];
+        for (int i = 0; i < strokes.length; i++) {
+            chords[i] = parse(strokes[i]);
+            if (chords[i] == NONE) {
+                return EMPTY_SEQUENCE;
+            }
+        }
+        return chords;
+    }
+
+    /**
+     * Formats a chord sequence in canonical form, strokes separated by ", ".
+     *
+     * @param chords Chord codes in stroke order
+     * @return Human readable key sequence
+     */
+    public static String formatSequence(int[] chords) {
+        StringBuilder sb = new StringBuilder(32 * chords.length);
+        for (int i = 0; i < chords.length; i++) {
+            if (i > 0) {
+                sb.append(Shortcut.SEQUENCE_SEPARATOR).append(' ');
+            }
+            sb.append(format(chords[i]));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats a chord code back into its canonical display form
+     * (Ctrl -> Alt -> Shift -> Win -> Key).
+     *
+     * @param chord Packed chord code
+     * @return Human readable key combination
+     */
+    public static String format(int chord) {
+        if (chord == NONE) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder(32);
+        int mask = modifiers(chord);
+        if ((mask & MOD_CTRL) != 0) {
+            sb.append("Ctrl+");
+        }
+        if ((mask & MOD_ALT) != 0) {
+            sb.append("Alt+");
+        }
+        if ((mask & MOD_SHIFT) != 0) {
+            sb.append("Shift+");
+        }
+        if ((mask & MOD_WIN) != 0) {
+            sb.append("Win+");
+        }
+        sb.append(NativeKeyEvent.getKeyText(keyCode(chord)));
+        return sb.toString();
+    }
+
+    /**
+     * @param chord Packed chord code
+     * @return The VC key code part of the chord
+     */
+    public static int keyCode(int chord) {
+        return chord & KEY_MASK;
+    }
+
+    /**
+     * @param chord Packed chord code
+     * @return The modifier mask part of the chord
+     */
+    public static int modifiers(int chord) {
+        return chord >>> MODIFIER_SHIFT;
+    }
+
+    private static int modifierFor(String name) {
+        return switch (name) {
+            case "ctrl", "control" -> MOD_CTRL;
+            case "alt" -> MOD_ALT;
+            case "shift" -> MOD_SHIFT;
+            case "win", "meta" -> MOD_WIN;
+            default -> 0;
+        };
+    }
+
+    private static Map<String, Integer> buildKeyNameIndex() {
+        Map<String, Integer> index = new HashMap<>();
+        for (Field field : NativeKeyEvent.class.getFields()) {
+            if (!field.getName().startsWith("VC_") || field.getType() != int.class
+                    || !Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            try {
+                int code = field.getInt(null);
+                if (code == NativeKeyEvent.VC_UNDEFINED) {
+                    continue;
+                }
+                String name = NativeKeyEvent.getKeyText(code)
+                        .replaceAll("\\s+", "")
+                        .toLowerCase(Locale.ROOT);
+                index.putIfAbsent(name, code);
+            } catch (IllegalAccessException e) {
+                // Public constants are always accessible; nothing to do
+            }
+        }
+        return index;
+    }
+}
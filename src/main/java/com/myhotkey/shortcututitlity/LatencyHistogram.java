@@ -0,0 +1,133 @@
+package com.myhotkey.shortcututitlity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, allocation-free log-linear histogram of nanosecond durations.
+ *
+ * Every power of two is split into 16 linear sub-buckets, so a reported
+ * percentile is within 6.25% of the recorded value. Values from 0 ns up to
+ * about 68 s are tracked; larger values land in the top bucket (the exact
+ * maximum is still kept). Recording is lock-free and safe from any thread.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 35;
+    static final long MAX_TRACKABLE = (1L << (MAX_EXPONENT + 1)) - 1;
+    static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE) + 1;
+
+    /**
+     * Percentiles of a histogram at one point in time, in microseconds.
+     *
+     * @param count      Number of recorded values
+     * @param p50Micros  Median
+     * @param p99Micros  99th percentile
+     * @param p999Micros 99.9th percentile
+     * @param maxMicros  Largest recorded value
+     */
+    public record Snapshot(long count, double p50Micros, double p99Micros, double p999Micros, double maxMicros) {
+        public static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0);
+
+        @Override
+        public String toString() {
+            return String.format("n=%d p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+                    count, p50Micros, p99Micros, p999Micros, maxMicros);
+        }
+    }
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one duration. Negative values count as zero.
+     *
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(indexOf(Math.min(value, MAX_TRACKABLE)));
+        count.incrementAndGet();
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * @return Number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return p50/p99/p999/max from one consistent pass over the buckets
+     */
+    public Snapshot snapshot() {
+        long total = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return Snapshot.EMPTY;
+        }
+        return new Snapshot(total,
+                toMicros(valueAt(counts, total, 50.0)),
+                toMicros(valueAt(counts, total, 99.0)),
+                toMicros(valueAt(counts, total, 99.9)),
+                toMicros(max.get()));
+    }
+
+    /**
+     * Clears all recorded values. Values recorded concurrently may survive.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        max.set(0);
+    }
+
+    private long valueAt(long[] counts, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (((long) (SUB_BUCKETS + sub)) << shift) + (1L << shift) - 1;
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,176 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.LatencyStage;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-stage latency histograms of the key press pipeline, overall and per
+ * {@link SystemAction}. All memory is allocated up front; recording does not
+ * allocate and is skipped entirely while the monitor is disabled.
+ *
+ * Stages are measured by the hotkey service (hook and dispatch) and by
+ * {@link SystemAction} around the backend call, see {@link LatencyStage}.
+ */
+public final class LatencyMonitor {
+
+    // Anything larger is a clock mismatch, not a real OS-to-hook delay
+    private static final long MAX_PLAUSIBLE_OS_DELAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final LatencyMonitor INSTANCE = new LatencyMonitor();
+
+    private final LatencyHistogram[] overall = new LatencyHistogram[LatencyStage.values().length];
+    private final LatencyHistogram[][] byAction =
+            new LatencyHistogram[SystemAction.values().length][LatencyStage.values().length];
+
+    // Latest backend call per action, so the dispatcher can attribute it to its trigger
+    private final AtomicLongArray backendStarted = new AtomicLongArray(SystemAction.values().length);
+    private final AtomicLongArray backendCompleted = new AtomicLongArray(SystemAction.values().length);
+
+    private volatile boolean enabled;
+
+    private LatencyMonitor() {
+        for (int s = 0; s < overall.length; s++) {
+            overall[s] = new LatencyHistogram();
+            for (LatencyHistogram[] histograms : byAction) {
+                histograms[s] = new LatencyHistogram();
+            }
+        }
+    }
+
+    public static LatencyMonitor getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records one stage duration.
+     *
+     * @param stage  The pipeline stage
+     * @param action The action, or null if the event matched no shortcut
+     * @param nanos  Duration in nanoseconds
+     */
+    public void record(LatencyStage stage, SystemAction action, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        overall[stage.ordinal()].record(nanos);
+        if (action != null) {
+            byAction[action.ordinal()][stage.ordinal()].record(nanos);
+        }
+    }
+
+    /**
+     * Records the OS-to-hook delay of an event.
+     *
+     * @param whenMillis      {@code NativeKeyEvent.getWhen()}; ignored if not positive
+     * @param hookEntryMillis {@link System#currentTimeMillis()} at hook entry
+     */
+    void recordOsDelay(long whenMillis, long hookEntryMillis) {
+        if (!enabled || whenMillis <= 0) {
+            return;
+        }
+        long delay = TimeUnit.MILLISECONDS.toNanos(hookEntryMillis - whenMillis);
+        if (delay >= 0 && delay <= MAX_PLAUSIBLE_OS_DELAY_NANOS) {
+            overall[LatencyStage.OS_TO_HOOK.ordinal()].record(delay);
+        }
+    }
+
+    /**
+     * Records a backend call made by an action.
+     *
+     * @param action        The executed action
+     * @param startedNanos  {@link System#nanoTime()} before the backend call
+     * @param completedNanos {@link System#nanoTime()} after it returned
+     */
+    public void recordBackend(SystemAction action, long startedNanos, long completedNanos) {
+        if (!enabled) {
+            return;
+        }
+        backendStarted.set(action.ordinal(), startedNanos);
+        backendCompleted.set(action.ordinal(), completedNanos);
+        record(LatencyStage.BACKEND, action, completedNanos - startedNanos);
+    }
+
+    /**
+     * Attributes the latest backend call of an action to a dispatched trigger,
+     * if the call happened after the trigger was dispatched. Triggers merged
+     * into a pending coalesced command have no backend call of their own.
+     *
+     * @param action         The dispatched action
+     * @param hookEntryNanos {@link System#nanoTime()} at hook entry
+     * @param dispatchNanos  {@link System#nanoTime()} when dispatch started
+     */
+    void completeTrigger(SystemAction action, long hookEntryNanos, long dispatchNanos) {
+        if (!enabled) {
+            return;
+        }
+        long started = backendStarted.get(action.ordinal());
+        long completed = backendCompleted.get(action.ordinal());
+        if (started == 0 || started - dispatchNanos < 0 || completed - started < 0) {
+            return;
+        }
+        record(LatencyStage.PREPARE, action, started - dispatchNanos);
+        if (hookEntryNanos != 0) {
+            record(LatencyStage.END_TO_END, action, completed - hookEntryNanos);
+        }
+    }
+
+    /**
+     * @return Percentiles per stage across all actions
+     */
+    public Map<LatencyStage, LatencyHistogram.Snapshot> getSnapshot() {
+        return snapshotOf(overall);
+    }
+
+    /**
+     * @param action The action
+     * @return Percentiles per stage for one action (OS_TO_HOOK is only tracked overall)
+     */
+    public Map<LatencyStage, LatencyHistogram.Snapshot> getSnapshot(SystemAction action) {
+        return snapshotOf(byAction[action.ordinal()]);
+    }
+
+    /**
+     * Clears all histograms.
+     */
+    public void reset() {
+        for (int s = 0; s < overall.length; s++) {
+            overall[s].reset();
+            for (LatencyHistogram[] histograms : byAction) {
+                histograms[s].reset();
+            }
+        }
+    }
+
+    /**
+     * Adds the overall per-stage percentiles to a statistics map.
+     *
+     * @param stats Map to populate
+     */
+    void putStatistics(Map<String, Object> stats) {
+        Map<String, LatencyHistogram.Snapshot> latency = new LinkedHashMap<>();
+        getSnapshot().forEach((stage, snapshot) -> latency.put(stage.getKey(), snapshot));
+        stats.put("latency", latency);
+    }
+
+    private static Map<LatencyStage, LatencyHistogram.Snapshot> snapshotOf(LatencyHistogram[] histograms) {
+        Map<LatencyStage, LatencyHistogram.Snapshot> snapshot = new EnumMap<>(LatencyStage.class);
+        for (LatencyStage stage : LatencyStage.values()) {
+            snapshot.put(stage, histograms[stage.ordinal()].snapshot());
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,250 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process cache of the system volume, mute and brightness levels.
+ *
+ * Levels are seeded once from the OS, updated optimistically by every action
+ * and reconciled with the OS in the background at a low rate. This lets
+ * actions issue absolute set commands without a read round trip, and lets the
+ * notification overlay show the current level for free.
+ *
+ * Reconciling only runs while the levels are in use: a tick with no action
+ * since the previous one skips the probe and forgets the levels instead, so
+ * an idle application does not keep the probe's helper process (the
+ * PowerShell session, stopped after a minute unused) alive. The next action
+ * then re-seeds the cache.
+ *
+ * Any level may be {@link #UNKNOWN} until the first successful probe, and
+ * again after an idle tick.
+ */
+public final class LevelCache {
+
+    private static final Logger LOGGER = Logger.getLogger(LevelCache.class.getName());
+
+    public static final int UNKNOWN = -1;
+
+    /** Full scale of the volume level, matching NirCmd's units. */
+    public static final int VOLUME_MAX = 65535;
+
+    private static final int BRIGHTNESS_MAX = 100;
+    private static final Duration DEFAULT_RECONCILE_INTERVAL = Duration.ofSeconds(30);
+    // Lets the action that asked for a seed reach the OS before it is read back
+    static final Duration SEED_DELAY = Duration.ofMillis(250);
+
+    private static final LevelCache INSTANCE = new LevelCache();
+
+    /**
+     * A reading of the OS levels.
+     *
+     * @param volume     Volume in 0..{@link #VOLUME_MAX}, or {@link #UNKNOWN}
+     * @param muted      1 if muted, 0 if not, or {@link #UNKNOWN}
+     * @param brightness Brightness in 0..100, or {@link #UNKNOWN}
+     */
+    public record Levels(int volume, int muted, int brightness) {
+        public static final Levels NONE = new Levels(UNKNOWN, UNKNOWN, UNKNOWN);
+    }
+
+    private final AtomicInteger volume = new AtomicInteger(UNKNOWN);
+    private final AtomicInteger muted = new AtomicInteger(UNKNOWN);
+    private final AtomicInteger brightness = new AtomicInteger(UNKNOWN);
+
+    // An action touched the levels since the last tick
+    private final AtomicBoolean used = new AtomicBoolean();
+    private final AtomicBoolean seedPending = new AtomicBoolean();
+
+    private volatile ScheduledExecutorService reconciler;
+    private volatile Supplier<Levels> probe;
+
+    LevelCache() {
+    }
+
+    public static LevelCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Seeds the cache in the background and keeps reconciling it periodically
+     * while it is in use. Calling this again replaces the previous probe.
+     *
+     * @param probe Reads the current OS levels; may return {@link Levels#NONE}
+     */
+    public synchronized void start(Supplier<Levels> probe) {
+        start(probe, DEFAULT_RECONCILE_INTERVAL);
+    }
+
+    /**
+     * @param probe    Reads the current OS levels; may return {@link Levels#NONE}
+     * @param interval Time between background reconciliations
+     */
+    public synchronized void start(Supplier<Levels> probe, Duration interval) {
+        stop();
+        this.probe = probe;
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "keyflow-level-reconciler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        reconciler = executor;
+        // The first tick seeds
+        used.set(true);
+        executor.scheduleWithFixedDelay(this::tick, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+            reconciler = null;
+        }
+    }
+
+    /**
+     * Overwrites cached levels with an OS reading; unknown fields are left alone.
+     *
+     * @param levels The reading
+     */
+    public void update(Levels levels) {
+        if (levels.volume() != UNKNOWN) {
+            volume.set(clamp(levels.volume(), VOLUME_MAX));
+        }
+        if (levels.muted() != UNKNOWN) {
+            muted.set(levels.muted() != 0 ? 1 : 0);
+        }
+        if (levels.brightness() != UNKNOWN) {
+            brightness.set(clamp(levels.brightness(), BRIGHTNESS_MAX));
+        }
+    }
+
+    /**
+     * Optimistically applies a relative volume change.
+     *
+     * @param delta Change in 0..{@link #VOLUME_MAX} units
+     * @return New volume, or {@link #UNKNOWN} if not seeded (a seed is then requested)
+     */
+    public int adjustVolume(int delta) {
+        used.set(true);
+        return seedIfUnknown(volume.updateAndGet(v -> v == UNKNOWN ? UNKNOWN : clamp(v + delta, VOLUME_MAX)));
+    }
+
+    /**
+     * Optimistically flips the mute state.
+     *
+     * @return 1 if now muted, 0 if not, or {@link #UNKNOWN} if not seeded (a seed is then requested)
+     */
+    public int toggleMute() {
+        used.set(true);
+        return seedIfUnknown(muted.updateAndGet(m -> m == UNKNOWN ? UNKNOWN : 1 - m));
+    }
+
+    /**
+     * Optimistically applies a relative brightness change.
+     *
+     * @param delta Change in percent
+     * @return New brightness, or {@link #UNKNOWN} if not seeded (a seed is then requested)
+     */
+    public int adjustBrightness(int delta) {
+        used.set(true);
+        return seedIfUnknown(brightness.updateAndGet(b -> b == UNKNOWN ? UNKNOWN : clamp(b + delta, BRIGHTNESS_MAX)));
+    }
+
+    /**
+     * @return Volume in percent, or {@link #UNKNOWN}
+     */
+    public int getVolumePercent() {
+        int v = volume.get();
+        return v == UNKNOWN ? UNKNOWN : Math.round(v * 100f / VOLUME_MAX);
+    }
+
+    /**
+     * @return 1 if muted, 0 if not, or {@link #UNKNOWN}
+     */
+    public int getMuted() {
+        return muted.get();
+    }
+
+    /**
+     * @return Brightness in percent, or {@link #UNKNOWN}
+     */
+    public int getBrightness() {
+        return brightness.get();
+    }
+
+    /**
+     * Describes the level an action just changed, for the notification overlay.
+     *
+     * @param action The triggered action
+     * @return e.g. "42%" or "Muted", or an empty string if unknown or not applicable
+     */
+    public String describe(SystemAction action) {
+        int value;
+        switch (action) {
+            case VOLUME_UP, VOLUME_DOWN -> value = getVolumePercent();
+            case BRIGHTNESS_UP, BRIGHTNESS_DOWN -> value = getBrightness();
+            case MUTE -> {
+                int m = getMuted();
+                return m == UNKNOWN ? "" : (m == 1 ? "Muted" : "Unmuted");
+            }
+            default -> value = UNKNOWN;
+        }
+        return value == UNKNOWN ? "" : value + "%";
+    }
+
+    /**
+     * Asks for a seed if a level an action just changed is unknown.
+     */
+    private int seedIfUnknown(int level) {
+        if (level == UNKNOWN && seedPending.compareAndSet(false, true)) {
+            ScheduledExecutorService executor = reconciler;
+            try {
+                if (executor == null) {
+                    seedPending.set(false);
+                } else {
+                    executor.schedule(() -> {
+                        seedPending.set(false);
+                        reconcile();
+                    }, SEED_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (RejectedExecutionException ex) {
+                // Stopped
+                seedPending.set(false);
+            }
+        }
+        return level;
+    }
+
+    private void tick() {
+        if (used.getAndSet(false)) {
+            reconcile();
+        } else {
+            // Not reconciled any more, so not trusted either
+            volume.set(UNKNOWN);
+            muted.set(UNKNOWN);
+            brightness.set(UNKNOWN);
+        }
+    }
+
+    private void reconcile() {
+        try {
+            update(probe.get());
+        } catch (Exception ex) {
+            LOGGER.log(Level.FINE, "Level reconciliation failed", ex);
+        }
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(max, value));
+    }
+}
@@ -1,27 +1,32 @@
 package com.myhotkey.shortcututitlity;
 
-import com.myhotkey.shortcututitlity.model.Shortcut;
+import com.myhotkey.shortcututitlity.backend.ActionBackends;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.ProfileSet;
 
 import javafx.animation.PauseTransition;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.fxml.FXMLLoader;
-import javafx.geometry.Rectangle2D;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.control.Label;
-import javafx.scene.layout.StackPane;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 
 import java.awt.AWTException;
+import java.awt.Menu;
 import java.awt.MenuItem;
 import java.awt.PopupMenu;
 import java.awt.SystemTray;
 import java.awt.Toolkit;
 import java.awt.TrayIcon;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.SwingUtilities;
 
@@ -29,37 +34,58 @@ import atlantafx.base.theme.PrimerDark;
 import javafx.util.Duration;
 
 public class MainApp extends Application {
+    /** Seconds after which a hidden window's scene graph is dropped; unset keeps it. */
+    static final String RELEASE_AFTER_HIDE_PROPERTY = "keyflow.ui.releaseAfterHide";
+
     private Stage stage;
+    // Null until the window is first opened, and again after a release
+    private MainController controller;
+    private PauseTransition releaseTimer;
+    private final NotificationOverlay notificationOverlay = new NotificationOverlay();
     private GlobalHotkeyService hotkeyService;
     private JsonManager jsonManager;
-    private List<Shortcut> sharedShortcutList;
+    private ShortcutRepository repository;
+    private ProfileSet profileSet;
 
     @Override
     public void init() throws Exception {
         // 1. Initialize Storage and Load Shortcuts
         jsonManager = new JsonManager();
-        sharedShortcutList = jsonManager.loadShortcuts();
+        ProfileCache.CompiledProfile profile = jsonManager.loadProfile();
+        repository = new ShortcutRepository(profile.shortcuts(), jsonManager.nextFreeId());
 
-        // 2. Setup the Background Service with the shared list
+        // 2. Setup the Background Service with the loaded shortcuts (precompiled when cached)
         hotkeyService = new GlobalHotkeyService();
-        hotkeyService.setShortcuts(sharedShortcutList);
-        hotkeyService.setOnKeyPressedListener(this::showNotification);
-
-        // Start service in a background thread after a short delay to prevent startup
-        // freezes
-        Thread hookThread = new Thread(() -> {
-            try {
-                // If started from startup, wait for the system to settle
-                if (getParameters().getRaw().contains("--tray")) {
-                    Thread.sleep(15000);
-                }
-                hotkeyService.startHook();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+        hotkeyService.setShortcuts(profile);
+
+        // From here on, every change is applied as a delta to the hotkey table and the list
+        repository.addListener(change -> hotkeyService.applyDelta(change.delta(), repository::findByCombo));
+        repository.addListener(change -> {
+            if (Platform.isFxApplicationThread()) {
+                showChange(change);
+            } else {
+                Platform.runLater(() -> showChange(change));
             }
         });
-        hookThread.setDaemon(true);
-        hookThread.start();
+
+        // Named profiles and layers, compiled up front so switching is instant
+        profileSet = jsonManager.loadProfileSet();
+        hotkeyService.setProfiles(profileSet);
+        hotkeyService.setOnKeyPressedListener(this::showNotification);
+
+        // Seed volume/brightness levels in the background and keep them reconciled
+        LevelCache.getInstance().start(() -> ActionBackends.current().queryLevels());
+
+        // Report time to hook (and window) once startup is through; measured runs then exit
+        boolean tray = getParameters().getRaw().contains("--tray");
+        StartupTimer.expect(tray ? Set.of(StartupTimer.HOOK_REGISTERED)
+                : Set.of(StartupTimer.HOOK_REGISTERED, StartupTimer.FIRST_FRAME),
+                Boolean.getBoolean("keyflow.startup.exit") ? this::exit : null);
+
+        // Register the hook right away in the background; failures are retried with
+        // backoff and a hook the OS dropped is registered again
+        hotkeyService.startSupervisedHook(() -> StartupTimer.mark(StartupTimer.HOOK_REGISTERED),
+                () -> StartupTimer.fail(StartupTimer.HOOK_REGISTERED));
 
         // In your init() or start() method
         hotkeyService.setOnKeyPressedListener(actionName -> {
@@ -87,13 +113,20 @@ public class MainApp extends Application {
                     displayMessage = "Brightness Down";
                     icon = "🌙";
                     break;
+                case "TOGGLE_LAYER":
+                    List<String> layers = hotkeyService.getActiveLayers();
+                    displayMessage = layers.isEmpty() ? "No Layer" : "Layer " + String.join(" + ", layers);
+                    icon = "🗂";
+                    break;
                 default:
                     displayMessage = actionName.replace("_", " ");
                     icon = "✨";
                     break;
             }
 
-            showNotification(displayMessage + " " + icon);
+            // Current level comes from the cache, no OS round trip
+            String level = LevelCache.getInstance().describe(SystemAction.valueOf(actionName));
+            showNotification(displayMessage + " " + icon + (level.isEmpty() ? "" : "  " + level));
         });
     }
 
@@ -103,6 +136,7 @@ public class MainApp extends Application {
 
         this.stage = stage;
         stage.initStyle(StageStyle.UNDECORATED);
+        stage.setTitle("KeyFlow Utility");
         Platform.setImplicitExit(false);
 
         // Check for updates when the application starts
@@ -110,43 +144,118 @@ public class MainApp extends Application {
         updateChecker.checkForUpdates();
 
         SwingUtilities.invokeLater(() -> createTrayIcon(stage));
+
+        // Windows can drop the hook when the displays change; register it again then
+        Screen.getScreens().addListener((ListChangeListener<Screen>) change ->
+                hotkeyService.hookMayBeStale("the displays changed"));
+
+        // Journal changes, and pick up edits of shortcuts.json by other programs
+        try {
+            jsonManager.attach(repository);
+        } catch (IOException e) {
+            System.err.println("Could not watch the shortcuts file: " + e.getMessage());
+        }
+
+        stage.setOnCloseRequest(event -> {
+            event.consume(); // Prevent the actual closing
+            stage.hide(); // Just hide the window
+        });
+        stage.setOnShown(event -> cancelRelease());
+        stage.setOnHidden(event -> scheduleRelease());
+
         boolean startMinimized = getParameters().getRaw().contains("--tray");
         if (startMinimized) {
+            // The window is built when it is first opened from the tray
             System.out.println("Starting minimized");
         } else {
+            buildWindow();
             stage.show();
+            stage.centerOnScreen();
+        }
+    }
+
+    /**
+     * Shows a repository change in the window. Runs on the FX thread.
+     */
+    private void showChange(ShortcutRepository.Change change) {
+        // Without a window, the next build reads the updated repository
+        if (controller != null) {
+            controller.applyChange(change);
+        }
+    }
+
+    /**
+     * Loads the FXML view, its controller and the shortcut cards into the
+     * stage, unless they are already there. Runs on the FX thread.
+     */
+    private void buildWindow() {
+        if (stage.getScene() != null) {
+            return;
         }
 
         // 3. Load UI and pass the shared list to the Controller
         FXMLLoader loader = new FXMLLoader(getClass().getResource("MainView.fxml"));
-        Parent root = loader.load();
+        Parent root;
+        try {
+            root = loader.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the main view", e);
+        }
 
-        MainController controller = loader.getController();
-        controller.setDependencies(sharedShortcutList, jsonManager, hotkeyService);
+        controller = loader.getController();
+        controller.setDependencies(repository, hotkeyService);
 
         Scene scene = new Scene(root);
         scene.getStylesheets().add(getClass().getResource("style.css").toExternalForm());
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                StartupTimer.mark(StartupTimer.FIRST_FRAME);
+            }
+        });
 
-        stage.setTitle("KeyFlow Utility");
-
-        // Use fully qualified name to avoid ambiguity with java.awt.Image
-        try {
-            javafx.scene.image.Image appIcon = new javafx.scene.image.Image(getClass().getResourceAsStream("icon.png"));
-            stage.getIcons().add(appIcon);
-        } catch (Exception e) {
-            System.err.println("Could not load window icon: " + e.getMessage());
+        if (stage.getIcons().isEmpty()) {
+            // Use fully qualified name to avoid ambiguity with java.awt.Image
+            try {
+                javafx.scene.image.Image appIcon = new javafx.scene.image.Image(getClass().getResourceAsStream("icon.png"));
+                stage.getIcons().add(appIcon);
+            } catch (Exception e) {
+                System.err.println("Could not load window icon: " + e.getMessage());
+            }
         }
 
         stage.setScene(scene);
-        if (!startMinimized) {
-            stage.show();
-            stage.centerOnScreen();
-        }
+    }
 
-        stage.setOnCloseRequest(event -> {
-            event.consume(); // Prevent the actual closing
-            stage.hide(); // Just hide the window
+    /**
+     * Drops the scene graph once the window has stayed hidden for
+     * {@code keyflow.ui.releaseAfterHide} seconds. Off when the property is
+     * not set; the window is then kept for instant reopening.
+     */
+    private void scheduleRelease() {
+        long seconds = Long.getLong(RELEASE_AFTER_HIDE_PROPERTY, -1);
+        if (seconds < 0 || stage.getScene() == null) {
+            return;
+        }
+        cancelRelease();
+        releaseTimer = new PauseTransition(Duration.seconds(seconds));
+        releaseTimer.setOnFinished(event -> {
+            releaseTimer = null;
+            if (!stage.isShowing()) {
+                stage.setScene(null);
+                controller = null;
+                System.out.println("Released the hidden window");
+            }
         });
+        releaseTimer.play();
+    }
+
+    private void cancelRelease() {
+        if (releaseTimer != null) {
+            releaseTimer.stop();
+            releaseTimer = null;
+        }
     }
 
     private void createTrayIcon(Stage stage) {
@@ -162,12 +271,12 @@ public class MainApp extends Application {
             showItem.addActionListener(e -> showStage());
 
             MenuItem exitItem = new MenuItem("Exit");
-            exitItem.addActionListener(e -> {
-                Platform.exit(); // This will trigger the stop() method for cleanup
-                System.exit(0);
-            });
+            exitItem.addActionListener(e -> exit());
 
             popup.add(showItem);
+            if (!hotkeyService.getProfileNames().isEmpty()) {
+                popup.add(createProfileMenu());
+            }
             popup.addSeparator();
             popup.add(exitItem);
 
@@ -183,9 +292,37 @@ public class MainApp extends Application {
         }
     }
 
+    private Menu createProfileMenu() {
+        Menu menu = new Menu("Profile");
+        List<String> names = new ArrayList<>();
+        names.add(ProfileSet.DEFAULT_PROFILE);
+        names.addAll(profileSet.getProfiles().keySet());
+        for (String name : names) {
+            MenuItem item = new MenuItem(name);
+            item.addActionListener(e -> {
+                if (hotkeyService.activateProfile(name)) {
+                    profileSet.setActiveProfile(ProfileSet.DEFAULT_PROFILE.equals(name) ? null : name);
+                    jsonManager.saveProfileSet(profileSet);
+                    showNotification("Profile " + name);
+                }
+            });
+            menu.add(item);
+        }
+        return menu;
+    }
+
+    private void exit() {
+        // System.exit below can beat stop(), so persist queued saves first
+        jsonManager.flush();
+        Platform.exit(); // This will trigger the stop() method for cleanup
+        System.exit(0);
+    }
+
     private void showStage() {
         Platform.runLater(() -> {
             if (stage != null) {
+                cancelRelease();
+                buildWindow();
                 stage.show();
                 stage.setIconified(false);
                 stage.toFront();
@@ -199,49 +336,18 @@ public class MainApp extends Application {
         if (hotkeyService != null) {
             hotkeyService.unregisterService();
         }
+        if (jsonManager != null) {
+            // Write any queued save before the JVM exits
+            jsonManager.close();
+        }
+        LevelCache.getInstance().stop();
+        ActionBackends.shutdown();
         super.stop();
     }
 
     public void showNotification(String functionName) {
-        Platform.runLater(() -> {
-            Stage stage = new Stage();
-            stage.initStyle(StageStyle.TRANSPARENT);
-            stage.setAlwaysOnTop(true);
-
-            // Styling the notification box
-            Label label = new Label(functionName);
-            label.setStyle("-fx-background-color: rgba(40, 40, 40, 0.9); " +
-                    "-fx-text-fill: white; " +
-                    "-fx-padding: 12 20; " +
-                    "-fx-background-radius: 10; " +
-                    "-fx-font-family: 'Segoe UI', sans-serif; " +
-                    "-fx-font-size: 14px; " +
-                    "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.5), 10, 0, 0, 0);");
-
-            StackPane root = new StackPane(label);
-            root.setStyle("-fx-background-color: transparent;");
-
-            Scene scene = new Scene(root);
-            scene.setFill(null);
-            stage.setScene(scene);
-
-            // Calculate Bottom-Right Position
-            Rectangle2D screenBounds = Screen.getPrimary().getVisualBounds();
-
-            // We must show the stage to calculate its actual width/height
-            stage.show();
-
-            double x = screenBounds.getMaxX() - stage.getWidth() - 30; // 30px margin from right
-            double y = screenBounds.getMaxY() - stage.getHeight() - 30; // 30px margin from bottom
-
-            stage.setX(x);
-            stage.setY(y);
-
-            // Stay visible for 1.5 seconds, then close
-            PauseTransition delay = new PauseTransition(Duration.seconds(1.5));
-            delay.setOnFinished(e -> stage.close());
-            delay.play();
-        });
+        // One reused window; repeated triggers only replace its text
+        notificationOverlay.show(functionName);
     }
 
 }
\ No newline at end of file
@@ -7,39 +7,42 @@ import javafx.scene.control.Label;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
 import com.myhotkey.shortcututitlity.enums.SystemAction;
 import javafx.scene.input.KeyCode;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
-import javafx.scene.layout.Priority;
-import javafx.geometry.Pos;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.SVGPath;
 import com.myhotkey.shortcututitlity.model.Shortcut;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 
-import javafx.scene.layout.Priority;
 
 import javafx.scene.control.ButtonType;
 import javafx.scene.layout.GridPane;
 import javafx.geometry.Insets;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
+import java.util.IdentityHashMap;
 import java.util.ArrayList;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 public class MainController {
     @FXML
     private TableView<?> tableView;
 
     @FXML
-    private VBox shortcutListContainer;
+    private ListView<Shortcut> shortcutListView;
+    @FXML
+    private TextField filterField;
 
-    private List<Shortcut> sharedShortcutList;
-    private JsonManager jsonManager;
+    private ShortcutRepository repository;
     private GlobalHotkeyService hotkeyService;
 
     @FXML
@@ -62,54 +65,57 @@ public class MainController {
 
     private final Set<KeyCode> activeKeys = new HashSet<>();
 
+    // Rows of the list view, which only builds cells for the visible ones
+    private final ObservableList<Shortcut> rows = FXCollections.observableArrayList();
+    private final FilteredList<Shortcut> visibleRows = new FilteredList<>(rows);
+    private final ShortcutFilterIndex filterIndex = new ShortcutFilterIndex();
+    // Repository version the rows show; older changes are already in them
+    private long shownVersion;
+
     @FXML
     private void handleDeleteShortcut() {
         System.out.println("Delete Shortcut");
     }
 
-    private void addShortcutToUI(Shortcut shortcut) {
-        // Extract data from the object inside the method
-        String keys = shortcut.getKeyCombo();
-        String functionName = shortcut.getAction().toString();
-
-        HBox card = new HBox(20);
-        card.getStyleClass().add("shortcut-card");
-        card.setAlignment(Pos.CENTER_LEFT);
-
-        // Keyboard Visuals (The "KBD" look)
-        HBox keysBox = new HBox(5);
-        keysBox.setAlignment(Pos.CENTER);
-        for (String key : keys.split("\\+")) {
-            Label k = new Label(key.trim());
-            k.getStyleClass().add("kbd-key");
-            keysBox.getChildren().add(k);
+    private void deleteShortcut(Shortcut shortcut) {
+        // The row goes when the repository publishes the removal
+        if (repository != null) {
+            repository.remove(shortcut.getId());
         }
+    }
 
-        VBox details = new VBox(2);
-        Label title = new Label(functionName);
-        title.getStyleClass().add("card-title");
-        Label subtitle = new Label("System automated trigger");
-        subtitle.getStyleClass().add("card-subtitle");
-        details.getChildren().addAll(title, subtitle);
-        HBox.setHgrow(details, Priority.ALWAYS);
-
-        Button deleteBtn = new Button("✕");
-        deleteBtn.getStyleClass().add("delete-button");
-        deleteBtn.setOnAction(e -> {
-            // Since shortcut is an object in the shared list, remove(shortcut) works
-            // perfectly
-            shortcutListContainer.getChildren().remove(card);
-            if (sharedShortcutList != null) {
-                sharedShortcutList.remove(shortcut);
-                jsonManager.saveShortcuts(sharedShortcutList);
-                if (hotkeyService != null) {
-                    hotkeyService.removeShortcut(shortcut.getKeyCombo());
+    /**
+     * Shows a committed repository change, made here or by an edit of the
+     * file outside the app. Only the affected rows are touched; updated rows
+     * keep their position.
+     *
+     * @param change What changed
+     */
+    void applyChange(ShortcutRepository.Change change) {
+        if (change.version() <= shownVersion) {
+            return;
+        }
+        shownVersion = change.version();
+
+        ShortcutDelta delta = change.delta();
+        if (!delta.updated().isEmpty()) {
+            for (int i = 0; i < rows.size(); i++) {
+                Shortcut replacement = delta.updated().get(rows.get(i));
+                if (replacement != null) {
+                    rows.set(i, replacement);
                 }
             }
-        });
-
-        card.getChildren().addAll(keysBox, details, deleteBtn);
-        shortcutListContainer.getChildren().add(card);
+            filterIndex.removeAll(delta.updated().keySet());
+            filterIndex.addAll(delta.updated().values());
+        }
+        if (!delta.removed().isEmpty()) {
+            Set<Shortcut> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+            removed.addAll(delta.removed());
+            rows.removeAll(removed);
+            filterIndex.removeAll(removed);
+        }
+        filterIndex.addAll(delta.added());
+        rows.addAll(delta.added());
     }
 
     @FXML
@@ -118,7 +124,11 @@ public class MainController {
     @FXML
     private void initialize() {
         // Setup the ComboBox
-        functionComboBox.setItems(FXCollections.observableArrayList(SystemAction.values()));
+        // Layer toggles need a layer name, so they are set up in profiles.json
+        functionComboBox.setItems(FXCollections.observableArrayList(
+                Arrays.stream(SystemAction.values())
+                        .filter(action -> action != SystemAction.TOGGLE_LAYER)
+                        .toList()));
 
         // Setup the Recording Logic for the TextField
         shortcutInputField.setOnKeyPressed(event -> {
@@ -132,6 +142,12 @@ public class MainController {
             event.consume();
         });
 
+        // Shortcut list: recycled cells, narrowed by the filter box
+        shortcutListView.setItems(visibleRows);
+        shortcutListView.setCellFactory(list -> new ShortcutCell(this::deleteShortcut));
+        filterField.textProperty().addListener(
+                (observable, oldQuery, query) -> visibleRows.setPredicate(filterIndex.filter(query)));
+
         // Set initial UI state
         updateStatusUI();
 
@@ -149,19 +165,17 @@ public class MainController {
     }
 
     // 2. MANUAL: Called by MainApp to pass shared data.
-    public void setDependencies(List<Shortcut> sharedShortcutList, JsonManager jsonManager,
-            GlobalHotkeyService hotkeyService) {
-        this.sharedShortcutList = sharedShortcutList;
-        this.jsonManager = jsonManager;
+    void setDependencies(ShortcutRepository repository, GlobalHotkeyService hotkeyService) {
+        this.repository = repository;
         this.hotkeyService = hotkeyService;
         updateStatusUI();
 
-        shortcutListContainer.getChildren().clear();
-        if (this.sharedShortcutList != null) {
-            for (Shortcut s : this.sharedShortcutList) {
-                addShortcutToUI(s); // This now matches the new signature
-            }
-        }
+        // Later changes arrive through applyChange
+        ShortcutRepository.Snapshot snapshot = repository.snapshot();
+        shownVersion = snapshot.version();
+        filterIndex.clear();
+        filterIndex.addAll(snapshot.shortcuts());
+        rows.setAll(snapshot.shortcuts());
     }
 
     @FXML
@@ -238,17 +252,14 @@ public class MainController {
 
         Shortcut newShortcut = new Shortcut(keys, action);
 
-        if (sharedShortcutList == null)
-            sharedShortcutList = new CopyOnWriteArrayList<>();
-
-        sharedShortcutList.add(newShortcut);
-        jsonManager.saveShortcuts(sharedShortcutList);
-
-        if (hotkeyService != null) {
-            hotkeyService.addShortcut(newShortcut);
+        // Rejected (e.g. a prefix of an existing sequence): keep the input for editing
+        if (repository == null || hotkeyService != null && !hotkeyService.canBind(newShortcut)) {
+            return;
         }
 
-        addShortcutToUI(newShortcut); // Much cleaner call
+        // Bound, journaled and shown through the repository's change event; keys
+        // that are already bound get the new action
+        repository.add(newShortcut);
 
         // UI Cleanup
         shortcutInputField.clear();
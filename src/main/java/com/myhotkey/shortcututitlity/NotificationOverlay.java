@@ -0,0 +1,120 @@
+package com.myhotkey.shortcututitlity;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.util.Duration;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * The on-screen notification in the bottom-right corner, as one reused
+ * window.
+ *
+ * {@link #show} may be called from any thread and at any rate. Messages are
+ * coalesced: at most one update is queued on the FX thread at a time, and it
+ * shows the latest message, so holding a repeating shortcut neither opens
+ * more windows nor floods the FX queue. Each update restarts the hide timer.
+ * The window is created with the first message and kept hidden between
+ * bursts. Styles come from notification.css.
+ *
+ * When a burst ends, the number of messages, how many were drawn, the FX
+ * thread time spent and the windows created so far are logged at FINE.
+ */
+final class NotificationOverlay {
+
+    private static final Logger LOGGER = Logger.getLogger(NotificationOverlay.class.getName());
+
+    static final Duration DISPLAY_TIME = Duration.seconds(1.5);
+    private static final double SCREEN_MARGIN = 30;
+
+    private final AtomicReference<String> pending = new AtomicReference<>();
+    private final AtomicBoolean updateQueued = new AtomicBoolean();
+
+    // FX thread only
+    private Stage stage;
+    private Label label;
+    private PauseTransition hideTimer;
+    private long burstFxNanos;
+    private int burstUpdates;
+    private int windowsCreated;
+
+    private final AtomicInteger burstRequests = new AtomicInteger();
+
+    /**
+     * Shows a message, replacing the one on screen.
+     *
+     * @param message Text to show
+     */
+    void show(String message) {
+        burstRequests.incrementAndGet();
+        pending.set(message);
+        if (updateQueued.compareAndSet(false, true)) {
+            Platform.runLater(this::update);
+        }
+    }
+
+    private void update() {
+        // Cleared first, so a message set from here on queues a new update
+        updateQueued.set(false);
+        String message = pending.getAndSet(null);
+        if (message == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        if (stage == null) {
+            createStage();
+        }
+        label.setText(message);
+        if (stage.isShowing()) {
+            stage.sizeToScene();
+        } else {
+            // Shown first so that its size is known
+            stage.show();
+        }
+        Rectangle2D screenBounds = Screen.getPrimary().getVisualBounds();
+        stage.setX(screenBounds.getMaxX() - stage.getWidth() - SCREEN_MARGIN);
+        stage.setY(screenBounds.getMaxY() - stage.getHeight() - SCREEN_MARGIN);
+        hideTimer.playFromStart();
+
+        burstUpdates++;
+        burstFxNanos += System.nanoTime() - started;
+    }
+
+    private void createStage() {
+        stage = new Stage();
+        stage.initStyle(StageStyle.TRANSPARENT);
+        stage.setAlwaysOnTop(true);
+
+        label = new Label();
+        label.getStyleClass().add("notification-label");
+        StackPane root = new StackPane(label);
+        root.getStyleClass().add("notification-root");
+
+        Scene scene = new Scene(root);
+        scene.setFill(null);
+        scene.getStylesheets().add(getClass().getResource("notification.css").toExternalForm());
+        stage.setScene(scene);
+
+        hideTimer = new PauseTransition(DISPLAY_TIME);
+        hideTimer.setOnFinished(event -> {
+            stage.hide();
+            LOGGER.fine("Notification burst: " + burstRequests.getAndSet(0) + " messages, " + burstUpdates
+                    + " drawn, " + burstFxNanos / 1000 + " us on the FX thread, "
+                    + windowsCreated + " windows created in total");
+            burstFxNanos = 0;
+            burstUpdates = 0;
+        });
+        windowsCreated++;
+    }
+}
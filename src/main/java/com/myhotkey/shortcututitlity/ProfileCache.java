@@ -0,0 +1,255 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary snapshot of the shortcut profile, already compiled to chord
+ * codes, kept next to the JSON file for fast startup.
+ *
+ * The snapshot is keyed by the JSON file's size, modification time and CRC32C.
+ * Only a snapshot whose key matches the current JSON file is used, and it is
+ * read through a memory-mapped {@link FileChannel}; otherwise the caller
+ * parses the JSON, which stays the source of truth, and rebuilds the snapshot.
+ *
+ * Layout (big-endian): magic, version, JSON size, JSON mtime, JSON CRC, entry
+ * count, body CRC, then per entry: id (0 for none), action ordinal, repeat
+ * policy (ordinal + 1, 0 for none), stroke count, chord codes, key combination
+ * length and UTF-8 bytes, layer name length (0 for none) and UTF-8 bytes.
+ */
+final class ProfileCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ProfileCache.class.getName());
+
+    private static final int MAGIC = 0x4B46_5043; // "KFPC"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4 + 4;
+    private static final byte NO_ACTION = -1;
+
+    /**
+     * Identity of one version of the JSON file.
+     */
+    record Key(long size, long modifiedMillis, int crc) {
+    }
+
+    /**
+     * A profile with the chord codes of every entry.
+     *
+     * @param shortcuts Entries in file order
+     * @param chords    Chord codes per entry, empty for entries that do not compile;
+     *                  null if the profile was not compiled yet
+     */
+    record CompiledProfile(List<Shortcut> shortcuts, int[][] chords) {
+    }
+
+    private final Path path;
+
+    /**
+     * @param path Location of the binary snapshot
+     */
+    ProfileCache(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Computes the key of a JSON file as it is on disk now.
+     *
+     * @param json The JSON file
+     * @return Its key
+     * @throws IOException If the file cannot be read
+     */
+    static Key keyOf(Path json) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(json, BasicFileAttributes.class);
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel channel = FileChannel.open(json, StandardOpenOption.READ)) {
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return new Key(attributes.size(), attributes.lastModifiedTime().toMillis(), (int) crc.getValue());
+    }
+
+    /**
+     * Computes the key of JSON content that was just written to a file.
+     *
+     * @param json  The written file
+     * @param bytes Its content
+     * @return Its key
+     * @throws IOException If the file attributes cannot be read
+     */
+    static Key keyOf(Path json, byte[] bytes) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return new Key(bytes.length, Files.getLastModifiedTime(json).toMillis(), (int) crc.getValue());
+    }
+
+    /**
+     * Reads the snapshot if it was built from exactly this version of the JSON.
+     *
+     * @param expected Key of the current JSON file
+     * @return The compiled profile, or null if missing, stale or corrupt
+     */
+    CompiledProfile read(Key expected) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Check the header with a plain read: a stale snapshot is never
+            // mapped, so it can still be replaced while the app runs (Windows
+            // refuses to replace a file that is mapped).
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) > 0) {
+                // Keep reading
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getLong() != expected.size() || header.getLong() != expected.modifiedMillis()
+                    || header.getInt() != expected.crc()) {
+                return null;
+            }
+            int count = header.getInt();
+            int bodyCrc = header.getInt();
+
+            MappedByteBuffer body = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+                    channel.size() - HEADER_BYTES);
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != bodyCrc) {
+                LOGGER.warning("Ignoring corrupt profile cache " + path);
+                return null;
+            }
+            return decode(body, count);
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Could not read profile cache " + path, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the snapshot atomically.
+     *
+     * @param key     Key of the JSON file the profile was read from
+     * @param profile The profile with its chord codes
+     */
+    void write(Key key, CompiledProfile profile) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(profile.shortcuts().size() * 32);
+            DataOutputStream out = new DataOutputStream(body);
+            List<Shortcut> shortcuts = profile.shortcuts();
+            for (int i = 0; i < shortcuts.size(); i++) {
+                encode(out, shortcuts.get(i), profile.chords()[i]);
+            }
+            out.flush();
+            byte[] bodyBytes = body.toByteArray();
+
+            CRC32C crc = new CRC32C();
+            crc.update(bodyBytes);
+            ByteBuffer file = ByteBuffer.allocate(HEADER_BYTES + bodyBytes.length);
+            file.putInt(MAGIC).putInt(VERSION)
+                    .putLong(key.size()).putLong(key.modifiedMillis()).putInt(key.crc())
+                    .putInt(shortcuts.size()).putInt((int) crc.getValue())
+                    .put(bodyBytes);
+            ShortcutWriter.writeAtomically(path, file.array());
+        } catch (IOException ex) {
+            // A snapshot mapped by this process cannot be replaced on Windows;
+            // it is stale from now on and gets rebuilt on the next start
+            LOGGER.log(Level.FINE, "Could not write profile cache " + path, ex);
+        }
+    }
+
+    /**
+     * Compiles every entry of a profile, for writing a snapshot.
+     *
+     * @param shortcuts Entries in file order
+     * @return The profile with chord codes
+     */
+    static CompiledProfile compile(List<Shortcut> shortcuts) {
+        int[][] chords = new int[shortcuts.size()][];
+        for (int i = 0; i < chords.length; i++) {
+            Shortcut shortcut = shortcuts.get(i);
+            chords[i] = shortcut == null || shortcut.getAction() == null
+                    ? new int[0]
+                    : KeyChord.parseSequence(shortcut.getKeyCombo());
+        }
+        return new CompiledProfile(shortcuts, chords);
+    }
+
+    private static void encode(DataOutputStream out, Shortcut shortcut, int[] chords) throws IOException {
+        SystemAction action = shortcut != null ? shortcut.getAction() : null;
+        RepeatPolicy policy = shortcut != null ? shortcut.getRepeatPolicy() : null;
+        String keyCombo = shortcut != null && shortcut.getKeyCombo() != null ? shortcut.getKeyCombo() : "";
+        byte[] keyBytes = keyCombo.getBytes(StandardCharsets.UTF_8);
+
+        Long id = shortcut != null ? shortcut.getId() : null;
+        out.writeLong(id != null ? id : 0L);
+        out.writeByte(action != null ? action.ordinal() : NO_ACTION);
+        out.writeByte(policy != null ? policy.ordinal() + 1 : 0);
+        out.writeByte(chords.length);
+        for (int chord : chords) {
+            out.writeInt(chord);
+        }
+        out.writeShort(keyBytes.length);
+        out.write(keyBytes);
+        byte[] layerBytes = shortcut != null && shortcut.getLayer() != null
+                ? shortcut.getLayer().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        out.writeShort(layerBytes.length);
+        out.write(layerBytes);
+    }
+
+    private static CompiledProfile decode(ByteBuffer body, int count) {
+        SystemAction[] actions = SystemAction.values();
+        RepeatPolicy[] policies = RepeatPolicy.values();
+        List<Shortcut> shortcuts = new ArrayList<>(count);
+        int[][] chords = new int[count][];
+        try {
+            for (int i = 0; i < count; i++) {
+                long id = body.getLong();
+                byte action = body.get();
+                int policy = body.get();
+                int[] strokes = new int[Byte.toUnsignedInt(body.get())];
+                for (int s = 0; s < strokes.length; s++) {
+                    strokes[s] = body.getInt();
+                }
+                byte[] keyBytes = new byte[Short.toUnsignedInt(body.getShort())];
+                body.get(keyBytes);
+                byte[] layerBytes = new byte[Short.toUnsignedInt(body.getShort())];
+                body.get(layerBytes);
+
+                Shortcut shortcut = new Shortcut(new String(keyBytes, StandardCharsets.UTF_8),
+                        action == NO_ACTION ? null : actions[action],
+                        policy == 0 ? null : policies[policy - 1]);
+                shortcut.setId(id != 0 ? id : null);
+                shortcut.setLayer(layerBytes.length > 0 ? new String(layerBytes, StandardCharsets.UTF_8) : null);
+                shortcuts.add(shortcut);
+                chords[i] = strokes;
+            }
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException ex) {
+            LOGGER.warning("Ignoring truncated profile cache");
+            return null;
+        }
+        return new CompiledProfile(shortcuts, chords);
+    }
+}
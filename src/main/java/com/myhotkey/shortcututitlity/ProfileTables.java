@@ -0,0 +1,120 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.ProfileSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Named profiles and layers, each compiled ahead of time into its own
+ * {@link ChordTable}, plus the flattened tables of layer stacks.
+ *
+ * A stack (a profile with layers on top) is flattened with
+ * {@link ChordTable#overlay} into one table, so the hook thread still does a
+ * single lookup and a switch only publishes another table. Stacks are built
+ * on first use and kept; {@link #toggleTargets} builds every stack one layer
+ * toggle away from the active one, so a toggle key never builds a stack on
+ * the hook thread.
+ *
+ * Not thread-safe: the owner calls it under its write lock.
+ */
+final class ProfileTables {
+
+    static final ProfileTables EMPTY = new ProfileTables(Map.of(), Map.of());
+
+    private record StackKey(ChordTable base, List<String> layers) {
+    }
+
+    private final Map<String, ChordTable> profiles;
+    private final Map<String, ChordTable> layers;
+    private final Map<StackKey, ChordTable> stacks = new HashMap<>();
+
+    // Stacks on top of this default table are cached; older ones are dropped
+    private ChordTable cachedDefault;
+
+    /**
+     * @param profiles Compiled named profiles, without the default one
+     * @param layers   Compiled layers
+     */
+    ProfileTables(Map<String, ChordTable> profiles, Map<String, ChordTable> layers) {
+        this.profiles = profiles;
+        this.layers = layers;
+    }
+
+    boolean hasProfile(String name) {
+        return ProfileSet.DEFAULT_PROFILE.equals(name) || profiles.containsKey(name);
+    }
+
+    boolean hasLayer(String name) {
+        return layers.containsKey(name);
+    }
+
+    Set<String> profileNames() {
+        return profiles.keySet();
+    }
+
+    Set<String> layerNames() {
+        return layers.keySet();
+    }
+
+    /**
+     * Gets the flattened table of a stack.
+     *
+     * @param defaultTable The current table of the default profile
+     * @param profile      Name of the bottom profile (must exist)
+     * @param layerNames   Layers from bottom to top (must exist)
+     * @return The table to publish
+     */
+    ChordTable stack(ChordTable defaultTable, String profile, List<String> layerNames) {
+        ChordTable base = ProfileSet.DEFAULT_PROFILE.equals(profile) ? defaultTable : profiles.get(profile);
+        if (layerNames.isEmpty()) {
+            return base;
+        }
+
+        if (cachedDefault != defaultTable) {
+            // The default profile was edited since
+            ChordTable stale = cachedDefault;
+            stacks.keySet().removeIf(key -> key.base() == stale);
+            cachedDefault = defaultTable;
+        }
+        return stacks.computeIfAbsent(new StackKey(base, List.copyOf(layerNames)), key -> {
+            ChordTable table = key.base();
+            for (String layer : key.layers()) {
+                table = table.overlay(layers.get(layer));
+            }
+            return table;
+        });
+    }
+
+    /**
+     * Flattens, for every layer, the stack with that layer toggled.
+     *
+     * @param defaultTable The current table of the default profile
+     * @param profile      Name of the bottom profile (must exist)
+     * @param layerNames   Active layers from bottom to top (must exist)
+     * @return Table per layer name (unmodifiable)
+     */
+    Map<String, ChordTable> toggleTargets(ChordTable defaultTable, String profile, List<String> layerNames) {
+        Map<String, ChordTable> targets = new HashMap<>();
+        for (String layer : layers.keySet()) {
+            targets.put(layer, stack(defaultTable, profile, toggled(layerNames, layer)));
+        }
+        return Map.copyOf(targets);
+    }
+
+    /**
+     * @param layerNames Layers from bottom to top
+     * @param layer      Layer to turn off if present, or on top otherwise
+     * @return The new layers (unmodifiable)
+     */
+    static List<String> toggled(List<String> layerNames, String layer) {
+        List<String> result = new ArrayList<>(layerNames);
+        if (!result.remove(layer)) {
+            result.add(layer);
+        }
+        return List.copyOf(result);
+    }
+}
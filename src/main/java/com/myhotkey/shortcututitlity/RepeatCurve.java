@@ -0,0 +1,39 @@
+package com.myhotkey.shortcututitlity;
+
+import java.time.Duration;
+
+/**
+ * Timing of hold-to-repeat: how soon repeats start, how fast they come and
+ * how they speed up while the keys stay down.
+ *
+ * After {@code initialDelay} the action repeats every {@code interval}. Each
+ * repeat multiplies the interval by {@code acceleration} until it reaches
+ * {@code minInterval}; from then on every repeat issues one more step, up to
+ * {@code maxSteps} per repeat (e.g. volume changes faster the longer it is held).
+ *
+ * @param initialDelay Time from key-down to the first repeat
+ * @param interval     Time between the first repeats
+ * @param minInterval  Shortest time between repeats
+ * @param acceleration Interval factor per repeat, in (0, 1]; 1 means constant rate
+ * @param maxSteps     Largest number of steps issued by one repeat
+ */
+public record RepeatCurve(Duration initialDelay, Duration interval, Duration minInterval,
+        double acceleration, int maxSteps) {
+
+    public static final RepeatCurve DEFAULT = new RepeatCurve(
+            Duration.ofMillis(400), Duration.ofMillis(150), Duration.ofMillis(50), 0.8, 4);
+
+    public RepeatCurve {
+        if (initialDelay.isNegative() || interval.isNegative() || interval.isZero()
+                || minInterval.isNegative() || minInterval.isZero() || minInterval.compareTo(interval) > 0) {
+            throw new IllegalArgumentException("Invalid repeat timing: " + initialDelay + ", " + interval
+                    + ", " + minInterval);
+        }
+        if (!(acceleration > 0 && acceleration <= 1)) {
+            throw new IllegalArgumentException("Acceleration must be in (0, 1]: " + acceleration);
+        }
+        if (maxSteps < 1) {
+            throw new IllegalArgumentException("maxSteps must be at least 1: " + maxSteps);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
+
+import java.util.Arrays;
+
+/**
+ * Debounce and throttle state for the shortcuts of one {@link ChordTable}.
+ *
+ * State lives in primitive arrays indexed by table slot, so memory depends
+ * only on the table size, never on how much is typed. A filter belongs to
+ * exactly one table; when the table is replaced a fresh filter is created.
+ * Only the hook thread uses a filter, so it needs no synchronization.
+ */
+final class RepeatFilter {
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final ChordTable table;
+    private final long[] lastPressNanos;
+    private final long[] lastAcceptNanos;
+
+    RepeatFilter(ChordTable table) {
+        this.table = table;
+        this.lastPressNanos = new long[table.capacity()];
+        this.lastAcceptNanos = new long[table.capacity()];
+        Arrays.fill(lastPressNanos, NEVER);
+        Arrays.fill(lastAcceptNanos, NEVER);
+    }
+
+    /**
+     * @param table A shortcut table
+     * @return true if this filter tracks the slots of that table
+     */
+    boolean isFor(ChordTable table) {
+        return this.table == table;
+    }
+
+    /**
+     * Decides whether a press of the shortcut in a slot should run.
+     *
+     * @param slot        Table slot of the pressed shortcut
+     * @param policy      Repeat policy of the shortcut
+     * @param nowNanos    {@link System#nanoTime()} of the press
+     * @param windowNanos Debounce window
+     * @return true to run the shortcut, false to drop the press
+     */
+    boolean accept(int slot, RepeatPolicy policy, long nowNanos, long windowNanos) {
+        long previousPress = lastPressNanos[slot];
+        lastPressNanos[slot] = nowNanos;
+
+        boolean accepted = switch (policy) {
+            case AUTO_REPEAT -> true;
+            case DEBOUNCE -> previousPress == NEVER || nowNanos - previousPress >= windowNanos;
+            case THROTTLE -> lastAcceptNanos[slot] == NEVER || nowNanos - lastAcceptNanos[slot] >= windowNanos;
+        };
+        if (accepted) {
+            lastAcceptNanos[slot] = nowNanos;
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,134 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable trie of multi-stroke shortcuts, keyed by packed chord codes.
+ *
+ * Nodes are plain int ids (the root is 0). Edges live in one flat
+ * open-addressing table of primitive long keys ({@code node << 32 | chord}),
+ * so stepping a cursor with {@link #next(int, int)} is a single probe and
+ * never allocates.
+ */
+final class SequenceTrie {
+
+    static final int ROOT = 0;
+    static final int NO_NODE = -1;
+
+    private static final long EMPTY_KEY = 0L;
+
+    static final SequenceTrie EMPTY = new SequenceTrie(new long[1], new int[1], new Shortcut[1]);
+
+    private final long[] edgeKeys;
+    private final int[] edgeTargets;
+    private final Shortcut[] terminals;
+
+    private SequenceTrie(long[] edgeKeys, int[] edgeTargets, Shortcut[] terminals) {
+        this.edgeKeys = edgeKeys;
+        this.edgeTargets = edgeTargets;
+        this.terminals = terminals;
+    }
+
+    /**
+     * Builds a trie from chord sequences. The caller guarantees that no
+     * sequence is a prefix of another.
+     *
+     * @param sequences Chord codes per shortcut, in stroke order
+     * @return A new trie, or {@link #EMPTY} if there are no sequences
+     */
+    static SequenceTrie build(Collection<ChordTable.SequenceBinding> sequences) {
+        if (sequences.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<Long, Integer> edges = new HashMap<>();
+        Map<Integer, Shortcut> leaves = new HashMap<>();
+        int nodeCount = 1;
+        for (ChordTable.SequenceBinding binding : sequences) {
+            int node = ROOT;
+            for (int chord : binding.chords()) {
+                Integer child = edges.get(edgeKey(node, chord));
+                if (child == null) {
+                    child = nodeCount++;
+                    edges.put(edgeKey(node, chord), child);
+                }
+                node = child;
+            }
+            leaves.put(node, binding.shortcut());
+        }
+
+        int capacity = 16;
+        while (capacity < edges.size() * 2) {
+            capacity <<= 1;
+        }
+        long[] keys = new long[capacity];
+        int[] targets = new int[capacity];
+        int mask = capacity - 1;
+        for (Map.Entry<Long, Integer> edge : edges.entrySet()) {
+            long key = edge.getKey();
+            int i = mix(key) & mask;
+            while (keys[i] != EMPTY_KEY) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            targets[i] = edge.getValue();
+        }
+
+        Shortcut[] terminals = new Shortcut[nodeCount];
+        leaves.forEach((node, shortcut) -> terminals[node] = shortcut);
+        return new SequenceTrie(keys, targets, terminals);
+    }
+
+    /**
+     * Follows one stroke from a node. Allocation-free; called on the hook thread.
+     *
+     * @param node  Current node ({@link #ROOT} to start a sequence)
+     * @param chord Packed chord code of the stroke
+     * @return The child node, or {@link #NO_NODE} if no sequence continues this way
+     */
+    int next(int node, int chord) {
+        if (chord == KeyChord.NONE) {
+            return NO_NODE;
+        }
+        long key = edgeKey(node, chord);
+        long[] k = edgeKeys;
+        int mask = k.length - 1;
+        int i = mix(key) & mask;
+        while (true) {
+            long candidate = k[i];
+            if (candidate == key) {
+                return edgeTargets[i];
+            }
+            if (candidate == EMPTY_KEY) {
+                return NO_NODE;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * @param node A node returned by {@link #next(int, int)}
+     * @return The shortcut completed at this node, or null for an inner node
+     */
+    Shortcut terminalAt(int node) {
+        return terminals[node];
+    }
+
+    boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    private static long edgeKey(int node, int chord) {
+        // Chords are never NONE (0), so a real key is never EMPTY_KEY
+        return ((long) node << 32) | (chord & 0xFFFFFFFFL);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
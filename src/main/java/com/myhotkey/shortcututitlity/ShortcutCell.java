@@ -0,0 +1,108 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * One row of the shortcut list, drawn as a card: the keys, the action and a
+ * delete button.
+ *
+ * The list only creates as many cells as fit on screen and hands them new
+ * shortcuts as it scrolls, so the card is built once per cell and
+ * {@link #updateItem} only swaps texts. Key labels are pooled in the cell
+ * and reused across shortcuts of different lengths.
+ */
+final class ShortcutCell extends ListCell<Shortcut> {
+
+    private final HBox card = new HBox(20);
+    private final HBox keysBox = new HBox(5);
+    private final Label title = new Label();
+    private final List<Label> keyLabels = new ArrayList<>();
+    private final List<Label> separators = new ArrayList<>();
+
+    /**
+     * @param onDelete Called with the shortcut of the row whose delete button was pressed
+     */
+    ShortcutCell(Consumer<Shortcut> onDelete) {
+        card.getStyleClass().add("shortcut-card");
+        card.setAlignment(Pos.CENTER_LEFT);
+
+        // Keyboard Visuals (The "KBD" look)
+        keysBox.setAlignment(Pos.CENTER);
+
+        VBox details = new VBox(2);
+        title.getStyleClass().add("card-title");
+        Label subtitle = new Label("System automated trigger");
+        subtitle.getStyleClass().add("card-subtitle");
+        details.getChildren().addAll(title, subtitle);
+        HBox.setHgrow(details, Priority.ALWAYS);
+
+        Button deleteBtn = new Button("✕");
+        deleteBtn.getStyleClass().add("delete-button");
+        deleteBtn.setOnAction(e -> {
+            Shortcut shortcut = getItem();
+            if (shortcut != null) {
+                onDelete.accept(shortcut);
+            }
+        });
+
+        card.getChildren().addAll(keysBox, details, deleteBtn);
+        getStyleClass().add("shortcut-cell");
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(Shortcut shortcut, boolean empty) {
+        super.updateItem(shortcut, empty);
+        if (empty || shortcut == null) {
+            setGraphic(null);
+            return;
+        }
+
+        title.setText(String.valueOf(shortcut.getAction()));
+        List<Node> keys = new ArrayList<>();
+        int used = 0;
+        String[] strokes = shortcut.getKeySequence();
+        for (int i = 0; i < strokes.length; i++) {
+            if (i > 0) {
+                // Multi-stroke sequence: separate the strokes
+                keys.add(separator(i - 1));
+            }
+            for (String key : strokes[i].split("\\+")) {
+                Label label = keyLabel(used++);
+                label.setText(key.trim());
+                keys.add(label);
+            }
+        }
+        keysBox.getChildren().setAll(keys);
+        setGraphic(card);
+    }
+
+    private Label keyLabel(int index) {
+        if (index == keyLabels.size()) {
+            Label label = new Label();
+            label.getStyleClass().add("kbd-key");
+            keyLabels.add(label);
+        }
+        return keyLabels.get(index);
+    }
+
+    private Label separator(int index) {
+        if (index == separators.size()) {
+            separators.add(new Label(Shortcut.SEQUENCE_SEPARATOR));
+        }
+        return separators.get(index);
+    }
+}
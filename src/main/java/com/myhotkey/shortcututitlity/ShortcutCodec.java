@@ -0,0 +1,305 @@
+package com.myhotkey.shortcututitlity;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.ProfileSet;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Reads and writes shortcut files with Jackson's streaming
+ * {@link JsonParser} and {@link JsonGenerator}, without databind.
+ *
+ * Startup then skips databind's introspection of {@link Shortcut} and its
+ * enums, and no intermediate tree is built. Entries are checked as they are
+ * read. An entry with a missing key combination, an unknown action or repeat
+ * policy, or a value of the wrong type is skipped and counted. A syntax error
+ * ends the read with the entries before it. Whether the key combination
+ * parses is left to the hotkey service, which reports it per entry.
+ *
+ * The output is indented like databind's, with the key combination ahead of
+ * the action; field order does not matter to either reader.
+ */
+final class ShortcutCodec {
+
+    private static final Logger LOGGER = Logger.getLogger(ShortcutCodec.class.getName());
+
+    private static final Map<String, SystemAction> ACTIONS = new HashMap<>();
+    private static final Map<String, RepeatPolicy> POLICIES = new HashMap<>();
+
+    static {
+        for (SystemAction action : SystemAction.values()) {
+            ACTIONS.put(action.name(), action);
+        }
+        for (RepeatPolicy policy : RepeatPolicy.values()) {
+            POLICIES.put(policy.name(), policy);
+        }
+    }
+
+    /**
+     * Result of reading a shortcut list.
+     *
+     * @param shortcuts The valid entries, in file order
+     * @param skipped   Number of entries that were left out
+     * @param truncated true if a syntax error ended the read early
+     */
+    record Decoded(List<Shortcut> shortcuts, int skipped, boolean truncated) {
+    }
+
+    private final JsonFactory factory = new JsonFactory();
+
+    /**
+     * Reads a shortcut list file.
+     *
+     * @param path The file, a JSON array of shortcuts
+     * @return The valid entries
+     * @throws IOException If the file cannot be read or is not a JSON array
+     */
+    Decoded read(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path); JsonParser parser = factory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of shortcuts in " + path);
+            }
+            return readList(parser);
+        }
+    }
+
+    /**
+     * Reads the profiles file.
+     *
+     * @param path The file, a JSON object
+     * @return The profiles and layers; lists skip bad entries the same way
+     * @throws IOException If the file cannot be read or is not a JSON object
+     */
+    ProfileSet readProfileSet(Path path) throws IOException {
+        ProfileSet set = new ProfileSet();
+        try (InputStream in = Files.newInputStream(path); JsonParser parser = factory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object in " + path);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "activeProfile" -> {
+                        if (value == JsonToken.VALUE_STRING) {
+                            set.setActiveProfile(parser.getText());
+                        } else {
+                            set.setActiveProfile(null);
+                            parser.skipChildren();
+                        }
+                    }
+                    case "profiles" -> readNamedLists(parser, set.getProfiles());
+                    case "layers" -> readNamedLists(parser, set.getLayers());
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Writes a shortcut list.
+     *
+     * @param shortcuts Entries to write; null entries are left out
+     * @return UTF-8 JSON
+     * @throws IOException Not expected for in-memory output
+     */
+    byte[] write(List<Shortcut> shortcuts) throws IOException {
+        ByteArrayBuilder out = new ByteArrayBuilder(factory._getBufferRecycler());
+        try (JsonGenerator generator = createGenerator(out)) {
+            writeList(generator, shortcuts);
+        }
+        return toByteArray(out);
+    }
+
+    /**
+     * Writes the profiles file.
+     *
+     * @param set Profiles and layers
+     * @return UTF-8 JSON
+     * @throws IOException Not expected for in-memory output
+     */
+    byte[] write(ProfileSet set) throws IOException {
+        ByteArrayBuilder out = new ByteArrayBuilder(factory._getBufferRecycler());
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            if (set.getActiveProfile() != null) {
+                generator.writeStringField("activeProfile", set.getActiveProfile());
+            }
+            writeNamedLists(generator, "profiles", set.getProfiles());
+            writeNamedLists(generator, "layers", set.getLayers());
+            generator.writeEndObject();
+        }
+        return toByteArray(out);
+    }
+
+    private JsonGenerator createGenerator(ByteArrayBuilder out) throws IOException {
+        return factory.createGenerator(out).setPrettyPrinter(new DefaultPrettyPrinter());
+    }
+
+    private static byte[] toByteArray(ByteArrayBuilder out) {
+        // Segments come from the factory's recycler (as with databind), so hand them back
+        byte[] bytes = out.toByteArray();
+        out.release();
+        return bytes;
+    }
+
+    private Decoded readList(JsonParser parser) throws IOException {
+        List<Shortcut> shortcuts = new ArrayList<>();
+        int skipped = 0;
+        try {
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                Shortcut shortcut = token == JsonToken.START_OBJECT ? readShortcut(parser) : null;
+                if (shortcut != null) {
+                    shortcuts.add(shortcut);
+                } else {
+                    parser.skipChildren();
+                    skipped++;
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            LOGGER.warning("Shortcut file is malformed after " + shortcuts.size() + " entries: "
+                    + ex.getOriginalMessage());
+            return new Decoded(shortcuts, skipped, true);
+        }
+        if (skipped > 0) {
+            LOGGER.warning("Skipped " + skipped + " invalid shortcut entries");
+        }
+        return new Decoded(shortcuts, skipped, false);
+    }
+
+    /**
+     * Reads one object, positioned on its START_OBJECT; always consumes it
+     * up to its END_OBJECT.
+     *
+     * @return The shortcut, or null if the entry is invalid
+     */
+    private static Shortcut readShortcut(JsonParser parser) throws IOException {
+        Shortcut shortcut = new Shortcut();
+        boolean valid = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> {
+                    if (value == JsonToken.VALUE_NUMBER_INT) {
+                        shortcut.setId(parser.getLongValue());
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        valid = false;
+                    }
+                }
+                case "keyCombo" -> {
+                    if (value == JsonToken.VALUE_STRING) {
+                        shortcut.setKeyCombo(parser.getText());
+                    } else {
+                        valid = false;
+                    }
+                }
+                case "action" -> {
+                    // Lenient like SystemAction.fromString: any case, surrounding blanks
+                    SystemAction action = value == JsonToken.VALUE_STRING
+                            ? ACTIONS.get(parser.getText().trim().toUpperCase(Locale.ROOT))
+                            : null;
+                    if (action != null) {
+                        shortcut.setAction(action);
+                    } else {
+                        valid = false;
+                    }
+                }
+                case "repeatPolicy" -> {
+                    // As lenient as the action
+                    RepeatPolicy policy = value == JsonToken.VALUE_STRING
+                            ? POLICIES.get(parser.getText().trim().toUpperCase(Locale.ROOT))
+                            : null;
+                    if (policy != null) {
+                        shortcut.setRepeatPolicy(policy);
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        valid = false;
+                    }
+                }
+                case "layer" -> {
+                    if (value == JsonToken.VALUE_STRING) {
+                        shortcut.setLayer(parser.getText());
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        valid = false;
+                    }
+                }
+            }
+            // Past an object or array value, of an unknown field or the wrong type
+            parser.skipChildren();
+        }
+        String keyCombo = shortcut.getKeyCombo();
+        return valid && keyCombo != null && !keyCombo.isBlank() && shortcut.getAction() != null ? shortcut : null;
+    }
+
+    private void readNamedLists(JsonParser parser, Map<String, List<Shortcut>> target) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_ARRAY) {
+                Decoded decoded = readList(parser);
+                target.put(name, decoded.shortcuts());
+                if (decoded.truncated()) {
+                    return;
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void writeList(JsonGenerator generator, List<Shortcut> shortcuts) throws IOException {
+        generator.writeStartArray();
+        for (Shortcut shortcut : shortcuts) {
+            if (shortcut == null) {
+                continue;
+            }
+            generator.writeStartObject();
+            if (shortcut.getId() != null) {
+                generator.writeNumberField("id", shortcut.getId());
+            }
+            generator.writeStringField("keyCombo", shortcut.getKeyCombo());
+            generator.writeStringField("action", shortcut.getAction() != null ? shortcut.getAction().name() : null);
+            if (shortcut.getRepeatPolicy() != null) {
+                generator.writeStringField("repeatPolicy", shortcut.getRepeatPolicy().name());
+            }
+            if (shortcut.getLayer() != null) {
+                generator.writeStringField("layer", shortcut.getLayer());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeNamedLists(JsonGenerator generator, String field, Map<String, List<Shortcut>> lists)
+            throws IOException {
+        generator.writeObjectFieldStart(field);
+        for (Map.Entry<String, List<Shortcut>> entry : lists.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            writeList(generator, entry.getValue() != null ? entry.getValue() : List.of());
+        }
+        generator.writeEndObject();
+    }
+}
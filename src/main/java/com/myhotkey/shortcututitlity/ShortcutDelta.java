@@ -0,0 +1,133 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Difference between the live shortcut list and a newly read one.
+ *
+ * Entries are matched by id first and then, for entries without a known id,
+ * by content (key sequence, action, repeat policy and layer). Matched
+ * entries that did not change are not part of the delta, so their objects
+ * (and the UI rows and bindings built from them) stay as they are.
+ *
+ * @param removed Live entries that are gone
+ * @param added   New entries
+ * @param updated Live entries whose id is still present with new content,
+ *                mapped to their replacement
+ */
+record ShortcutDelta(List<Shortcut> removed, List<Shortcut> added, Map<Shortcut, Shortcut> updated) {
+
+    /**
+     * Computes the delta that turns the current list into the next one.
+     * Duplicate ids in the next list are cleared after the first.
+     *
+     * @param current The live list
+     * @param next    The list just read
+     * @return The delta; empty if nothing changed
+     */
+    static ShortcutDelta between(List<Shortcut> current, List<Shortcut> next) {
+        Map<Long, Shortcut> currentById = new HashMap<>();
+        for (Shortcut shortcut : current) {
+            if (shortcut != null && shortcut.getId() != null) {
+                currentById.put(shortcut.getId(), shortcut);
+            }
+        }
+
+        Set<Shortcut> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<Shortcut, Shortcut> updated = new LinkedHashMap<>();
+        List<Shortcut> unmatched = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+        for (Shortcut shortcut : next) {
+            if (shortcut == null) {
+                continue;
+            }
+            if (shortcut.getId() != null && !seenIds.add(shortcut.getId())) {
+                shortcut.setId(null);
+            }
+            Shortcut previous = shortcut.getId() != null ? currentById.get(shortcut.getId()) : null;
+            if (previous == null) {
+                unmatched.add(shortcut);
+                continue;
+            }
+            matched.add(previous);
+            if (!signature(previous).equals(signature(shortcut))) {
+                updated.put(previous, shortcut);
+            }
+        }
+
+        // Entries without a known id (e.g. written by hand) match unchanged ones by content
+        Map<String, Deque<Shortcut>> bySignature = new HashMap<>();
+        for (Shortcut shortcut : current) {
+            if (shortcut != null && !matched.contains(shortcut)) {
+                bySignature.computeIfAbsent(signature(shortcut), k -> new ArrayDeque<>()).add(shortcut);
+            }
+        }
+        List<Shortcut> added = new ArrayList<>();
+        for (Shortcut shortcut : unmatched) {
+            Deque<Shortcut> same = bySignature.get(signature(shortcut));
+            Shortcut previous = same != null ? same.poll() : null;
+            if (previous != null) {
+                matched.add(previous);
+            } else {
+                added.add(shortcut);
+            }
+        }
+
+        List<Shortcut> removed = new ArrayList<>();
+        for (Shortcut shortcut : current) {
+            if (shortcut != null && !matched.contains(shortcut)) {
+                removed.add(shortcut);
+            }
+        }
+        return new ShortcutDelta(removed, added, updated);
+    }
+
+    /**
+     * @return true if the lists are equivalent
+     */
+    boolean isEmpty() {
+        return removed.isEmpty() && added.isEmpty() && updated.isEmpty();
+    }
+
+    /**
+     * @return Key combinations to unbind: removed entries and the old state of updated ones
+     */
+    List<String> unboundKeyCombos() {
+        List<String> keyCombos = new ArrayList<>(removed.size() + updated.size());
+        for (Shortcut shortcut : removed) {
+            keyCombos.add(shortcut.getKeyCombo());
+        }
+        for (Shortcut shortcut : updated.keySet()) {
+            keyCombos.add(shortcut.getKeyCombo());
+        }
+        return keyCombos;
+    }
+
+    /**
+     * @return Entries to bind: added entries and the new state of updated ones
+     */
+    List<Shortcut> boundShortcuts() {
+        List<Shortcut> shortcuts = new ArrayList<>(added.size() + updated.size());
+        shortcuts.addAll(added);
+        shortcuts.addAll(updated.values());
+        return shortcuts;
+    }
+
+    private static String signature(Shortcut shortcut) {
+        int[] chords = KeyChord.parseSequence(shortcut.getKeyCombo());
+        String keys = chords.length > 0 ? KeyChord.formatSequence(chords) : String.valueOf(shortcut.getKeyCombo());
+        return keys + '|' + shortcut.getAction() + '|' + shortcut.getRepeatPolicy() + '|' + shortcut.getLayer();
+    }
+}
@@ -0,0 +1,277 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.OverflowPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves shortcut execution off the JNativeHook callback thread.
+ *
+ * The hook thread only writes a trigger into a preallocated slot of a bounded
+ * lock-free ring, so enqueuing allocates nothing; the worker builds the
+ * {@link Trigger} record it hands on.
+ * There is one ring ("lane") per {@link SystemAction}, each drained by its own
+ * worker thread, so triggers of the same action run strictly in order while a
+ * slow action never delays a different one.
+ *
+ * Each lane is single-producer (the hook thread) / single-consumer (its worker).
+ */
+final class ShortcutDispatcher {
+
+    private static final Logger LOGGER = Logger.getLogger(ShortcutDispatcher.class.getName());
+
+    static final int DEFAULT_CAPACITY = 32;
+
+    /**
+     * A pending shortcut execution.
+     *
+     * @param shortcut       The shortcut to execute
+     * @param hookEntryNanos {@link System#nanoTime()} at hook entry, or 0 if not measured
+     * @param enqueuedNanos  {@link System#nanoTime()} at enqueue
+     */
+    record Trigger(Shortcut shortcut, long hookEntryNanos, long enqueuedNanos) {
+    }
+
+    private final Lane[] lanes;
+    private final Consumer<Trigger> handler;
+    private volatile OverflowPolicy overflowPolicy;
+    private volatile boolean running = true;
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Creates a dispatcher with one platform worker thread per action. Waking
+     * a virtual thread hands its continuation to the carrier pool, which
+     * allocates on the hook thread; waking a platform thread does not.
+     *
+     * @param handler Runs a dequeued trigger on a worker thread
+     */
+    ShortcutDispatcher(Consumer<Trigger> handler) {
+        this(handler, DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST,
+                Thread.ofPlatform().name("keyflow-dispatch-", 0).daemon().factory());
+    }
+
+    /**
+     * @param handler        Runs a dequeued trigger on a worker thread
+     * @param capacity       Per-action queue capacity (rounded up to a power of two)
+     * @param overflowPolicy What to do when a lane is full
+     * @param threadFactory  Creates the lane worker threads (platform or virtual)
+     */
+    ShortcutDispatcher(Consumer<Trigger> handler, int capacity, OverflowPolicy overflowPolicy,
+            ThreadFactory threadFactory) {
+        this.handler = handler;
+        this.overflowPolicy = overflowPolicy;
+
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        SystemAction[] actions = SystemAction.values();
+        lanes = new Lane[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            lanes[i] = new Lane(size);
+        }
+        for (Lane lane : lanes) {
+            lane.worker = threadFactory.newThread(lane::drain);
+            lane.worker.setDaemon(true);
+            lane.worker.start();
+        }
+    }
+
+    /**
+     * Enqueues a shortcut for execution. Called from the hook thread; never blocks.
+     *
+     * @param shortcut       The matched shortcut
+     * @param hookEntryNanos {@link System#nanoTime()} at hook entry, or 0 if not measured
+     * @param enqueuedNanos  {@link System#nanoTime()} after the lookup
+     * @return true if enqueued, false if folded into pending work or shut down
+     *         (a folded trigger still runs)
+     */
+    boolean submit(Shortcut shortcut, long hookEntryNanos, long enqueuedNanos) {
+        if (!running) {
+            return false;
+        }
+        return lanes[shortcut.getAction().ordinal()].offer(shortcut, hookEntryNanos, enqueuedNanos);
+    }
+
+    void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * @return Total number of triggers waiting across all lanes
+     */
+    int queueDepth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Adds dispatcher counters to a statistics map.
+     *
+     * @param stats Map to populate
+     */
+    void putStatistics(Map<String, Object> stats) {
+        long count = dispatched.sum();
+        stats.put("dispatchQueueDepth", queueDepth());
+        stats.put("dispatchOverflowPolicy", overflowPolicy.name());
+        stats.put("dispatched", count);
+        stats.put("dispatchDropped", dropped.sum());
+        stats.put("dispatchCoalesced", coalesced.sum());
+        stats.put("dispatchAvgWaitMicros", count == 0 ? 0L : totalWaitNanos.sum() / count / 1_000);
+        stats.put("dispatchMaxWaitMicros", maxWaitNanos.get() / 1_000);
+    }
+
+    void resetStatistics() {
+        dispatched.reset();
+        dropped.reset();
+        coalesced.reset();
+        totalWaitNanos.reset();
+        maxWaitNanos.set(0);
+    }
+
+    /**
+     * Stops all workers. Pending triggers are discarded.
+     */
+    void shutdown() {
+        running = false;
+        for (Lane lane : lanes) {
+            LockSupport.unpark(lane.worker);
+        }
+    }
+
+    private void run(Trigger trigger) {
+        long waited = System.nanoTime() - trigger.enqueuedNanos();
+        dispatched.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        try {
+            handler.accept(trigger);
+        } catch (Exception ex) {
+            LOGGER.log(Level.SEVERE, "Error dispatching shortcut", ex);
+        }
+    }
+
+    /**
+     * Bounded ring buffer drained by one worker, with a trigger's fields kept
+     * in parallel arrays.
+     * The producer may advance head itself to drop the oldest entry; both sides
+     * claim an entry by CAS on head, so a slot is only consumed once. The
+     * worker reads a slot before its CAS: a slot the producer overwrote
+     * meanwhile was dropped first, so that CAS fails and the read is retried.
+     * Triggers folded into a full lane are only counted; the worker runs the
+     * next trigger it takes once more per folded one, or the last one it ran
+     * if the lane emptied meanwhile.
+     */
+    private final class Lane {
+        private final AtomicReferenceArray<Shortcut> shortcuts;
+        private final long[] hookEntryNanos;
+        private final long[] enqueuedNanos;
+        private final int mask;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicInteger folded = new AtomicInteger();
+        private volatile boolean parked;
+        private Thread worker;
+
+        Lane(int capacity) {
+            shortcuts = new AtomicReferenceArray<>(capacity);
+            hookEntryNanos = new long[capacity];
+            enqueuedNanos = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        boolean offer(Shortcut shortcut, long hookEntry, long enqueued) {
+            long t = tail.get();
+            long h = head.get();
+            if (t - h > mask) {
+                if (overflowPolicy == OverflowPolicy.COALESCE) {
+                    // Every pending trigger runs this action; one of them runs once more
+                    folded.incrementAndGet();
+                    coalesced.increment();
+                    if (parked) {
+                        LockSupport.unpark(worker);
+                    }
+                    return false;
+                }
+                // If the CAS fails the worker just consumed the head, which also frees a slot
+                if (head.compareAndSet(h, h + 1)) {
+                    dropped.increment();
+                }
+            }
+            int slot = (int) t & mask;
+            hookEntryNanos[slot] = hookEntry;
+            enqueuedNanos[slot] = enqueued;
+            // Publishes the plain fields, as does the tail write
+            shortcuts.set(slot, shortcut);
+            tail.set(t + 1);
+
+            if (parked) {
+                LockSupport.unpark(worker);
+            }
+            return true;
+        }
+
+        Trigger poll() {
+            while (true) {
+                long h = head.get();
+                if (h >= tail.get()) {
+                    return null;
+                }
+                int slot = (int) h & mask;
+                Shortcut shortcut = shortcuts.get(slot);
+                long hookEntry = hookEntryNanos[slot];
+                long enqueued = enqueuedNanos[slot];
+                if (head.compareAndSet(h, h + 1)) {
+                    return new Trigger(shortcut, hookEntry, enqueued);
+                }
+            }
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head.get());
+        }
+
+        void drain() {
+            Trigger last = null;
+            while (running) {
+                Trigger trigger = poll();
+                if (trigger != null) {
+                    last = trigger;
+                } else if (last == null || folded.get() == 0) {
+                    parked = true;
+                    if (size() == 0 && folded.get() == 0 && running) {
+                        LockSupport.park(this);
+                    }
+                    parked = false;
+                    continue;
+                }
+                // Folding only happens while the lane is full, so last is set by then
+                int runs = (trigger != null ? 1 : 0) + folded.getAndSet(0);
+                for (int i = 0; i < runs && running; i++) {
+                    run(last);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.myhotkey.shortcututitlity;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches one file with a {@link WatchService} and reports changes after the
+ * writer has gone quiet.
+ *
+ * Editors and provisioning tools usually produce a burst of events for one
+ * save (truncate, write, rename over). The first event for the file opens a
+ * window that stays open while more events arrive within the quiet period;
+ * the callback runs once when it closes. The callback runs on the watcher
+ * thread and must check for itself whether the content really changed.
+ */
+final class ShortcutFileWatcher implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ShortcutFileWatcher.class.getName());
+
+    static final Duration DEFAULT_QUIET_PERIOD = Duration.ofMillis(250);
+
+    private final Path file;
+    private final long quietNanos;
+    private final Runnable onChange;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder bursts = new LongAdder();
+
+    /**
+     * @param file        File to watch; its directory must exist
+     * @param quietPeriod How long no event must arrive before a burst counts as done
+     * @param onChange    Runs on the watcher thread after each burst
+     */
+    ShortcutFileWatcher(Path file, Duration quietPeriod, Runnable onChange) {
+        this.file = file.toAbsolutePath();
+        this.quietNanos = quietPeriod.toNanos();
+        this.onChange = onChange;
+    }
+
+    /**
+     * Registers the directory and starts the watcher thread.
+     *
+     * @throws IOException If the directory cannot be watched
+     */
+    synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        Path directory = file.getParent();
+        watchService = directory.getFileSystem().newWatchService();
+        // Tools that replace the file by renaming produce CREATE rather than MODIFY
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(this::run, "keyflow-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Adds watcher counters to a statistics map.
+     *
+     * @param stats Map to populate
+     */
+    void putStatistics(Map<String, Object> stats) {
+        stats.put("watchEvents", events.sum());
+        stats.put("watchBursts", bursts.sum());
+    }
+
+    /**
+     * Stops the watcher thread.
+     */
+    @Override
+    public synchronized void close() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Could not close watch service", ex);
+        }
+        thread.interrupt();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (!concernsFile(watchService.take())) {
+                    continue;
+                }
+                // Collect the rest of the burst
+                WatchKey key;
+                while ((key = watchService.poll(quietNanos, TimeUnit.NANOSECONDS)) != null) {
+                    concernsFile(key);
+                }
+                bursts.increment();
+                try {
+                    onChange.run();
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Reloading " + file + " failed", ex);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // Closed
+        }
+    }
+
+    private boolean concernsFile(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context())) {
+                events.increment();
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+}
@@ -0,0 +1,361 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of shortcut mutations, replayed on top of the last full
+ * snapshot (shortcuts.json) at startup.
+ *
+ * Each record is an add, remove or update of one shortcut id, framed as
+ * length, CRC32C and payload. Appends are queued and committed by the
+ * writer thread: everything queued while the previous fsync ran goes out in
+ * one write and one fsync (group commit). Replay is keyed by id and last
+ * writer wins, so replaying records that are already folded into the
+ * snapshot is harmless. A torn or corrupt final record (a crash mid-append)
+ * ends the replay and is cut off.
+ */
+final class ShortcutJournal implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ShortcutJournal.class.getName());
+
+    private static final int MAGIC = 0x4B46_4A4C; // "KFJL"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FRAME_BYTES = 8;
+    private static final byte NO_ACTION = -1;
+
+    static final long DEFAULT_COMPACTION_THRESHOLD = 64 * 1024;
+
+    /**
+     * Kind of a journal record.
+     */
+    enum Op {
+        ADD, REMOVE, UPDATE
+    }
+
+    /**
+     * One mutation.
+     *
+     * @param op       What happened
+     * @param id       Id of the shortcut
+     * @param shortcut The new state for ADD and UPDATE, null for REMOVE
+     */
+    record Entry(Op op, long id, Shortcut shortcut) {
+    }
+
+    private final Path path;
+    private final Executor committer;
+    private final long compactionThreshold;
+    private final Runnable onOversize;
+
+    // Guarded by this
+    private List<byte[]> pending = new ArrayList<>();
+    private boolean commitScheduled;
+
+    // Writer thread only
+    private FileChannel channel;
+
+    private final LongAdder recordsAppended = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder tornRecords = new LongAdder();
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+
+    /**
+     * @param path                Journal file
+     * @param committer           Runs commits; must be single-threaded (the writer thread)
+     * @param compactionThreshold Journal size in bytes above which onOversize runs
+     * @param onOversize          Folds the journal into a new snapshot; runs on the committer
+     */
+    ShortcutJournal(Path path, Executor committer, long compactionThreshold, Runnable onOversize) {
+        this.path = path;
+        this.committer = committer;
+        this.compactionThreshold = compactionThreshold;
+        this.onOversize = onOversize;
+    }
+
+    /**
+     * Queues a record; it is durable once the next group commit completes.
+     *
+     * @param entry The mutation
+     */
+    void append(Entry entry) {
+        byte[] record = encode(entry);
+        recordsAppended.increment();
+        synchronized (this) {
+            pending.add(record);
+            if (commitScheduled) {
+                return;
+            }
+            commitScheduled = true;
+        }
+        committer.execute(this::commit);
+    }
+
+    /**
+     * Writes every queued record with one fsync. Runs on the writer thread.
+     */
+    void commit() {
+        List<byte[]> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new ArrayList<>();
+            commitScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            FileChannel ch = channel();
+            int size = 0;
+            for (byte[] record : batch) {
+                size += record.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            for (byte[] record : batch) {
+                buffer.put(record);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                ch.write(buffer);
+            }
+            ch.force(false);
+            commits.increment();
+            commitLatency.record(System.nanoTime() - started);
+
+            if (ch.size() > compactionThreshold) {
+                onOversize.run();
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Could not append to shortcut journal " + path, ex);
+        }
+    }
+
+    /**
+     * Reads all intact records. A torn or corrupt tail is cut off so that
+     * later appends follow the last good record.
+     *
+     * @return Records in append order
+     */
+    List<Entry> readAll() {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+
+        long validLength = HEADER_BYTES;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) ch.size());
+            while (buffer.hasRemaining() && ch.read(buffer) > 0) {
+                // Keep reading
+            }
+            buffer.flip();
+
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                LOGGER.warning("Ignoring shortcut journal with an unknown header: " + path);
+                writeHeader(ch);
+                return entries;
+            }
+
+            CRC32C crc = new CRC32C();
+            while (buffer.remaining() >= FRAME_BYTES) {
+                int length = buffer.getInt();
+                int expectedCrc = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+                Entry entry = decode(payload);
+                if (entry == null) {
+                    break;
+                }
+                entries.add(entry);
+                buffer.position(buffer.position() + length);
+                validLength = buffer.position();
+            }
+
+            if (validLength < ch.size()) {
+                tornRecords.increment();
+                LOGGER.warning("Dropping torn tail of shortcut journal (" + (ch.size() - validLength) + " bytes)");
+                ch.truncate(validLength);
+                ch.force(true);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not read shortcut journal " + path, ex);
+        }
+        return entries;
+    }
+
+    /**
+     * Applies records on top of a snapshot. Shortcuts in the snapshot without
+     * an id (written by hand) are kept as they are; null entries are dropped.
+     *
+     * @param snapshot The last full snapshot, in file order
+     * @param entries  Records in append order
+     * @return The resulting list; updated entries keep their position
+     */
+    static List<Shortcut> replay(List<Shortcut> snapshot, List<Entry> entries) {
+        Map<Object, Shortcut> byId = new LinkedHashMap<>();
+        for (Shortcut shortcut : snapshot) {
+            if (shortcut != null) {
+                byId.put(shortcut.getId() != null ? shortcut.getId() : new Object(), shortcut);
+            }
+        }
+        for (Entry entry : entries) {
+            if (entry.op() == Op.REMOVE) {
+                byId.remove(entry.id());
+            } else {
+                byId.put(entry.id(), entry.shortcut());
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Empties the journal after its records were folded into a snapshot.
+     * Runs on the writer thread.
+     */
+    void truncate() {
+        try {
+            FileChannel ch = channel();
+            ch.truncate(HEADER_BYTES);
+            ch.force(true);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not truncate shortcut journal " + path, ex);
+        }
+    }
+
+    /**
+     * Adds journal counters to a statistics map.
+     *
+     * @param stats Map to populate
+     */
+    void putStatistics(Map<String, Object> stats) {
+        long records = recordsAppended.sum();
+        long groups = commits.sum();
+        stats.put("journalRecords", records);
+        stats.put("journalCommits", groups);
+        stats.put("journalRecordsPerCommit", groups == 0 ? 0.0 : (double) records / groups);
+        stats.put("journalCommitLatency", commitLatency.snapshot());
+        stats.put("journalTornRecords", tornRecords.sum());
+    }
+
+    /**
+     * Closes the file. Call after the writer thread has flushed.
+     */
+    @Override
+    public void close() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Could not close shortcut journal", ex);
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (channel.size() < HEADER_BYTES) {
+                writeHeader(channel);
+            }
+        }
+        channel.position(channel.size());
+        return channel;
+    }
+
+    private static void writeHeader(FileChannel ch) throws IOException {
+        ch.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+        ch.write(header, 0);
+        ch.force(true);
+    }
+
+    private static byte[] encode(Entry entry) {
+        Shortcut shortcut = entry.shortcut();
+        byte[] keyBytes = shortcut != null && shortcut.getKeyCombo() != null
+                ? shortcut.getKeyCombo().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        byte[] layerBytes = shortcut != null && shortcut.getLayer() != null
+                ? shortcut.getLayer().getBytes(StandardCharsets.UTF_8)
+                : null;
+        int length = 1 + 8 + (shortcut != null ? 1 + 1 + 2 + keyBytes.length : 0)
+                + (layerBytes != null ? 2 + layerBytes.length : 0);
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        payload.put((byte) entry.op().ordinal()).putLong(entry.id());
+        if (shortcut != null) {
+            SystemAction action = shortcut.getAction();
+            RepeatPolicy policy = shortcut.getRepeatPolicy();
+            payload.put(action != null ? (byte) action.ordinal() : NO_ACTION)
+                    .put((byte) (policy != null ? policy.ordinal() + 1 : 0))
+                    .putShort((short) keyBytes.length)
+                    .put(keyBytes);
+            if (layerBytes != null) {
+                // Optional trailer, only for layer toggles
+                payload.putShort((short) layerBytes.length).put(layerBytes);
+            }
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload.array());
+        return ByteBuffer.allocate(FRAME_BYTES + length)
+                .putInt(length).putInt((int) crc.getValue()).put(payload.array())
+                .array();
+    }
+
+    private static Entry decode(ByteBuffer payload) {
+        try {
+            Op op = Op.values()[payload.get()];
+            long id = payload.getLong();
+            if (op == Op.REMOVE) {
+                return new Entry(op, id, null);
+            }
+            byte action = payload.get();
+            int policy = payload.get();
+            byte[] keyBytes = new byte[Short.toUnsignedInt(payload.getShort())];
+            payload.get(keyBytes);
+
+            Shortcut shortcut = new Shortcut(new String(keyBytes, StandardCharsets.UTF_8),
+                    action == NO_ACTION ? null : SystemAction.values()[action],
+                    policy == 0 ? null : RepeatPolicy.values()[policy - 1]);
+            shortcut.setId(id);
+            if (payload.hasRemaining()) {
+                byte[] layerBytes = new byte[Short.toUnsignedInt(payload.getShort())];
+                payload.get(layerBytes);
+                shortcut.setLayer(new String(layerBytes, StandardCharsets.UTF_8));
+            }
+            return new Entry(op, id, shortcut);
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The live shortcuts of the default profile: the one copy that the hotkey
+ * table, the shortcut list and the shortcuts file are kept in step with.
+ *
+ * Every shortcut has a stable id, assigned here when it has none, and can be
+ * looked up by id or by key combination. Changes are made in batches
+ * ({@link #batch()}) and each committed batch is published to the listeners
+ * as one {@link Change} holding only what was added, removed or updated, so
+ * each consumer applies a delta instead of copying or rewriting everything.
+ *
+ * Reads and commits are thread-safe. Listeners are called in registration
+ * order on the committing thread while the repository is locked, so every
+ * listener sees the changes in commit order; they should hand slow work to
+ * another thread and must not commit from inside the call. A listener that
+ * throws is logged and does not keep the change from the others.
+ */
+final class ShortcutRepository {
+
+    private static final Logger LOGGER = Logger.getLogger(ShortcutRepository.class.getName());
+
+    /** Where a change came from. */
+    enum Source {
+        /** The application itself, e.g. the shortcut list. */
+        USER,
+        /** An edit of the shortcuts file made outside the application. */
+        FILE
+    }
+
+    /**
+     * A committed batch.
+     *
+     * @param delta   What changed; updated entries keep their id
+     * @param source  Where the change came from
+     * @param version Version of the repository after the change
+     */
+    record Change(ShortcutDelta delta, Source source, long version) {
+    }
+
+    /**
+     * The shortcuts at one version, for consumers that start from a full
+     * copy and then follow changes newer than it.
+     *
+     * @param shortcuts Shortcuts in list order (unmodifiable)
+     * @param version   Repository version they belong to
+     */
+    record Snapshot(List<Shortcut> shortcuts, long version) {
+    }
+
+    // Guarded by this; byId holds the list order
+    private final Map<Long, Shortcut> byId = new LinkedHashMap<>();
+    private final Map<String, Shortcut> byCombo = new HashMap<>();
+    // Entries whose keys are already indexed for another one, in indexing order
+    private final Map<String, List<Shortcut>> shadowed = new HashMap<>();
+    private long nextId;
+    private long version;
+    private Snapshot snapshot;
+
+    private final List<Consumer<Change>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param shortcuts   Initial shortcuts, in list order
+     * @param firstFreeId Lowest id that may be handed to a new shortcut, e.g. above
+     *                    the ids in the journal; raised above the ids in the list
+     */
+    ShortcutRepository(Collection<Shortcut> shortcuts, long firstFreeId) {
+        nextId = Math.max(1, firstFreeId);
+        for (Shortcut shortcut : shortcuts) {
+            if (shortcut != null && shortcut.getId() != null) {
+                nextId = Math.max(nextId, shortcut.getId() + 1);
+            }
+        }
+        for (Shortcut shortcut : shortcuts) {
+            if (shortcut != null) {
+                insert(shortcut);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener for committed changes.
+     *
+     * @param listener Called with every non-empty change
+     */
+    void addListener(Consumer<Change> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return The current shortcuts and their version
+     */
+    synchronized Snapshot snapshot() {
+        if (snapshot == null) {
+            // Built once per version, however many readers ask
+            snapshot = new Snapshot(List.copyOf(byId.values()), version);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return The current shortcuts in list order (unmodifiable)
+     */
+    List<Shortcut> list() {
+        return snapshot().shortcuts();
+    }
+
+    synchronized Shortcut get(long id) {
+        return byId.get(id);
+    }
+
+    /**
+     * @param keyCombo Key combination or sequence, in any spelling the parser accepts
+     * @return The shortcut bound to it, or null
+     */
+    synchronized Shortcut findByCombo(String keyCombo) {
+        String key = comboKey(keyCombo);
+        return key != null ? byCombo.get(key) : null;
+    }
+
+    synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * Starts a batch of changes, applied together by {@link Batch#commit}.
+     *
+     * @return A new, empty batch
+     */
+    Batch batch() {
+        return new Batch();
+    }
+
+    /**
+     * Adds a shortcut, or changes the action of the one with the same keys.
+     *
+     * @param shortcut The new shortcut
+     * @return The change; empty if nothing changed
+     */
+    ShortcutDelta add(Shortcut shortcut) {
+        return batch().add(shortcut).commit();
+    }
+
+    /**
+     * Removes a shortcut.
+     *
+     * @param id Id of the shortcut
+     * @return The change; empty if there is no such shortcut
+     */
+    ShortcutDelta remove(long id) {
+        return batch().remove(id).commit();
+    }
+
+    /**
+     * Replaces the whole content, e.g. with the shortcuts file after an edit
+     * outside the application. Entries are matched as by
+     * {@link ShortcutDelta#between}, so unchanged ones stay as they are and
+     * only the difference is published. New entries without an id get one.
+     *
+     * @param shortcuts The new content, in list order
+     * @param source    Where it came from
+     * @return The change; empty if nothing changed
+     */
+    synchronized ShortcutDelta replaceAll(List<Shortcut> shortcuts, Source source) {
+        ShortcutDelta delta = ShortcutDelta.between(new ArrayList<>(byId.values()), shortcuts);
+        if (delta.isEmpty()) {
+            return delta;
+        }
+        for (Shortcut shortcut : delta.added()) {
+            if (shortcut.getId() != null) {
+                nextId = Math.max(nextId, shortcut.getId() + 1);
+            }
+        }
+
+        for (Map.Entry<Shortcut, Shortcut> update : delta.updated().entrySet()) {
+            replace(update.getKey(), update.getValue());
+        }
+        for (Shortcut shortcut : delta.removed()) {
+            delete(shortcut);
+        }
+        for (Shortcut shortcut : delta.added()) {
+            insert(shortcut);
+        }
+        publish(delta, source);
+        return delta;
+    }
+
+    /**
+     * Changes collected for one commit. A batch is used by one thread and
+     * committed once.
+     */
+    final class Batch {
+        private final List<Runnable> operations = new ArrayList<>();
+
+        // Filled by the operations during commit, under the repository lock
+        private final Set<Shortcut> added = Collections.newSetFromMap(new LinkedHashMap<>());
+        private final List<Shortcut> removed = new ArrayList<>();
+        private final Map<Shortcut, Shortcut> updated = new LinkedHashMap<>();
+        // Replacement made in this batch -> the committed entry it replaced
+        private final Map<Shortcut, Shortcut> replaced = new IdentityHashMap<>();
+        private boolean committed;
+
+        private Batch() {
+        }
+
+        /**
+         * Adds a shortcut. If another one has the same keys, that one keeps its
+         * id and position and takes the new action instead.
+         */
+        Batch add(Shortcut shortcut) {
+            operations.add(() -> {
+                String key = comboKey(shortcut.getKeyCombo());
+                Shortcut existing = key != null ? byCombo.get(key) : null;
+                if (existing != null) {
+                    change(existing, shortcut);
+                    return;
+                }
+                if (shortcut.getId() != null && byId.containsKey(shortcut.getId())) {
+                    // A copy of a live entry, not the entry itself
+                    shortcut.setId(null);
+                }
+                insert(shortcut);
+                added.add(shortcut);
+            });
+            return this;
+        }
+
+        Batch remove(long id) {
+            operations.add(() -> {
+                Shortcut shortcut = byId.get(id);
+                if (shortcut == null) {
+                    return;
+                }
+                delete(shortcut);
+                if (added.remove(shortcut)) {
+                    return;
+                }
+                Shortcut original = replaced.remove(shortcut);
+                if (original != null) {
+                    updated.remove(original);
+                    removed.add(original);
+                } else {
+                    removed.add(shortcut);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Replaces a shortcut by a new one with the same id and position.
+         */
+        Batch update(long id, Shortcut shortcut) {
+            operations.add(() -> {
+                Shortcut existing = byId.get(id);
+                if (existing != null) {
+                    change(existing, shortcut);
+                }
+            });
+            return this;
+        }
+
+        private void change(Shortcut existing, Shortcut shortcut) {
+            if (existing == shortcut) {
+                return;
+            }
+            replace(existing, shortcut);
+            if (added.remove(existing)) {
+                added.add(shortcut);
+                return;
+            }
+            Shortcut original = replaced.remove(existing);
+            if (original == null) {
+                original = existing;
+            }
+            replaced.put(shortcut, original);
+            updated.put(original, shortcut);
+        }
+
+        /**
+         * Applies the batch and publishes it as one change.
+         *
+         * @return The change; empty if nothing changed
+         */
+        ShortcutDelta commit() {
+            if (committed) {
+                throw new IllegalStateException("Batch already committed");
+            }
+            committed = true;
+            synchronized (ShortcutRepository.this) {
+                for (Runnable operation : operations) {
+                    operation.run();
+                }
+                ShortcutDelta delta = new ShortcutDelta(removed, new ArrayList<>(added), updated);
+                if (!delta.isEmpty()) {
+                    publish(delta, Source.USER);
+                }
+                return delta;
+            }
+        }
+    }
+
+    // The helpers below run under the repository lock
+
+    private void insert(Shortcut shortcut) {
+        if (shortcut.getId() == null || byId.containsKey(shortcut.getId())) {
+            shortcut.setId(nextId++);
+        }
+        byId.put(shortcut.getId(), shortcut);
+        index(shortcut);
+    }
+
+    private void replace(Shortcut existing, Shortcut shortcut) {
+        shortcut.setId(existing.getId());
+        byId.put(existing.getId(), shortcut);
+        String key = comboKey(existing.getKeyCombo());
+        if (key != null && key.equals(comboKey(shortcut.getKeyCombo()))) {
+            // Same keys: takes the old entry's place, indexed or not
+            if (!byCombo.replace(key, existing, shortcut)) {
+                List<Shortcut> others = shadowed.get(key);
+                others.set(others.indexOf(existing), shortcut);
+            }
+            return;
+        }
+        unindex(existing);
+        index(shortcut);
+    }
+
+    private void delete(Shortcut shortcut) {
+        byId.remove(shortcut.getId());
+        unindex(shortcut);
+    }
+
+    private void index(Shortcut shortcut) {
+        String key = comboKey(shortcut.getKeyCombo());
+        if (key != null && byCombo.putIfAbsent(key, shortcut) != null) {
+            // The first of several entries with the same keys (read from the file) is indexed
+            shadowed.computeIfAbsent(key, k -> new ArrayList<>()).add(shortcut);
+        }
+    }
+
+    private void unindex(Shortcut shortcut) {
+        String key = comboKey(shortcut.getKeyCombo());
+        if (key == null) {
+            return;
+        }
+        List<Shortcut> others = shadowed.get(key);
+        if (byCombo.remove(key, shortcut)) {
+            if (others != null) {
+                // The next entry with the same keys takes its place
+                byCombo.put(key, others.remove(0));
+            }
+        } else if (others != null) {
+            others.remove(shortcut);
+        }
+        if (others != null && others.isEmpty()) {
+            shadowed.remove(key);
+        }
+    }
+
+    private void publish(ShortcutDelta delta, Source source) {
+        version++;
+        snapshot = null;
+        Change change = new Change(delta, source, version);
+        for (Consumer<Change> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                // The change is committed; the other listeners still get it
+                LOGGER.log(Level.WARNING, "Shortcut change listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Normalizes a key combination, so "alt+ctrl+k" and "Ctrl+Alt+K" are the
+     * same key.
+     *
+     * @return The normalized combination, or null if it cannot be parsed
+     */
+    private static String comboKey(String keyCombo) {
+        if (keyCombo == null) {
+            return null;
+        }
+        int[] chords = KeyChord.parseSequence(keyCombo);
+        return chords.length > 0 ? KeyChord.formatSequence(chords) : null;
+    }
+}
@@ -0,0 +1,228 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.model.Shortcut;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind persistence of the shortcut list on a single background thread.
+ *
+ * {@link #submit} only snapshots the list and returns. The first submit of a
+ * burst schedules a write after a short delay; later submits replace the
+ * pending snapshot, so a burst of edits becomes one write of the newest list.
+ * Every write goes to a temp file that is fsynced and then atomically moved
+ * over the target, so a crash leaves either the old or the new file, never a
+ * torn one.
+ */
+final class ShortcutWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ShortcutWriter.class.getName());
+
+    static final Duration DEFAULT_DELAY = Duration.ofMillis(200);
+
+    /**
+     * Serializes a snapshot and is told when it is durable. Both run on the
+     * writer thread.
+     */
+    interface Sink {
+        byte[] serialize(List<Shortcut> shortcuts) throws IOException;
+
+        default void written(List<Shortcut> shortcuts, byte[] bytes) {
+        }
+    }
+
+    private final Path target;
+    private final Sink sink;
+    private final long delayNanos;
+    private final ScheduledExecutorService executor;
+    private final AtomicReference<List<Shortcut>> pending = new AtomicReference<>();
+
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+
+    /**
+     * @param target File to keep up to date
+     * @param sink   Serializer and post-write hook
+     * @param delay  How long a burst of submits is collected before writing
+     */
+    ShortcutWriter(Path target, Sink sink, Duration delay) {
+        this.target = target;
+        this.sink = sink;
+        this.delayNanos = delay.toNanos();
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "keyflow-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a snapshot of the list for writing. Never blocks on I/O.
+     *
+     * @param shortcuts The list to persist; copied before returning
+     */
+    void submit(List<Shortcut> shortcuts) {
+        requested.increment();
+        if (pending.getAndSet(new ArrayList<>(shortcuts)) != null) {
+            // An earlier snapshot was still waiting; it will never be written
+            coalesced.increment();
+            return;
+        }
+        try {
+            executor.schedule(this::drain, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ex) {
+            // Closed: write on the caller so the change is not lost
+            drain();
+        }
+    }
+
+    /**
+     * Runs a task on the writer thread, ordered with the writes.
+     *
+     * @param task Background work touching the same files
+     */
+    void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            LOGGER.fine("Writer closed, skipping background task");
+        }
+    }
+
+    /**
+     * Writes any pending snapshot now, on the calling thread. Meant for tasks
+     * already running on the writer thread.
+     */
+    void writePending() {
+        drain();
+    }
+
+    /**
+     * Writes any pending snapshot now and waits for it.
+     *
+     * @param timeout Longest time to wait
+     * @return true if everything submitted so far is on disk
+     */
+    boolean flush(Duration timeout) {
+        try {
+            executor.submit(this::drain).get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            drain();
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException ex) {
+            LOGGER.log(Level.WARNING, "Flushing shortcuts did not complete", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Flushes pending work and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        flush(Duration.ofSeconds(5));
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds write-behind counters to a statistics map.
+     *
+     * @param stats Map to populate
+     */
+    void putStatistics(Map<String, Object> stats) {
+        stats.put("writesRequested", requested.sum());
+        stats.put("writesCompleted", written.sum());
+        stats.put("writesCoalesced", coalesced.sum());
+        stats.put("writeFailures", failures.sum());
+        stats.put("writeLatency", writeLatency.snapshot());
+    }
+
+    private synchronized void drain() {
+        List<Shortcut> snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            byte[] bytes = sink.serialize(snapshot);
+            writeAtomically(target, bytes);
+            written.increment();
+            writeLatency.record(System.nanoTime() - started);
+            sink.written(snapshot, bytes);
+        } catch (IOException | RuntimeException ex) {
+            failures.increment();
+            LOGGER.log(Level.SEVERE, "Could not save shortcuts to " + target, ex);
+        }
+    }
+
+    /**
+     * Replaces a file so that readers and crashes only ever see the old or
+     * the new content: write a sibling temp file, fsync it, then rename it
+     * over the target.
+     *
+     * @param target File to replace
+     * @param bytes  New content
+     * @throws IOException If the content could not be made durable
+     */
+    static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    private static void syncDirectory(Path directory) {
+        // Makes the rename durable on POSIX file systems; not supported on Windows
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException ex) {
+            // Best effort
+        }
+    }
+}
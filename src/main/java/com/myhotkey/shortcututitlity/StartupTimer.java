@@ -0,0 +1,141 @@
+package com.myhotkey.shortcututitlity;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Startup milestones in milliseconds since launch.
+ *
+ * Launch is the process start, or the {@code keyflow.launchedAt} property
+ * (epoch millis) when a harness passes the moment it spawned the process.
+ * Once every expected milestone is reached, one "Startup timings" line is
+ * printed and the completion action runs. The startup harness and the CDS
+ * training launch set {@code keyflow.startup.exit} so that this action
+ * exits the application. With {@code keyflow.startup.memory} the line also
+ * holds the heap in use after a full GC and, where the OS reports it, the
+ * resident set size.
+ */
+final class StartupTimer {
+
+    static final String HOOK_REGISTERED = "hookRegistered";
+    static final String FIRST_FRAME = "firstFrame";
+    static final String HEAP_KB = "heapKb";
+    static final String RSS_KB = "rssKb";
+
+    static final String REPORT_PREFIX = "Startup timings (ms since launch):";
+
+    private static final long LAUNCHED_AT = Long.getLong("keyflow.launchedAt", ProcessHandle.current().info()
+            .startInstant().map(Instant::toEpochMilli).orElse(System.currentTimeMillis()));
+
+    // Guarded by the class; -1 marks a milestone that failed
+    private static final Map<String, Long> MARKS = new LinkedHashMap<>();
+    private static Set<String> expected = Set.of();
+    private static Runnable onComplete;
+    private static boolean reported;
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Sets the milestones that complete startup.
+     *
+     * @param milestones Milestone names
+     * @param whenDone   Runs once after the report, on the thread of the last mark; may be null
+     */
+    static void expect(Set<String> milestones, Runnable whenDone) {
+        Runnable done;
+        synchronized (StartupTimer.class) {
+            expected = milestones;
+            onComplete = whenDone;
+            done = checkComplete();
+        }
+        if (done != null) {
+            done.run();
+        }
+    }
+
+    /**
+     * Records a milestone; later marks of the same name are ignored.
+     *
+     * @param milestone Milestone name
+     */
+    static void mark(String milestone) {
+        record(milestone, System.currentTimeMillis() - LAUNCHED_AT);
+    }
+
+    /**
+     * Records that a milestone will not be reached, so startup can still complete.
+     *
+     * @param milestone Milestone name
+     */
+    static void fail(String milestone) {
+        record(milestone, -1);
+    }
+
+    /**
+     * @return Milestones reached so far, in order; -1 for failed ones
+     */
+    static synchronized Map<String, Long> marks() {
+        return new LinkedHashMap<>(MARKS);
+    }
+
+    private static void record(String milestone, long millis) {
+        Runnable done;
+        synchronized (StartupTimer.class) {
+            if (MARKS.putIfAbsent(milestone, millis) != null) {
+                return;
+            }
+            done = checkComplete();
+        }
+        if (done != null) {
+            done.run();
+        }
+    }
+
+    /**
+     * Prints the report once everything expected is in.
+     *
+     * @return The completion action to run outside the lock, or null
+     */
+    private static Runnable checkComplete() {
+        if (reported || expected.isEmpty() || !MARKS.keySet().containsAll(expected)) {
+            return null;
+        }
+        reported = true;
+        StringJoiner line = new StringJoiner(" ", REPORT_PREFIX + " ", "");
+        MARKS.forEach((name, millis) -> line.add(name + "=" + (millis < 0 ? "failed" : millis)));
+        if (Boolean.getBoolean("keyflow.startup.memory")) {
+            System.gc();
+            Runtime runtime = Runtime.getRuntime();
+            line.add(HEAP_KB + "=" + (runtime.totalMemory() - runtime.freeMemory()) / 1024);
+            long rss = residentKb();
+            if (rss >= 0) {
+                line.add(RSS_KB + "=" + rss);
+            }
+        }
+        System.out.println(line);
+        return onComplete;
+    }
+
+    /**
+     * @return Resident set size in KB, or -1 where /proc is not available
+     */
+    private static long residentKb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,66 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable point-in-time copy of the hotkey service counters.
+ *
+ * Every counter is read exactly once while the snapshot is taken, and the
+ * totals are derived from the per-action breakdowns, so
+ * {@code shortcutsTriggered} always equals the sum of {@code triggersByAction}
+ * (likewise for failures). A trigger counts once its action has run or been
+ * merged into a coalesced command; a failure is any action command that threw.
+ *
+ * @param enabled            Whether statistics were being collected
+ * @param eventsProcessed    Key events seen by the hook
+ * @param shortcutsTriggered Shortcut triggers handled
+ * @param failures           Action commands that threw
+ * @param debounceRejections Matched key events dropped by the debounce filter or as
+ *                           OS auto-repeat of a held shortcut
+ * @param lastEventTimestamp Wall-clock millis of the last key event, or 0
+ * @param triggersByAction   Triggers per action
+ * @param failuresByAction   Failures per action
+ * @param triggersByShortcut Triggers per key combination
+ */
+public record StatisticsSnapshot(
+        boolean enabled,
+        long eventsProcessed,
+        long shortcutsTriggered,
+        long failures,
+        long debounceRejections,
+        long lastEventTimestamp,
+        Map<SystemAction, Long> triggersByAction,
+        Map<SystemAction, Long> failuresByAction,
+        Map<String, Long> triggersByShortcut) {
+
+    public StatisticsSnapshot {
+        triggersByAction = Collections.unmodifiableMap(new LinkedHashMap<>(triggersByAction));
+        failuresByAction = Collections.unmodifiableMap(new LinkedHashMap<>(failuresByAction));
+        triggersByShortcut = Collections.unmodifiableMap(new LinkedHashMap<>(triggersByShortcut));
+    }
+
+    /**
+     * Converts the snapshot to the flat map format of
+     * {@link GlobalHotkeyService#getStatistics()}.
+     *
+     * @return Mutable map of statistic name to value
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("statisticsEnabled", enabled);
+        stats.put("eventsProcessed", eventsProcessed);
+        stats.put("shortcutsTriggered", shortcutsTriggered);
+        stats.put("failures", failures);
+        stats.put("debounceRejections", debounceRejections);
+        stats.put("lastEventTimestamp", lastEventTimestamp);
+        stats.put("triggersByAction", triggersByAction);
+        stats.put("failuresByAction", failuresByAction);
+        stats.put("triggersByShortcut", triggersByShortcut);
+        return stats;
+    }
+}
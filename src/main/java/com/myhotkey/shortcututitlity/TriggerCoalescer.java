@@ -0,0 +1,207 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Merges bursts of repeatable actions (volume and brightness steps) into single
+ * backend commands.
+ *
+ * The first trigger on an idle axis runs immediately, so a single press has no
+ * added latency. Triggers arriving within the merge window are summed as signed
+ * deltas (up = +1, down = -1) and issued as one command when the window closes,
+ * e.g. five VOLUME_UP presses become one "changesysvolume 10000" and an UP
+ * followed by a DOWN cancels out. The window stays open while triggers keep
+ * arriving.
+ */
+final class TriggerCoalescer {
+
+    private static final Logger LOGGER = Logger.getLogger(TriggerCoalescer.class.getName());
+
+    static final Duration DEFAULT_WINDOW = Duration.ofMillis(75);
+
+    private final Axis[] axes = new Axis[SystemAction.values().length];
+    private final ScheduledExecutorService scheduler;
+    private volatile long windowNanos;
+    private final Consumer<SystemAction> onFailure;
+
+    private final LongAdder triggers = new LongAdder();
+    private final LongAdder commandsIssued = new LongAdder();
+    private final LongAdder commandsSaved = new LongAdder();
+    private final LongAdder stepsCancelled = new LongAdder();
+
+    /**
+     * @param onFailure Notified when an issued command throws
+     */
+    TriggerCoalescer(Consumer<SystemAction> onFailure) {
+        this(DEFAULT_WINDOW, onFailure);
+    }
+
+    /**
+     * @param window    Merge window; zero or negative disables coalescing
+     * @param onFailure Notified when an issued command throws
+     */
+    TriggerCoalescer(Duration window, Consumer<SystemAction> onFailure) {
+        this.windowNanos = window.toNanos();
+        this.onFailure = onFailure;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "keyflow-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Up and down actions of the same axis share one Axis instance
+        for (SystemAction action : SystemAction.values()) {
+            if (action.getStepDirection() > 0) {
+                Axis axis = new Axis(action, action.getOpposite());
+                axes[action.ordinal()] = axis;
+                axes[action.getOpposite().ordinal()] = axis;
+            }
+        }
+    }
+
+    /**
+     * Runs or merges an action.
+     *
+     * @param action The triggered action
+     * @return true if the coalescer took the action, false if the caller should execute it
+     */
+    boolean submit(SystemAction action) {
+        Axis axis = axes[action.ordinal()];
+        if (axis == null || windowNanos <= 0) {
+            return false;
+        }
+
+        triggers.increment();
+        if (axis.windowOpen.compareAndSet(false, true)) {
+            // Leading edge: run now, then collect followers for one window
+            issue(action, 1);
+            scheduleFlush(axis);
+        } else {
+            axis.pending.getAndAdd(Axis.pack(1, action.getStepDirection()));
+        }
+        return true;
+    }
+
+    /**
+     * @param window Merge window; zero or negative disables coalescing
+     */
+    void setWindow(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    Duration getWindow() {
+        return Duration.ofNanos(windowNanos);
+    }
+
+    /**
+     * Adds coalescing counters to a statistics map.
+     *
+     * @param stats Map to populate
+     */
+    void putStatistics(Map<String, Object> stats) {
+        stats.put("coalesceWindowMillis", TimeUnit.NANOSECONDS.toMillis(windowNanos));
+        stats.put("coalescedTriggers", triggers.sum());
+        stats.put("coalescedCommandsIssued", commandsIssued.sum());
+        stats.put("coalescedCommandsSaved", commandsSaved.sum());
+        stats.put("coalescedStepsCancelled", stepsCancelled.sum());
+    }
+
+    void resetStatistics() {
+        triggers.reset();
+        commandsIssued.reset();
+        commandsSaved.reset();
+        stepsCancelled.reset();
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void flush(Axis axis) {
+        // Count and delta are taken together, so a trigger is never split between two flushes
+        long pending = axis.pending.getAndSet(0);
+        int delta = Axis.delta(pending);
+        int merged = Axis.count(pending);
+        int steps = Math.abs(delta);
+
+        if (merged > 0) {
+            commandsSaved.add(merged - (steps > 0 ? 1 : 0));
+            stepsCancelled.add(merged - steps);
+        }
+
+        if (steps > 0) {
+            issue(delta > 0 ? axis.up : axis.down, steps);
+            // Keep the window open while the burst continues
+            scheduleFlush(axis);
+            return;
+        }
+
+        axis.windowOpen.set(false);
+        // A trigger may have landed between the reads above and closing the window
+        if (axis.pending.get() != 0 && axis.windowOpen.compareAndSet(false, true)) {
+            scheduleFlush(axis);
+        }
+    }
+
+    private void scheduleFlush(Axis axis) {
+        try {
+            scheduler.schedule(() -> flush(axis), windowNanos, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException ex) {
+            // Scheduler shut down; nothing left to flush into
+            axis.windowOpen.set(false);
+        }
+    }
+
+    private void issue(SystemAction action, int steps) {
+        commandsIssued.increment();
+        try {
+            action.executeSteps(steps);
+        } catch (Exception ex) {
+            onFailure.accept(action);
+            LOGGER.log(Level.SEVERE, "Error executing coalesced " + action.name(), ex);
+        }
+    }
+
+    /**
+     * Pending state of one volume or brightness axis.
+     *
+     * The merged trigger count and the signed step delta are packed into one
+     * long as {@code count * 2^32 + delta}, so a trigger adds to both with a
+     * single atomic add and a flush takes both with a single swap.
+     */
+    private static final class Axis {
+        final SystemAction up;
+        final SystemAction down;
+        final AtomicBoolean windowOpen = new AtomicBoolean();
+        final AtomicLong pending = new AtomicLong();
+
+        Axis(SystemAction up, SystemAction down) {
+            this.up = up;
+            this.down = down;
+        }
+
+        static long pack(int count, int delta) {
+            return ((long) count << 32) + delta;
+        }
+
+        static int count(long pending) {
+            return (int) ((pending - delta(pending)) >> 32);
+        }
+
+        static int delta(long pending) {
+            return (int) pending;
+        }
+    }
+}
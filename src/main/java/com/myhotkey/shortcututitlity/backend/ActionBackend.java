@@ -0,0 +1,67 @@
+package com.myhotkey.shortcututitlity.backend;
+
+import com.myhotkey.shortcututitlity.LevelCache;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+
+/**
+ * Executes {@link SystemAction}s against the operating system (or a stand-in).
+ *
+ * Implementations are discovered with {@link java.util.ServiceLoader} and chosen
+ * by {@link ActionBackends}: either by name through the {@code keyflow.backend}
+ * system property, or the available backend with the highest priority.
+ */
+public interface ActionBackend extends AutoCloseable {
+
+    /**
+     * @return Short unique name used for selection (e.g. "nircmd")
+     */
+    String getName();
+
+    /**
+     * @return Higher values win when no backend is configured explicitly
+     */
+    default int getPriority() {
+        return 0;
+    }
+
+    /**
+     * Checks if this backend can run on the current machine.
+     * May do one-time setup work; the result should be cached.
+     *
+     * @return true if the backend is usable
+     */
+    boolean isAvailable();
+
+    /**
+     * @param action The action to check
+     * @return true if this backend can execute the action
+     */
+    default boolean supports(SystemAction action) {
+        return true;
+    }
+
+    /**
+     * Executes an action as if it had been triggered {@code steps} times.
+     * Called on a dispatcher thread; may block briefly.
+     *
+     * @param action The action to execute
+     * @param steps  Number of merged repetitions (at least 1)
+     */
+    void execute(SystemAction action, int steps);
+
+    /**
+     * Reads the current OS levels for {@link LevelCache}.
+     *
+     * @return Current levels, or {@link LevelCache.Levels#NONE} if not supported
+     */
+    default LevelCache.Levels queryLevels() {
+        return LevelCache.Levels.NONE;
+    }
+
+    /**
+     * Releases helper processes or other resources. Default: nothing to release.
+     */
+    @Override
+    default void close() {
+    }
+}
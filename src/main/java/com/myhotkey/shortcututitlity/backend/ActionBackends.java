@@ -0,0 +1,116 @@
+package com.myhotkey.shortcututitlity.backend;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.logging.Logger;
+
+/**
+ * Selects and holds the {@link ActionBackend} used by all actions.
+ *
+ * Selection order:
+ * 1. A backend set programmatically with {@link #set(ActionBackend)}
+ * 2. The backend named by the {@code keyflow.backend} system property
+ * 3. The available backend with the highest priority
+ */
+public final class ActionBackends {
+
+    private static final Logger LOGGER = Logger.getLogger(ActionBackends.class.getName());
+
+    /** System property naming the backend to use (e.g. "recording"). */
+    public static final String BACKEND_PROPERTY = "keyflow.backend";
+
+    private static volatile ActionBackend current;
+    private static List<ActionBackend> loaded;
+
+    private ActionBackends() {
+    }
+
+    /**
+     * Gets the active backend, selecting one on first use.
+     *
+     * @return The active backend (never null)
+     */
+    public static ActionBackend current() {
+        ActionBackend backend = current;
+        if (backend == null) {
+            synchronized (ActionBackends.class) {
+                backend = current;
+                if (backend == null) {
+                    backend = select();
+                    current = backend;
+                }
+            }
+        }
+        return backend;
+    }
+
+    /**
+     * Replaces the active backend (e.g. with a recording backend for benchmarks).
+     * The previous backend is not closed.
+     *
+     * @param backend The backend to use
+     */
+    public static synchronized void set(ActionBackend backend) {
+        if (backend == null) {
+            throw new IllegalArgumentException("Backend cannot be null");
+        }
+        current = backend;
+        LOGGER.info("Action backend set to: " + backend.getName());
+    }
+
+    /**
+     * @return All backends found by the service loader, highest priority first
+     */
+    public static synchronized List<ActionBackend> getInstalled() {
+        if (loaded == null) {
+            List<ActionBackend> backends = new ArrayList<>();
+            for (ActionBackend backend : ServiceLoader.load(ActionBackend.class)) {
+                backends.add(backend);
+            }
+            backends.sort(Comparator.comparingInt(ActionBackend::getPriority).reversed());
+            loaded = backends;
+        }
+        return List.copyOf(loaded);
+    }
+
+    /**
+     * Closes all loaded backends. Should be called when the application shuts down.
+     */
+    public static synchronized void shutdown() {
+        if (loaded != null) {
+            for (ActionBackend backend : loaded) {
+                backend.close();
+            }
+        }
+        if (current != null && (loaded == null || !loaded.contains(current))) {
+            current.close();
+        }
+    }
+
+    private static ActionBackend select() {
+        List<ActionBackend> installed = getInstalled();
+
+        String configured = System.getProperty(BACKEND_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            for (ActionBackend backend : installed) {
+                if (backend.getName().equalsIgnoreCase(configured.trim())) {
+                    LOGGER.info("Using configured action backend: " + backend.getName());
+                    return backend;
+                }
+            }
+            LOGGER.warning("Configured action backend not found: " + configured);
+        }
+
+        for (ActionBackend backend : installed) {
+            if (backend.isAvailable()) {
+                LOGGER.info("Using action backend: " + backend.getName());
+                return backend;
+            }
+        }
+
+        LOGGER.warning("No action backend available, recording actions only");
+        return new RecordingActionBackend();
+    }
+}
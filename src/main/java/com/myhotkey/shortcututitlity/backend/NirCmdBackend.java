@@ -0,0 +1,175 @@
+package com.myhotkey.shortcututitlity.backend;
+
+import com.myhotkey.shortcututitlity.LevelCache;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.process.HelperProcessPool;
+import com.myhotkey.shortcututitlity.process.HelperResult;
+import com.myhotkey.shortcututitlity.process.HelperShell;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Windows backend using NirCmd (fastest, most reliable, ~10ms response time).
+ * Commands are written to warm helper shells instead of launching a new
+ * process per press. NirCmd is extracted from the application resources on
+ * first use, or taken from the PATH.
+ */
+public final class NirCmdBackend implements ActionBackend {
+
+    private static final Logger LOGGER = Logger.getLogger(NirCmdBackend.class.getName());
+
+    private static final int HOST_PROCESSES = 2;
+    private static final Duration TIMEOUT = Duration.ofMillis(500);
+
+    // Cache for NirCmd availability
+    private volatile Boolean available = null;
+    private volatile String nircmdPath = null;
+    private volatile HelperProcessPool host = null;
+
+    @Override
+    public String getName() {
+        return "nircmd";
+    }
+
+    @Override
+    public int getPriority() {
+        return 100;
+    }
+
+    /**
+     * Checks if NirCmd is available on the system.
+     * Caches the result for performance.
+     *
+     * @return true if NirCmd is available
+     */
+    @Override
+    public boolean isAvailable() {
+        if (available != null) {
+            return available;
+        }
+        if (!PowerShellHost.isWindows()) {
+            available = false;
+            return false;
+        }
+
+        // 1. Define the temporary path where NirCmd will live
+        Path tempPath = Paths.get(System.getProperty("java.io.tmpdir"), "nircmd.exe");
+        nircmdPath = tempPath.toString();
+
+        // 2. If it's already there, we're good
+        if (Files.exists(tempPath)) {
+            available = true;
+            return true;
+        }
+
+        // 3. Extraction Logic: Pull from Resources to Temp Folder
+        try (InputStream is = NirCmdBackend.class.getResourceAsStream("/image/nircmd.exe")) {
+            if (is != null) {
+                Files.copy(is, tempPath, StandardCopyOption.REPLACE_EXISTING);
+                available = true;
+                LOGGER.info("NirCmd extracted successfully to: " + nircmdPath);
+                return true;
+            } else {
+                LOGGER.warning("NirCmd not found in resources at /image/nircmd.exe");
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to extract NirCmd to temporary directory", e);
+        }
+
+        // 4. Final fallback: Check if it's just in the system PATH
+        try {
+            Process process = new ProcessBuilder("nircmd.exe", "help").start();
+            if (process.waitFor(500, TimeUnit.MILLISECONDS) && process.exitValue() == 0) {
+                nircmdPath = "nircmd.exe";
+                available = true;
+                return true;
+            }
+        } catch (Exception e) {
+            /* Not in path */ }
+
+        available = false;
+        return false;
+    }
+
+    @Override
+    public void execute(SystemAction action, int steps) {
+        switch (action) {
+            case VOLUME_UP -> executeNirCmd("changesysvolume " + SystemAction.VOLUME_STEP * steps);
+            case VOLUME_DOWN -> executeNirCmd("changesysvolume -" + SystemAction.VOLUME_STEP * steps);
+            case BRIGHTNESS_UP -> executeNirCmd("changebrightness " + SystemAction.BRIGHTNESS_STEP * steps);
+            case BRIGHTNESS_DOWN -> executeNirCmd("changebrightness -" + SystemAction.BRIGHTNESS_STEP * steps);
+            default -> {
+                String command = action == SystemAction.MUTE
+                        ? "mutesysvolume 2"
+                        : String.format("sendkeypress 0x%X", action.getVirtualKeyCode());
+                for (int i = 0; i < steps; i++) {
+                    executeNirCmd(command);
+                }
+            }
+        }
+    }
+
+    @Override
+    public LevelCache.Levels queryLevels() {
+        // NirCmd cannot read levels; the PowerShell session can
+        return PowerShellHost.queryLevels();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (host != null) {
+            host.close();
+            host = null;
+        }
+        PowerShellHost.close();
+    }
+
+    /**
+     * Executes a NirCmd command through a warm helper shell, on the caller's
+     * (dispatcher) thread.
+     *
+     * @param command NirCmd command to execute
+     */
+    private void executeNirCmd(String command) {
+        String executable = nircmdPath != null ? nircmdPath : "nircmd.exe";
+        try {
+            HelperResult result = getHost().execute("\"" + executable + "\" " + command, TIMEOUT);
+            if (result.isSuccess()) {
+                LOGGER.fine("NirCmd executed successfully: " + command);
+            } else {
+                LOGGER.warning("NirCmd exited with code " + result.exitCode() + ": " + command);
+            }
+        } catch (IOException | TimeoutException e) {
+            LOGGER.log(Level.WARNING, "NirCmd execution failed", e);
+        }
+    }
+
+    /**
+     * Gets the helper pool that hosts NirCmd, creating it on first use.
+     *
+     * @return NirCmd helper pool
+     */
+    private HelperProcessPool getHost() {
+        HelperProcessPool pool = host;
+        if (pool == null) {
+            synchronized (this) {
+                pool = host;
+                if (pool == null) {
+                    pool = new HelperProcessPool("nircmd", HelperShell.CMD, HOST_PROCESSES);
+                    host = pool;
+                }
+            }
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,121 @@
+package com.myhotkey.shortcututitlity.backend;
+
+import com.myhotkey.shortcututitlity.LevelCache;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Windows backend without external tools: media keys through WScript.Shell
+ * SendKeys and brightness through WMI, both in the shared PowerShell session.
+ */
+public final class PowerShellBackend implements ActionBackend {
+
+    private static final Logger LOGGER = Logger.getLogger(PowerShellBackend.class.getName());
+
+    @Override
+    public String getName() {
+        return "powershell";
+    }
+
+    @Override
+    public int getPriority() {
+        return 50;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return PowerShellHost.isWindows();
+    }
+
+    @Override
+    public void execute(SystemAction action, int steps) {
+        switch (action) {
+            case BRIGHTNESS_UP, BRIGHTNESS_DOWN -> adjustBrightness(action.getStepDirection() > 0, steps);
+            // SendKeys can only press the key, so a merged step is pressed repeatedly
+            default -> sendKeys(action.getVirtualKeyCode(), steps);
+        }
+    }
+
+    @Override
+    public LevelCache.Levels queryLevels() {
+        return PowerShellHost.queryLevels();
+    }
+
+    @Override
+    public void close() {
+        PowerShellHost.close();
+    }
+
+    /**
+     * Sends a virtual key through WScript.Shell SendKeys in fire-and-forget mode
+     * (no waiting for completion). The session keeps the COM object cached
+     * instead of starting mshta for every press.
+     *
+     * @param virtualKeyCode Windows virtual key code
+     * @param presses        Number of times to send the key
+     */
+    private static void sendKeys(int virtualKeyCode, int presses) {
+        if (virtualKeyCode == 0) {
+            LOGGER.warning("Invalid virtual key code: 0");
+            return;
+        }
+
+        String script = String.format(
+                "if (-not $kfShell) { $kfShell = New-Object -ComObject WScript.Shell }; " +
+                        "1..%d | ForEach-Object { $kfShell.SendKeys([string][char]%d) }",
+                presses, virtualKeyCode);
+
+        // Fire and forget - don't wait for completion
+        PowerShellHost.getSession().submit(script, PowerShellHost.SCRIPT_TIMEOUT).whenComplete((result, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.SEVERE, "Failed to send key " + virtualKeyCode, error);
+            } else {
+                LOGGER.fine("SendKeys sent (fire-and-forget): " + virtualKeyCode);
+            }
+        });
+    }
+
+    /**
+     * Adjusts screen brightness through WMI. With a cached level this is a plain
+     * absolute set without reading CurrentBrightness first.
+     *
+     * @param increase true to increase brightness, false to decrease
+     * @param steps    Number of brightness steps, merged into one command
+     */
+    private static void adjustBrightness(boolean increase, int steps) {
+        // SystemAction has already applied the change to the cache
+        int target = LevelCache.getInstance().getBrightness();
+        if (target != LevelCache.UNKNOWN) {
+            PowerShellHost.executeAsync(String.format(
+                    "try { " +
+                            "(Get-WmiObject -Namespace root/WMI -Class WmiMonitorBrightnessMethods -ErrorAction Stop)" +
+                            ".WmiSetBrightness(1, %d) | Out-Null " +
+                            "} catch { " +
+                            "  Write-Error \"Failed to set brightness: $($_.Exception.Message)\" " +
+                            "}",
+                    target));
+            return;
+        }
+
+        String script = String.format(
+                "try { " +
+                        "$monitor = Get-WmiObject -Namespace root/WMI -Class WmiMonitorBrightness -ErrorAction Stop; " +
+                        "$current = $monitor.CurrentBrightness; " +
+                        "$new = $current %s %d; " +
+                        "if ($new -lt 0) { $new = 0 }; " +
+                        "if ($new -gt 100) { $new = 100 }; " +
+                        "if ($new -ne $current) { " +
+                        "  (Get-WmiObject -Namespace root/WMI -Class WmiMonitorBrightnessMethods).WmiSetBrightness(1, $new) | Out-Null "
+                        +
+                        "} " +
+                        "} catch { " +
+                        "  Write-Error \"Failed to adjust brightness: $($_.Exception.Message)\" " +
+                        "}",
+                increase ? "+" : "-",
+                SystemAction.BRIGHTNESS_STEP * steps);
+
+        PowerShellHost.executeAsync(script);
+    }
+}
@@ -0,0 +1,147 @@
+package com.myhotkey.shortcututitlity.backend;
+
+import com.myhotkey.shortcututitlity.LevelCache;
+import com.myhotkey.shortcututitlity.process.HelperResult;
+import com.myhotkey.shortcututitlity.process.HelperShell;
+import com.myhotkey.shortcututitlity.process.ScriptHostSession;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The long-lived PowerShell session shared by the Windows backends.
+ * Runs the SendKeys and WMI fallbacks and the level query for {@link LevelCache}.
+ * The session is started on first use and stopped again when idle.
+ */
+final class PowerShellHost {
+
+    private static final Logger LOGGER = Logger.getLogger(PowerShellHost.class.getName());
+
+    static final Duration SCRIPT_TIMEOUT = Duration.ofSeconds(3);
+    private static final Duration SCRIPT_IDLE_TIMEOUT = Duration.ofSeconds(60);
+
+    private static volatile ScriptHostSession session = null;
+
+    // Reads master volume/mute through Core Audio and brightness through WMI.
+    // Single line on purpose: the session reads one statement per line.
+    private static final String LEVEL_QUERY_SCRIPT =
+            "if (-not ('KfAudio' -as [type])) { Add-Type -TypeDefinition '" +
+                    "using System; using System.Runtime.InteropServices; " +
+                    "[Guid(\"5CDF2C82-841E-4546-9722-0CF74078229A\"), InterfaceType(ComInterfaceType.InterfaceIsIUnknown)] " +
+                    "interface IAudioEndpointVolume { int f(); int g(); int h(); int i(); " +
+                    "int SetMasterVolumeLevelScalar(float fLevel, Guid ctx); int j(); " +
+                    "int GetMasterVolumeLevelScalar(out float pfLevel); int k(); int l(); int m(); int n(); " +
+                    "int SetMute([MarshalAs(UnmanagedType.Bool)] bool bMute, Guid ctx); int GetMute(out bool pbMute); } " +
+                    "[Guid(\"D666063F-1587-4E43-81F1-B948E807363F\"), InterfaceType(ComInterfaceType.InterfaceIsIUnknown)] " +
+                    "interface IMMDevice { int Activate(ref Guid id, int clsCtx, int activationParams, out IAudioEndpointVolume aev); } " +
+                    "[Guid(\"A95664D2-9614-4F35-A746-DE8DB63617E6\"), InterfaceType(ComInterfaceType.InterfaceIsIUnknown)] " +
+                    "interface IMMDeviceEnumerator { int f(); int GetDefaultAudioEndpoint(int dataFlow, int role, out IMMDevice endpoint); } " +
+                    "[ComImport, Guid(\"BCDE0395-E52F-467C-8E3D-C4579291692E\")] class MMDeviceEnumeratorComObject { } " +
+                    "public class KfAudio { " +
+                    "static IAudioEndpointVolume Vol() { var e = new MMDeviceEnumeratorComObject() as IMMDeviceEnumerator; " +
+                    "IMMDevice d = null; Marshal.ThrowExceptionForHR(e.GetDefaultAudioEndpoint(0, 1, out d)); " +
+                    "IAudioEndpointVolume v = null; var id = typeof(IAudioEndpointVolume).GUID; " +
+                    "Marshal.ThrowExceptionForHR(d.Activate(ref id, 23, 0, out v)); return v; } " +
+                    "public static float Volume { get { float f = 0; Marshal.ThrowExceptionForHR(Vol().GetMasterVolumeLevelScalar(out f)); return f; } } " +
+                    "public static bool Mute { get { bool b = false; Marshal.ThrowExceptionForHR(Vol().GetMute(out b)); return b; } } " +
+                    "}' }; " +
+                    "try { 'volume=' + [KfAudio]::Volume.ToString([Globalization.CultureInfo]::InvariantCulture); " +
+                    "'mute=' + [KfAudio]::Mute } catch { }; " +
+                    "try { 'brightness=' + (Get-WmiObject -Namespace root/WMI -Class WmiMonitorBrightness " +
+                    "-ErrorAction Stop | Select-Object -First 1).CurrentBrightness } catch { }";
+
+    private PowerShellHost() {
+    }
+
+    /**
+     * Executes a PowerShell script asynchronously in the shared session.
+     *
+     * @param script PowerShell script to execute
+     */
+    static void executeAsync(String script) {
+        getSession().submit(script, SCRIPT_TIMEOUT).whenComplete((result, error) -> {
+            if (error instanceof TimeoutException) {
+                LOGGER.warning("PowerShell script timed out");
+            } else if (error != null) {
+                LOGGER.log(Level.WARNING, "PowerShell execution failed", error);
+            } else if (!result.isSuccess()) {
+                String output = result.outputText();
+                LOGGER.warning("PowerShell failed with exit code " + result.exitCode() +
+                        (output.isEmpty() ? "" : ": " + output));
+            }
+        });
+    }
+
+    /**
+     * Reads the current volume, mute and brightness levels from the OS.
+     *
+     * @return Current levels; fields that could not be read are unknown
+     */
+    static LevelCache.Levels queryLevels() {
+        try {
+            HelperResult result = getSession().run(LEVEL_QUERY_SCRIPT, SCRIPT_TIMEOUT);
+            int volume = LevelCache.UNKNOWN;
+            int muted = LevelCache.UNKNOWN;
+            int brightness = LevelCache.UNKNOWN;
+            for (String line : result.output()) {
+                String[] pair = line.trim().split("=", 2);
+                if (pair.length != 2) {
+                    continue;
+                }
+                try {
+                    switch (pair[0]) {
+                        case "volume" -> volume = Math.round(Float.parseFloat(pair[1]) * LevelCache.VOLUME_MAX);
+                        case "mute" -> muted = Boolean.parseBoolean(pair[1]) ? 1 : 0;
+                        case "brightness" -> brightness = Integer.parseInt(pair[1]);
+                        default -> {
+                        }
+                    }
+                } catch (NumberFormatException e) {
+                    LOGGER.fine("Ignoring unparsable level: " + line);
+                }
+            }
+            return new LevelCache.Levels(volume, muted, brightness);
+        } catch (IOException | TimeoutException e) {
+            LOGGER.log(Level.FINE, "Could not query system levels", e);
+            return LevelCache.Levels.NONE;
+        }
+    }
+
+    /**
+     * Gets the session, creating it on first use.
+     * The interpreter itself only starts with the first script.
+     *
+     * @return PowerShell session
+     */
+    static ScriptHostSession getSession() {
+        ScriptHostSession host = session;
+        if (host == null) {
+            synchronized (PowerShellHost.class) {
+                host = session;
+                if (host == null) {
+                    host = new ScriptHostSession("powershell", HelperShell.POWERSHELL, SCRIPT_IDLE_TIMEOUT);
+                    session = host;
+                }
+            }
+        }
+        return host;
+    }
+
+    static synchronized void close() {
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+    }
+
+    /**
+     * @return true if running on Windows
+     */
+    static boolean isWindows() {
+        String os = System.getProperty("os.name", "").toLowerCase();
+        return os.contains("windows");
+    }
+}
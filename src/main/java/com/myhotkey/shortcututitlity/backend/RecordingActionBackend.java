@@ -0,0 +1,139 @@
+package com.myhotkey.shortcututitlity.backend;
+
+import com.myhotkey.shortcututitlity.LevelCache;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Backend that performs no OS work and records every call with its timestamp.
+ * Used on non-Windows hosts and to measure the dispatch path (hook to backend)
+ * in benchmarks. Only the most recent calls are kept.
+ */
+public final class RecordingActionBackend implements ActionBackend {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * One recorded backend call.
+     *
+     * @param action    The executed action
+     * @param steps     Number of merged repetitions
+     * @param nanoTime  {@link System#nanoTime()} when the backend was entered
+     */
+    public record Call(SystemAction action, int steps, long nanoTime) {
+    }
+
+    private final int capacity;
+    private final ArrayDeque<Call> calls;
+    private volatile long simulatedLatencyNanos;
+    private volatile LevelCache.Levels levels = LevelCache.Levels.NONE;
+    private final AtomicInteger levelQueries = new AtomicInteger();
+    private long total;
+
+    public RecordingActionBackend() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Maximum number of calls kept
+     */
+    public RecordingActionBackend(int capacity) {
+        this.capacity = capacity;
+        this.calls = new ArrayDeque<>(Math.min(capacity, DEFAULT_CAPACITY));
+    }
+
+    @Override
+    public String getName() {
+        return "recording";
+    }
+
+    @Override
+    public int getPriority() {
+        // Last resort: only chosen when no real backend is available
+        return Integer.MIN_VALUE;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public void execute(SystemAction action, int steps) {
+        long now = System.nanoTime();
+        synchronized (calls) {
+            if (calls.size() == capacity) {
+                calls.removeFirst();
+            }
+            calls.addLast(new Call(action, steps, now));
+            total++;
+        }
+
+        long latency = simulatedLatencyNanos;
+        if (latency > 0) {
+            LockSupport.parkNanos(latency);
+        }
+    }
+
+    @Override
+    public LevelCache.Levels queryLevels() {
+        levelQueries.incrementAndGet();
+        return levels;
+    }
+
+    /**
+     * Sets the levels {@link #queryLevels()} reports, to imitate the OS.
+     *
+     * @param levels Levels to report
+     */
+    public void setLevels(LevelCache.Levels levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * @return Number of {@link #queryLevels()} calls since creation
+     */
+    public int getLevelQueries() {
+        return levelQueries.get();
+    }
+
+    /**
+     * Makes every call block for a fixed time, to imitate a real backend.
+     *
+     * @param latency Time each call takes; zero for none
+     */
+    public void setSimulatedLatency(Duration latency) {
+        this.simulatedLatencyNanos = latency.toNanos();
+    }
+
+    /**
+     * @return Copy of the recorded calls, oldest first
+     */
+    public List<Call> getCalls() {
+        synchronized (calls) {
+            return new ArrayList<>(calls);
+        }
+    }
+
+    /**
+     * @return Total number of calls since creation or the last {@link #clear()}
+     */
+    public long getTotalCalls() {
+        synchronized (calls) {
+            return total;
+        }
+    }
+
+    public void clear() {
+        synchronized (calls) {
+            calls.clear();
+            total = 0;
+        }
+    }
+}
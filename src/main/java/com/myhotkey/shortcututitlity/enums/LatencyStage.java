@@ -0,0 +1,46 @@
+package com.myhotkey.shortcututitlity.enums;
+
+/**
+ * Intervals of a key press on its way from the OS to the action backend.
+ * Each stage is measured between two consecutive timestamps of the pipeline.
+ */
+public enum LatencyStage {
+
+    /**
+     * OS event time ({@code NativeKeyEvent.getWhen()}) to hook callback entry.
+     * Millisecond resolution; only recorded when both clocks agree closely
+     * enough to give a plausible value.
+     */
+    OS_TO_HOOK("osToHook"),
+
+    /** Hook callback entry to chord lookup done. */
+    LOOKUP("lookup"),
+
+    /** Lookup done (enqueued) to a dispatcher worker picking the trigger up. */
+    QUEUE("queue"),
+
+    /** Dispatch start to the backend being called (coalescing, level cache). */
+    PREPARE("prepare"),
+
+    /**
+     * Backend call to backend completion. Backends that hand work to a
+     * helper asynchronously complete when the command is submitted.
+     */
+    BACKEND("backend"),
+
+    /** Hook callback entry to backend completion. */
+    END_TO_END("endToEnd");
+
+    private final String key;
+
+    LatencyStage(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return camelCase name used in statistics maps
+     */
+    public String getKey() {
+        return key;
+    }
+}
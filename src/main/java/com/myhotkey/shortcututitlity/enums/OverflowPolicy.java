@@ -0,0 +1,21 @@
+package com.myhotkey.shortcututitlity.enums;
+
+/**
+ * What the shortcut dispatcher does when an action's queue is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Discard the oldest pending trigger to make room for the new one.
+     * Keeps the queue biased towards the most recent key presses.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Fold the new trigger into the ones already pending for the same action.
+     * The trigger is not enqueued but counted, and the next pending trigger
+     * runs once more for it, so no step of a volume or brightness burst is
+     * lost; the action coalescer then merges the repeated steps.
+     */
+    COALESCE
+}
@@ -0,0 +1,26 @@
+package com.myhotkey.shortcututitlity.enums;
+
+/**
+ * How a shortcut reacts to presses that follow each other quickly,
+ * such as OS auto-repeat while the keys are held down.
+ */
+public enum RepeatPolicy {
+
+    /**
+     * Ignore a press if the previous press of the same shortcut (accepted or
+     * not) was within the debounce window. Holding the keys fires once.
+     */
+    DEBOUNCE,
+
+    /**
+     * Accept at most one press per debounce window. Holding the keys fires at
+     * a steady rate no faster than the window; volume and brightness steps
+     * use the service's hold-to-repeat timer instead, when it is enabled.
+     */
+    THROTTLE,
+
+    /**
+     * Accept every press, including all OS auto-repeat events.
+     */
+    AUTO_REPEAT
+}
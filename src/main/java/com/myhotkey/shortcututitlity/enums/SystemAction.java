@@ -2,101 +2,53 @@ package com.myhotkey.shortcututitlity.enums;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.myhotkey.shortcututitlity.LatencyMonitor;
+import com.myhotkey.shortcututitlity.LevelCache;
+import com.myhotkey.shortcututitlity.backend.ActionBackends;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
-import java.io.InputStream;
-
 /**
  * Enum representing system-level actions that can be triggered by keyboard
  * shortcuts.
  * Supports media controls (volume, playback) and display brightness
- * adjustments.
+ * adjustments, plus switching shortcut layers.
  * 
- * Execution methods (in order of preference):
- * 1. NirCmd (if available) - Fastest, most reliable
- * 2. VBS fire-and-forget - Fast, always available on Windows
- * 3. PowerShell WMI for brightness control
+ * The OS work is done by the active
+ * {@link com.myhotkey.shortcututitlity.backend.ActionBackend}, chosen by
+ * {@link ActionBackends}: NirCmd when available, otherwise SendKeys and WMI
+ * in a PowerShell session, or a recording backend where neither runs.
  */
 public enum SystemAction {
 
-    VOLUME_UP("Volume Up", 0xAF) {
-        @Override
-        public void execute() {
-            executeMediaKey(175, "changesysvolume 2000");
-        }
-    },
+    VOLUME_UP("Volume Up", 0xAF),
 
-    VOLUME_DOWN("Volume Down", 0xAE) {
-        @Override
-        public void execute() {
-            executeMediaKey(174, "changesysvolume -2000");
-        }
-    },
+    VOLUME_DOWN("Volume Down", 0xAE),
 
-    MUTE("Mute/Unmute", 0xAD) {
-        @Override
-        public void execute() {
-            executeMediaKey(173, "mutesysvolume 2");
-        }
-    },
+    MUTE("Mute/Unmute", 0xAD),
 
-    PLAY_PAUSE("Play/Pause", 0xB3) {
-        @Override
-        public void execute() {
-            executeMediaKey(179, "sendkeypress 0xB3");
-        }
-    },
+    PLAY_PAUSE("Play/Pause", 0xB3),
 
-    NEXT_TRACK("Next Track", 0xB0) {
-        @Override
-        public void execute() {
-            executeMediaKey(176, "sendkeypress 0xB0");
-        }
-    },
+    NEXT_TRACK("Next Track", 0xB0),
 
-    PREV_TRACK("Previous Track", 0xB1) {
-        @Override
-        public void execute() {
-            executeMediaKey(177, "sendkeypress 0xB1");
-        }
-    },
+    PREV_TRACK("Previous Track", 0xB1),
 
-    BRIGHTNESS_UP("Brightness Up", 0x00) {
-        @Override
-        public void execute() {
-            adjustBrightness(true);
-        }
-    },
+    BRIGHTNESS_UP("Brightness Up", 0x00),
 
-    BRIGHTNESS_DOWN("Brightness Down", 0x00) {
-        @Override
-        public void execute() {
-            adjustBrightness(false);
-        }
-    };
+    BRIGHTNESS_DOWN("Brightness Down", 0x00),
+
+    // Handled by the hotkey service itself; the shortcut names the layer
+    TOGGLE_LAYER("Toggle Layer", 0x00);
 
     private static final Logger LOGGER = Logger.getLogger(SystemAction.class.getName());
-    private static final int BRIGHTNESS_STEP = 10;
 
-    // Cache for NirCmd availability
-    private static volatile Boolean nircmdAvailable = null;
-    private static volatile String nircmdPath = null;
+    /** Brightness change per step, in percent. */
+    public static final int BRIGHTNESS_STEP = 10;
+
+    /** Volume change per step, in 0..{@link LevelCache#VOLUME_MAX} units. */
+    public static final int VOLUME_STEP = 2000;
 
     private final String displayName;
     private final int virtualKeyCode;
@@ -144,276 +96,98 @@ public enum SystemAction {
         return sb.toString();
     }
 
-    public abstract void execute();
-
-    public CompletableFuture<Boolean> executeAsync() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                execute();
-                return true;
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Error executing " + this.name() + " asynchronously", e);
-                return false;
-            }
-        });
+    public void execute() {
+        executeSteps(1);
     }
 
     /**
-     * Executes a media key action using the best available method.
-     * Priority: NirCmd (if available) > Fire-and-forget VBS
+     * Executes this action as if it had been triggered {@code steps} times in a row.
+     * Updates {@link LevelCache} optimistically, then hands a single merged
+     * command to the active backend.
      * 
-     * @param vbsKeyCode    VBS virtual key code
-     * @param nircmdCommand NirCmd command (if NirCmd is available)
+     * @param steps Number of repetitions (at least 1)
      */
-    protected static void executeMediaKey(int vbsKeyCode, String nircmdCommand) {
-        if (!isWindows()) {
-            LOGGER.warning("Media key execution is only supported on Windows");
-            return;
+    public void executeSteps(int steps) {
+        LevelCache levels = LevelCache.getInstance();
+        switch (this) {
+            case VOLUME_UP -> levels.adjustVolume(VOLUME_STEP * steps);
+            case VOLUME_DOWN -> levels.adjustVolume(-VOLUME_STEP * steps);
+            case BRIGHTNESS_UP -> levels.adjustBrightness(BRIGHTNESS_STEP * steps);
+            case BRIGHTNESS_DOWN -> levels.adjustBrightness(-BRIGHTNESS_STEP * steps);
+            case MUTE -> {
+                if ((steps & 1) == 1) {
+                    levels.toggleMute();
+                }
+            }
+            default -> {
+            }
         }
 
-        // Try NirCmd first (fastest and most reliable)
-        if (isNirCmdAvailable()) {
-            executeNirCmd(nircmdCommand);
-        } else {
-            // Fall back to VBS fire-and-forget (no waiting)
-            executeVBSFireAndForget(vbsKeyCode);
+        LatencyMonitor latency = LatencyMonitor.getInstance();
+        long started = latency.isEnabled() ? System.nanoTime() : 0;
+        ActionBackends.current().execute(this, steps);
+        if (started != 0) {
+            latency.recordBackend(this, started, System.nanoTime());
         }
     }
 
     /**
-     * Checks if NirCmd is available on the system.
-     * Caches the result for performance.
+     * Checks if repeated triggers of this action can be merged into one command
+     * (volume and brightness steps).
      * 
-     * @return true if NirCmd is available
+     * @return true if the action is a step on a volume or brightness axis
      */
-    private static boolean isNirCmdAvailable() {
-        if (nircmdAvailable != null) {
-            return nircmdAvailable;
-        }
-
-        // 1. Define the temporary path where NirCmd will live
-        Path tempPath = Paths.get(System.getProperty("java.io.tmpdir"), "nircmd.exe");
-        nircmdPath = tempPath.toString();
-
-        // 2. If it's already there, we're good
-        if (Files.exists(tempPath)) {
-            nircmdAvailable = true;
-            return true;
-        }
-
-        // 3. Extraction Logic: Pull from Resources to Temp Folder
-        // Based on your structure, the resource path is "/image/nircmd.exe"
-        try (InputStream is = SystemAction.class.getResourceAsStream("/image/nircmd.exe")) {
-            if (is != null) {
-                Files.copy(is, tempPath, StandardCopyOption.REPLACE_EXISTING);
-                nircmdAvailable = true;
-                LOGGER.info("NirCmd extracted successfully to: " + nircmdPath);
-                return true;
-            } else {
-                LOGGER.warning("NirCmd not found in resources at /image/nircmd.exe");
-            }
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Failed to extract NirCmd to temporary directory", e);
-        }
-
-        // 4. Final fallback: Check if it's just in the system PATH
-        try {
-            Process process = new ProcessBuilder("nircmd.exe", "help").start();
-            if (process.waitFor(500, TimeUnit.MILLISECONDS) && process.exitValue() == 0) {
-                nircmdPath = "nircmd.exe";
-                nircmdAvailable = true;
-                return true;
-            }
-        } catch (Exception e) {
-            /* Not in path */ }
-
-        nircmdAvailable = false;
-        return false;
+    public boolean isRepeatable() {
+        return getStepDirection() != 0;
     }
 
     /**
-     * Executes a NirCmd command (very fast, ~10ms response time).
+     * Gets the direction this action moves its axis.
      * 
-     * @param command NirCmd command to execute
+     * @return +1 for up, -1 for down, 0 for non-repeatable actions
      */
-    protected static void executeNirCmd(String command) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                String[] cmd = command.split("\\s+");
-                String[] fullCmd = new String[cmd.length + 1];
-                fullCmd[0] = nircmdPath != null ? nircmdPath : "nircmd.exe";
-                System.arraycopy(cmd, 0, fullCmd, 1, cmd.length);
-
-                Process process = new ProcessBuilder(fullCmd).start();
-                boolean completed = process.waitFor(500, TimeUnit.MILLISECONDS);
-
-                if (!completed) {
-                    process.destroyForcibly();
-                } else if (process.exitValue() == 0) {
-                    LOGGER.fine("NirCmd executed successfully: " + command);
-                }
-            } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "NirCmd execution failed", e);
-            }
-        });
-    }
-
-    /**
-     * Executes VBS in fire-and-forget mode (no waiting for completion).
-     * This eliminates timeout warnings and provides instant response.
-     * 
-     * @param virtualKeyCode Windows virtual key code
-     */
-    protected static void executeVBSFireAndForget(int virtualKeyCode) {
-        if (virtualKeyCode == 0) {
-            LOGGER.warning("Invalid virtual key code: 0");
-            return;
-        }
-
-        String command = String.format(
-                "mshta vbscript:CreateObject(\"WScript.Shell\").SendKeys(chr(%d))(window.close)",
-                virtualKeyCode);
-
-        // Fire and forget - don't wait for completion
-        CompletableFuture.runAsync(() -> {
-            try {
-                Runtime.getRuntime().exec(command);
-                LOGGER.fine("VBS command sent (fire-and-forget): " + virtualKeyCode);
-            } catch (IOException e) {
-                LOGGER.log(Level.SEVERE, "Failed to execute VBS command", e);
-            }
-        });
+    public int getStepDirection() {
+        return switch (this) {
+            case VOLUME_UP, BRIGHTNESS_UP -> 1;
+            case VOLUME_DOWN, BRIGHTNESS_DOWN -> -1;
+            default -> 0;
+        };
     }
 
     /**
-     * Adjusts screen brightness using PowerShell (Windows only).
-     * Uses WMI to control monitor brightness.
+     * Gets the action that moves the same axis in the opposite direction.
      * 
-     * @param increase true to increase brightness, false to decrease
+     * @return Opposite action, or null for non-repeatable actions
      */
-    protected static void adjustBrightness(boolean increase) {
-        if (!isWindows()) {
-            LOGGER.warning("Brightness control is only supported on Windows");
-            return;
-        }
-
-        // Check if NirCmd is available for brightness control (much faster)
-        if (isNirCmdAvailable()) {
-            String command = increase ? "changebrightness " + BRIGHTNESS_STEP : "changebrightness -" + BRIGHTNESS_STEP;
-            executeNirCmd(command);
-            return;
-        }
-
-        // Fall back to PowerShell WMI method
-        String script = String.format(
-                "try { " +
-                        "$monitor = Get-WmiObject -Namespace root/WMI -Class WmiMonitorBrightness -ErrorAction Stop; " +
-                        "$current = $monitor.CurrentBrightness; " +
-                        "$new = $current %s %d; " +
-                        "if ($new -lt 0) { $new = 0 }; " +
-                        "if ($new -gt 100) { $new = 100 }; " +
-                        "if ($new -ne $current) { " +
-                        "  (Get-WmiObject -Namespace root/WMI -Class WmiMonitorBrightnessMethods).WmiSetBrightness(1, $new) | Out-Null "
-                        +
-                        "} " +
-                        "} catch { " +
-                        "  Write-Error \"Failed to adjust brightness: $($_.Exception.Message)\" " +
-                        "}",
-                increase ? "+" : "-",
-                BRIGHTNESS_STEP);
-
-        executePowerShellAsync(script);
+    public SystemAction getOpposite() {
+        return switch (this) {
+            case VOLUME_UP -> VOLUME_DOWN;
+            case VOLUME_DOWN -> VOLUME_UP;
+            case BRIGHTNESS_UP -> BRIGHTNESS_DOWN;
+            case BRIGHTNESS_DOWN -> BRIGHTNESS_UP;
+            default -> null;
+        };
     }
 
-    /**
-     * Executes a PowerShell script asynchronously.
-     * 
-     * @param script PowerShell script to execute
-     */
-    protected static void executePowerShellAsync(String script) {
-        if (!isWindows()) {
-            LOGGER.warning("PowerShell execution is only supported on Windows");
-            return;
-        }
-
-        CompletableFuture.runAsync(() -> {
-            ProcessBuilder pb = new ProcessBuilder(
-                    "powershell.exe",
-                    "-NoProfile",
-                    "-NonInteractive",
-                    "-WindowStyle", "Hidden",
-                    "-ExecutionPolicy", "Bypass",
-                    "-Command", script);
-
-            pb.redirectErrorStream(true);
-
+    public CompletableFuture<Boolean> executeAsync() {
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                Process process = pb.start();
-                final Process finalProcess = process;
-
-                // Read output asynchronously
-                CompletableFuture<String> outputFuture = CompletableFuture
-                        .supplyAsync(() -> readProcessOutput(finalProcess));
-
-                boolean completed = process.waitFor(3, TimeUnit.SECONDS);
-
-                if (!completed) {
-                    process.destroyForcibly();
-                    LOGGER.warning("PowerShell script timed out");
-                } else {
-                    int exitCode = process.exitValue();
-                    if (exitCode != 0) {
-                        String output = outputFuture.getNow("");
-                        LOGGER.warning("PowerShell failed with exit code " + exitCode +
-                                (output.isEmpty() ? "" : ": " + output));
-                    }
-                }
+                execute();
+                return true;
             } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "PowerShell execution failed", e);
+                LOGGER.log(Level.SEVERE, "Error executing " + this.name() + " asynchronously", e);
+                return false;
             }
         });
     }
 
     /**
-     * Reads all output from a process.
-     * 
-     * @param process Process to read from
-     * @return Process output as string
-     */
-    private static String readProcessOutput(Process process) {
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (output.length() > 0) {
-                    output.append(System.lineSeparator());
-                }
-                output.append(line);
-            }
-        } catch (IOException e) {
-            LOGGER.log(Level.WARNING, "Error reading process output", e);
-        }
-        return output.toString().trim();
-    }
-
-    /**
-     * Checks if this action is supported on the current operating system.
+     * Checks if this action is supported by the active backend.
      * 
-     * @return true if the action can be executed on this OS
+     * @return true if the action can be executed
      */
     public boolean isSupported() {
-        return isWindows();
-    }
-
-    /**
-     * Checks if the current OS is Windows.
-     * 
-     * @return true if running on Windows
-     */
-    private static boolean isWindows() {
-        String os = System.getProperty("os.name", "").toLowerCase();
-        return os.contains("windows");
+        return ActionBackends.current().supports(this);
     }
 
     /**
@@ -426,6 +200,7 @@ public enum SystemAction {
             case VOLUME_UP, VOLUME_DOWN, MUTE -> "Volume Control";
             case PLAY_PAUSE, NEXT_TRACK, PREV_TRACK -> "Media Control";
             case BRIGHTNESS_UP, BRIGHTNESS_DOWN -> "Display Control";
+            case TOGGLE_LAYER -> "Layers";
         };
     }
 
@@ -444,6 +219,7 @@ public enum SystemAction {
             case PREV_TRACK -> "Returns to previous media track";
             case BRIGHTNESS_UP -> "Increases screen brightness by " + BRIGHTNESS_STEP + "%";
             case BRIGHTNESS_DOWN -> "Decreases screen brightness by " + BRIGHTNESS_STEP + "%";
+            case TOGGLE_LAYER -> "Turns a shortcut layer on or off";
         };
     }
 
@@ -451,4 +227,4 @@ public enum SystemAction {
     public String toString() {
         return displayName;
     }
-}
+}
\ No newline at end of file
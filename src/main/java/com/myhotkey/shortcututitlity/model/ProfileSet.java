@@ -0,0 +1,52 @@
+package com.myhotkey.shortcututitlity.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Named shortcut profiles and layers (profiles.json).
+ *
+ * A profile replaces the shortcuts of shortcuts.json (the "default" profile)
+ * while it is active. Layers are stacked on top of the active profile: a
+ * chord bound in a layer wins, every other chord falls through to the layers
+ * below and finally the profile. Layers are switched by TOGGLE_LAYER
+ * shortcuts.
+ */
+public class ProfileSet {
+
+    /** Name of the profile kept in shortcuts.json. */
+    public static final String DEFAULT_PROFILE = "default";
+
+    // Profile active at startup; null means the default one
+    private String activeProfile;
+    private Map<String, List<Shortcut>> profiles = new LinkedHashMap<>();
+    private Map<String, List<Shortcut>> layers = new LinkedHashMap<>();
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getActiveProfile() {
+        return activeProfile;
+    }
+
+    public void setActiveProfile(String activeProfile) {
+        this.activeProfile = activeProfile;
+    }
+
+    public Map<String, List<Shortcut>> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(Map<String, List<Shortcut>> profiles) {
+        this.profiles = profiles != null ? profiles : new LinkedHashMap<>();
+    }
+
+    public Map<String, List<Shortcut>> getLayers() {
+        return layers;
+    }
+
+    public void setLayers(Map<String, List<Shortcut>> layers) {
+        this.layers = layers != null ? layers : new LinkedHashMap<>();
+    }
+}
@@ -1,11 +1,29 @@
 package com.myhotkey.shortcututitlity.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
 import com.myhotkey.shortcututitlity.enums.SystemAction;
 
 public class Shortcut {
+
+    /**
+     * Separates the strokes of a multi-stroke sequence in the key combination,
+     * e.g. "Ctrl+K, Ctrl+M" (press Ctrl+K, release, then press Ctrl+M).
+     */
+    public static final String SEQUENCE_SEPARATOR = ",";
+
+    // Stable identity used by the mutation journal; assigned on load when missing
+    private Long id;
     private String keys;
     private SystemAction action;
 
+    // Optional; null means the service default (written to JSON only when set)
+    private RepeatPolicy repeatPolicy;
+
+    // Layer switched by a TOGGLE_LAYER shortcut; null for other actions
+    private String layer;
+
     public Shortcut() {
     }
 
@@ -14,6 +32,21 @@ public class Shortcut {
         this.action = action;
     }
 
+    public Shortcut(String keys, SystemAction action, RepeatPolicy repeatPolicy) {
+        this.keys = keys;
+        this.action = action;
+        this.repeatPolicy = repeatPolicy;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getKeyCombo() {
         return keys;
     }
@@ -22,6 +55,31 @@ public class Shortcut {
         this.keys = keys;
     }
 
+    /**
+     * Splits the key combination into its strokes.
+     *
+     * @return One key combination per stroke; a single element for plain shortcuts
+     */
+    @JsonIgnore
+    public String[] getKeySequence() {
+        if (keys == null) {
+            return new String[0];
+        }
+        String[] strokes = keys.split(SEQUENCE_SEPARATOR);
+        for (int i = 0; i < strokes.length; i++) {
+            strokes[i] = strokes[i].trim();
+        }
+        return strokes;
+    }
+
+    /**
+     * @return true if the key combination has more than one stroke
+     */
+    @JsonIgnore
+    public boolean isSequence() {
+        return keys != null && keys.contains(SEQUENCE_SEPARATOR);
+    }
+
     public SystemAction getAction() {
         return action;
     }
@@ -29,4 +87,22 @@ public class Shortcut {
     public void setAction(SystemAction action) {
         this.action = action;
     }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public RepeatPolicy getRepeatPolicy() {
+        return repeatPolicy;
+    }
+
+    public void setRepeatPolicy(RepeatPolicy repeatPolicy) {
+        this.repeatPolicy = repeatPolicy;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getLayer() {
+        return layer;
+    }
+
+    public void setLayer(String layer) {
+        this.layer = layer;
+    }
 }
@@ -0,0 +1,197 @@
+package com.myhotkey.shortcututitlity.process;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A single long-lived interpreter process that runs commands sent over stdin.
+ *
+ * Every command is framed with a unique completion marker (see
+ * {@link HelperShell#frame}), so the output and exit status of each command can
+ * be read back without starting a new process. The process is started lazily
+ * and restarted transparently if it has died between commands.
+ *
+ * Not shared between threads concurrently; {@link HelperProcessPool} hands out
+ * one process per caller.
+ */
+public final class HelperProcess implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(HelperProcess.class.getName());
+    private static final String MARKER_PREFIX = "__KEYFLOW_DONE_";
+
+    // Identity sentinel queued by the reader thread when stdout closes
+    private static final String EOF = new String("<eof>");
+
+    private final String name;
+    private final HelperShell shell;
+    private final List<String> launchCommand;
+
+    private Process process;
+    private BufferedWriter stdin;
+    private BlockingQueue<String> lines;
+    private long sequence;
+    private int startCount;
+
+    /**
+     * @param name          Name used for logging and the reader thread
+     * @param shell         Dialect used to frame commands
+     * @param launchCommand Command line that starts the interpreter
+     */
+    public HelperProcess(String name, HelperShell shell, List<String> launchCommand) {
+        this.name = name;
+        this.shell = shell;
+        this.launchCommand = List.copyOf(launchCommand);
+    }
+
+    /**
+     * Runs one command in the helper, starting or restarting it if needed.
+     *
+     * @param command Command line for the interpreter
+     * @param timeout Maximum time to wait for the completion marker
+     * @return Exit status and output of the command
+     * @throws IOException      If the helper cannot be started or dies mid-command
+     * @throws TimeoutException If the command does not finish in time; the helper is killed
+     */
+    public synchronized HelperResult execute(String command, Duration timeout)
+            throws IOException, TimeoutException {
+        ensureStarted();
+
+        String marker = MARKER_PREFIX + (++sequence);
+        String donePrefix = marker + " ";
+        lines.clear(); // Drop stray output left over from earlier commands
+
+        try {
+            stdin.write(shell.frame(command, marker));
+            stdin.newLine();
+            stdin.flush();
+        } catch (IOException e) {
+            destroy();
+            throw e;
+        }
+
+        List<String> output = new ArrayList<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    destroy();
+                    throw new TimeoutException(name + " did not finish within " + timeout.toMillis() + " ms");
+                }
+
+                String line = lines.poll(remaining, TimeUnit.NANOSECONDS);
+                if (line == null) {
+                    continue;
+                }
+                if (line == EOF) {
+                    destroy();
+                    throw new IOException(name + " exited while running a command");
+                }
+
+                String trimmed = line.trim();
+                if (trimmed.startsWith(donePrefix)) {
+                    return new HelperResult(parseExitCode(trimmed.substring(donePrefix.length())), output);
+                }
+                output.add(line);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            destroy();
+            throw new IOException(name + " interrupted while waiting for a command", e);
+        }
+    }
+
+    /**
+     * Starts the helper if it is not already running.
+     *
+     * @throws IOException If the process cannot be started
+     */
+    public synchronized void ensureStarted() throws IOException {
+        if (process != null && process.isAlive()) {
+            return;
+        }
+        if (process != null) {
+            LOGGER.warning(name + " helper died (exit " + process.exitValue() + "), restarting");
+            destroy();
+        }
+
+        ProcessBuilder pb = new ProcessBuilder(launchCommand);
+        pb.redirectErrorStream(true);
+        Process started = pb.start();
+
+        BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+        Thread.ofVirtual().name(name + "-reader").start(() -> pump(started, queue));
+
+        process = started;
+        stdin = new BufferedWriter(new OutputStreamWriter(started.getOutputStream(), StandardCharsets.UTF_8));
+        lines = queue;
+        startCount++;
+        LOGGER.fine(name + " helper started (pid " + started.pid() + ")");
+    }
+
+    public synchronized boolean isAlive() {
+        return process != null && process.isAlive();
+    }
+
+    /**
+     * @return How many times the interpreter has been started, including restarts
+     */
+    public synchronized int getStartCount() {
+        return startCount;
+    }
+
+    @Override
+    public synchronized void close() {
+        destroy();
+    }
+
+    private void destroy() {
+        if (process == null) {
+            return;
+        }
+        try {
+            stdin.close();
+        } catch (IOException e) {
+            // Already broken; the process is killed below anyway
+        }
+        process.destroyForcibly();
+        process = null;
+        stdin = null;
+        lines = null;
+    }
+
+    private static void pump(Process source, BlockingQueue<String> sink) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sink.offer(line);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Helper output stream closed", e);
+        } finally {
+            sink.offer(EOF);
+        }
+    }
+
+    private static int parseExitCode(String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.myhotkey.shortcututitlity.process;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Small pool of {@link HelperProcess} instances for commands that overlap.
+ *
+ * Helpers are started on first use and kept warm afterwards, so a burst of
+ * commands costs one process start instead of one per command. At most
+ * {@code maxProcesses} commands run at the same time; further callers wait
+ * for a helper to become free.
+ */
+public final class HelperProcessPool implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(HelperProcessPool.class.getName());
+
+    private final String name;
+    private final HelperShell shell;
+    private final List<String> launchCommand;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<HelperProcess> idle = new ConcurrentLinkedDeque<>();
+    private final List<HelperProcess> all = new ArrayList<>();
+    private final AtomicLong commands = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param name         Name used for logging and helper threads
+     * @param shell        Interpreter dialect, started with its default launch command
+     * @param maxProcesses Maximum number of helpers running commands concurrently
+     */
+    public HelperProcessPool(String name, HelperShell shell, int maxProcesses) {
+        this(name, shell, shell.getLaunchCommand(), maxProcesses);
+    }
+
+    /**
+     * @param name          Name used for logging and helper threads
+     * @param shell         Interpreter dialect used to frame commands
+     * @param launchCommand Command line that starts one helper (e.g. a stand-in script)
+     * @param maxProcesses  Maximum number of helpers running commands concurrently
+     */
+    public HelperProcessPool(String name, HelperShell shell, List<String> launchCommand, int maxProcesses) {
+        if (maxProcesses < 1) {
+            throw new IllegalArgumentException("maxProcesses must be at least 1");
+        }
+        this.name = name;
+        this.shell = shell;
+        this.launchCommand = List.copyOf(launchCommand);
+        this.permits = new Semaphore(maxProcesses, true);
+    }
+
+    /**
+     * Runs a command on a free helper, starting one if none is idle.
+     *
+     * @param command Command line for the interpreter
+     * @param timeout Maximum time to wait for a free helper and for the command itself
+     * @return Exit status and output of the command
+     * @throws IOException      If the helper cannot be started, crashes, or the pool is closed
+     * @throws TimeoutException If no helper became free or the command did not finish in time
+     */
+    public HelperResult execute(String command, Duration timeout) throws IOException, TimeoutException {
+        if (closed) {
+            throw new IOException(name + " pool is closed");
+        }
+
+        try {
+            if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException("No free " + name + " helper within " + timeout.toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a " + name + " helper", e);
+        }
+
+        HelperProcess helper = idle.pollFirst();
+        try {
+            if (helper == null) {
+                helper = newHelper();
+            }
+            commands.incrementAndGet();
+            return helper.execute(command, timeout);
+        } finally {
+            // Crashed or timed-out helpers were destroyed and will restart on next use
+            if (helper != null) {
+                idle.offerFirst(helper);
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Starts one helper ahead of time so the first command does not pay for it.
+     *
+     * @throws IOException If the helper cannot be started
+     */
+    public void warmUp() throws IOException {
+        HelperProcess helper = idle.pollFirst();
+        if (helper == null) {
+            helper = newHelper();
+        }
+        try {
+            helper.ensureStarted();
+        } finally {
+            idle.offerFirst(helper);
+        }
+    }
+
+    /**
+     * @return Total helper starts minus the number of helpers, i.e. crash/timeout restarts
+     */
+    public long getRestartCount() {
+        synchronized (all) {
+            long starts = 0;
+            long started = 0;
+            for (HelperProcess helper : all) {
+                int count = helper.getStartCount();
+                starts += count;
+                if (count > 0) {
+                    started++;
+                }
+            }
+            return starts - started;
+        }
+    }
+
+    public long getCommandCount() {
+        return commands.get();
+    }
+
+    public int getProcessCount() {
+        synchronized (all) {
+            return all.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (all) {
+            for (HelperProcess helper : all) {
+                helper.close();
+            }
+            all.clear();
+        }
+        idle.clear();
+        LOGGER.fine(name + " pool closed");
+    }
+
+    private HelperProcess newHelper() {
+        synchronized (all) {
+            HelperProcess helper = new HelperProcess(name + "-" + all.size(), shell, launchCommand);
+            all.add(helper);
+            return helper;
+        }
+    }
+}
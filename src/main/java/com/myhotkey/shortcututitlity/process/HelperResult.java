@@ -0,0 +1,23 @@
+package com.myhotkey.shortcututitlity.process;
+
+import java.util.List;
+
+/**
+ * Outcome of one command run by a helper process.
+ *
+ * @param exitCode Exit status reported by the interpreter
+ * @param output   Lines the command wrote to stdout/stderr
+ */
+public record HelperResult(int exitCode, List<String> output) {
+
+    public boolean isSuccess() {
+        return exitCode == 0;
+    }
+
+    /**
+     * @return Output lines joined with the platform line separator
+     */
+    public String outputText() {
+        return String.join(System.lineSeparator(), output);
+    }
+}
@@ -0,0 +1,64 @@
+package com.myhotkey.shortcututitlity.process;
+
+import java.util.List;
+
+/**
+ * Command interpreters that can host a long-lived helper session.
+ * Each dialect knows how to start the interpreter reading commands from stdin
+ * and how to frame a command so its completion and exit status are reported
+ * on stdout as a single marker line.
+ */
+public enum HelperShell {
+
+    /** Windows command processor; used to host NirCmd. */
+    CMD(List.of("cmd.exe", "/Q", "/D", "/K")) {
+        @Override
+        public String frame(String command, String marker) {
+            // "if errorlevel" is evaluated at run time, unlike %errorlevel%
+            return command + " & if errorlevel 1 (echo " + marker + " 1) else (echo " + marker + " 0)";
+        }
+    },
+
+    /**
+     * Windows PowerShell reading commands from stdin; hosts the WMI brightness and
+     * SendKeys fallbacks. Scripts are dot-sourced so session state (e.g. cached COM
+     * objects) survives between requests.
+     */
+    POWERSHELL(List.of("powershell.exe", "-NoLogo", "-NoProfile", "-NonInteractive",
+            "-ExecutionPolicy", "Bypass", "-Command", "-")) {
+        @Override
+        public String frame(String command, String marker) {
+            return ". { " + command + " } ; if ($?) { '" + marker + " 0' } else { '" + marker + " 1' }";
+        }
+    },
+
+    /** POSIX shell; used on Linux hosts and for stand-in helpers in benchmarks. */
+    POSIX(List.of("/bin/sh", "-s")) {
+        @Override
+        public String frame(String command, String marker) {
+            return command + "; echo \"" + marker + " $?\"";
+        }
+    };
+
+    private final List<String> launchCommand;
+
+    HelperShell(List<String> launchCommand) {
+        this.launchCommand = launchCommand;
+    }
+
+    /**
+     * @return Command line that starts the interpreter in stdin mode
+     */
+    public List<String> getLaunchCommand() {
+        return launchCommand;
+    }
+
+    /**
+     * Wraps a command so the interpreter prints "{marker} {exitCode}" when it finishes.
+     *
+     * @param command Command to run
+     * @param marker  Unique completion marker
+     * @return Single line to write to the interpreter's stdin
+     */
+    public abstract String frame(String command, String marker);
+}
@@ -0,0 +1,162 @@
+package com.myhotkey.shortcututitlity.process;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+/**
+ * A lazily started, self-stopping script interpreter session (e.g. PowerShell).
+ *
+ * Scripts are queued on a single session thread and sent to one long-lived
+ * {@link HelperProcess}, so callers never pay the interpreter's start-up cost
+ * after the first request. Each request has its own timeout; a request that
+ * times out kills the interpreter and the next one starts a fresh session.
+ * The interpreter is stopped after it has been idle for {@code idleTimeout}.
+ */
+public final class ScriptHostSession implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ScriptHostSession.class.getName());
+
+    private final String name;
+    private final HelperProcess process;
+    private final Duration idleTimeout;
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Only touched on the session thread
+    private long lastUsedNanos;
+    private ScheduledFuture<?> idleCheck;
+
+    /**
+     * @param name        Name used for logging and the session thread
+     * @param shell       Interpreter dialect, started with its default launch command
+     * @param idleTimeout How long the interpreter may sit unused before it is stopped
+     */
+    public ScriptHostSession(String name, HelperShell shell, Duration idleTimeout) {
+        this(name, shell, shell.getLaunchCommand(), idleTimeout);
+    }
+
+    /**
+     * @param name          Name used for logging and the session thread
+     * @param shell         Interpreter dialect used to frame scripts
+     * @param launchCommand Command line that starts the interpreter (e.g. a stand-in shell)
+     * @param idleTimeout   How long the interpreter may sit unused before it is stopped
+     */
+    public ScriptHostSession(String name, HelperShell shell, List<String> launchCommand, Duration idleTimeout) {
+        this.name = name;
+        this.process = new HelperProcess(name, shell, launchCommand);
+        this.idleTimeout = idleTimeout;
+        this.executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "keyflow-" + name + "-session");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Queues a script and returns immediately.
+     *
+     * @param script  Script to run in the session
+     * @param timeout Maximum run time of this request, measured once it starts
+     * @return Future completed with the result, or exceptionally with
+     *         {@link IOException} / {@link TimeoutException}
+     */
+    public CompletableFuture<HelperResult> submit(String script, Duration timeout) {
+        CompletableFuture<HelperResult> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(runOnSessionThread(script, timeout));
+                } catch (IOException | TimeoutException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(new IOException(name + " session is closed", e));
+        }
+        return future;
+    }
+
+    /**
+     * Runs a script and waits for its result.
+     *
+     * @param script  Script to run in the session
+     * @param timeout Maximum run time of this request, measured once it starts
+     * @return Exit status and output of the script
+     * @throws IOException      If the interpreter cannot be started or dies
+     * @throws TimeoutException If the script does not finish in time
+     */
+    public HelperResult run(String script, Duration timeout) throws IOException, TimeoutException {
+        try {
+            return submit(script, timeout).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + name, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof TimeoutException te) {
+                throw te;
+            }
+            throw new IOException(name + " request failed", cause);
+        }
+    }
+
+    /**
+     * @return true if the interpreter process is currently running
+     */
+    public boolean isRunning() {
+        return process.isAlive();
+    }
+
+    /**
+     * @return How many times the interpreter has been started
+     */
+    public int getStartCount() {
+        return process.getStartCount();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        process.close();
+    }
+
+    private HelperResult runOnSessionThread(String script, Duration timeout)
+            throws IOException, TimeoutException {
+        try {
+            return process.execute(script, timeout);
+        } finally {
+            lastUsedNanos = System.nanoTime();
+            scheduleIdleCheck(idleTimeout.toNanos());
+        }
+    }
+
+    private void scheduleIdleCheck(long delayNanos) {
+        if (idleCheck != null) {
+            idleCheck.cancel(false);
+        }
+        idleCheck = executor.schedule(this::stopIfIdle, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void stopIfIdle() {
+        long idleFor = System.nanoTime() - lastUsedNanos;
+        if (idleFor < idleTimeout.toNanos()) {
+            scheduleIdleCheck(idleTimeout.toNanos() - idleFor);
+            return;
+        }
+        if (process.isAlive()) {
+            LOGGER.fine(name + " session idle for " + idleTimeout.toSeconds() + " s, stopping");
+            process.close();
+        }
+    }
+}
@@ -14,4 +14,11 @@ module com.myhotkey.shortcututitlity {
 
     exports com.myhotkey.shortcututitlity;
     exports com.myhotkey.shortcututitlity.model;
+    exports com.myhotkey.shortcututitlity.backend;
+
+    uses com.myhotkey.shortcututitlity.backend.ActionBackend;
+    provides com.myhotkey.shortcututitlity.backend.ActionBackend with
+            com.myhotkey.shortcututitlity.backend.NirCmdBackend,
+            com.myhotkey.shortcututitlity.backend.PowerShellBackend,
+            com.myhotkey.shortcututitlity.backend.RecordingActionBackend;
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.myhotkey.shortcututitlity;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a repeater the way the hook thread does, with the OS auto-repeat
+ * of the held chord played by the test.
+ */
+class HoldRepeaterTest {
+
+    private static final RepeatCurve CURVE = new RepeatCurve(
+            Duration.ofMillis(20), Duration.ofMillis(40), Duration.ofMillis(10), 0.5, 3);
+    private static final Duration REPEAT_TIMEOUT = Duration.ofMillis(200);
+
+    private final Shortcut shortcut = new Shortcut("Ctrl+Alt+Up", SystemAction.VOLUME_UP);
+    private final int chord = KeyChord.parse("Ctrl+Alt+Up");
+    private final List<Integer> steps = new CopyOnWriteArrayList<>();
+    private final HoldRepeater repeater = new HoldRepeater((held, n) -> {
+        assertSame(shortcut, held);
+        steps.add(n);
+    }, REPEAT_TIMEOUT);
+
+    HoldRepeaterTest() {
+        repeater.setCurve(CURVE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repeater.shutdown();
+    }
+
+    @Test
+    void intervalShrinksThenStepsGrow() {
+        repeater.start(shortcut, chord);
+        autoRepeatUntil(() -> steps.size() >= 6);
+
+        // 40 -> 20 -> 10 ms at one step, then the steps grow to the maximum
+        assertEquals(List.of(1, 1, 1, 2, 3, 3), List.copyOf(steps).subList(0, 6));
+    }
+
+    @Test
+    void releaseOfHeldKeyOrModifierEndsHold() throws InterruptedException {
+        repeater.start(shortcut, chord);
+        repeater.release(NativeKeyEvent.VC_DOWN, false);
+        assertTrue(repeater.isHolding(chord));
+        assertFalse(repeater.isHolding(KeyChord.parse("Ctrl+Alt+Down")));
+
+        repeater.release(NativeKeyEvent.VC_UP, false);
+        assertStopped();
+
+        repeater.start(shortcut, chord);
+        repeater.release(NativeKeyEvent.VC_CONTROL, true);
+        assertStopped();
+    }
+
+    @Test
+    void cancelEndsHold() throws InterruptedException {
+        repeater.start(shortcut, chord);
+        autoRepeatUntil(() -> !steps.isEmpty());
+
+        repeater.cancel();
+        assertStopped();
+    }
+
+    @Test
+    void holdWithoutAutoRepeatEndsByItself() throws InterruptedException {
+        // Key-down, then nothing: the key-up went to a secure desktop
+        repeater.start(shortcut, chord);
+        // Polling isHolding would count as auto-repeat
+        Thread.sleep(REPEAT_TIMEOUT.toMillis() + CURVE.interval().toMillis() * 3);
+
+        int ticks = steps.size();
+        assertTrue(ticks > 0);
+        // At the shortest interval, no more ticks than fit in the timeout
+        assertTrue(ticks <= REPEAT_TIMEOUT.toMillis() / CURVE.minInterval().toMillis() + 1, "ticks: " + ticks);
+        assertStopped();
+    }
+
+    @Test
+    void autoRepeatKeepsHoldAlivePastTimeout() {
+        repeater.start(shortcut, chord);
+        long until = System.nanoTime() + REPEAT_TIMEOUT.toNanos() * 3;
+
+        autoRepeatUntil(() -> System.nanoTime() > until);
+        assertTrue(repeater.isHolding(chord));
+    }
+
+    @Test
+    void disabledCurveStartsNothing() throws InterruptedException {
+        repeater.setCurve(null);
+        repeater.start(shortcut, chord);
+
+        assertStopped();
+    }
+
+    private void assertStopped() throws InterruptedException {
+        assertFalse(repeater.isHolding(chord));
+        int ticks = steps.size();
+        Thread.sleep(CURVE.initialDelay().toMillis() + CURVE.interval().toMillis() * 2);
+        assertEquals(ticks, steps.size());
+    }
+
+    // Keyboards auto-repeat about every 30 ms
+    private void autoRepeatUntil(BooleanSupplier condition) {
+        await(() -> {
+            assertTrue(repeater.isHolding(chord));
+            return condition.getAsBoolean();
+        });
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.myhotkey.shortcututitlity;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Supervises a service whose native hook is simulated.
+ */
+class HookSupervisorTest {
+
+    private static final Duration HEARTBEAT = Duration.ofMillis(50);
+
+    private final FakeHookService service = new FakeHookService();
+    private final AtomicInteger readyCalls = new AtomicInteger();
+    private final AtomicInteger firstFailureCalls = new AtomicInteger();
+    private HookSupervisor supervisor;
+
+    @AfterEach
+    void tearDown() {
+        supervisor.close();
+        service.close();
+    }
+
+    @Test
+    void retriesWithBackoffUntilRegistered() {
+        service.failuresLeft.set(2);
+        CountDownLatch ready = start();
+
+        await(() -> ready.getCount() == 0, 10);
+        assertEquals(1, readyCalls.get());
+        assertEquals(1, firstFailureCalls.get());
+        assertEquals(3, service.starts.get());
+        Map<String, Object> stats = statistics();
+        assertEquals(3L, stats.get("hookRegistrationAttempts"));
+        assertEquals(2L, stats.get("hookRegistrationFailures"));
+        // Two backoffs: 500 ms, then 1 s
+        assertTrue((long) stats.get("hookTimeToReadyMillis") >= 1_500, stats.toString());
+    }
+
+    @Test
+    void idleHookIsLeftAlone() throws InterruptedException {
+        // A frozen wall clock, so a slow machine does not look like a resume
+        supervisor = new HookSupervisor(service, HEARTBEAT, () -> 0L);
+        supervisor.start(readyCalls::incrementAndGet, null);
+        await(() -> readyCalls.get() == 1, 5);
+
+        // Many beats with no key events: nothing is posted and nothing re-registered
+        Thread.sleep(HEARTBEAT.toMillis() * 10);
+        assertEquals(0, service.reregistrations.get());
+        assertEquals(0L, statistics().get("hookReregistrations"));
+    }
+
+    @Test
+    void sessionChangeRegistersAgain() {
+        supervisor = new HookSupervisor(service, HEARTBEAT);
+        // Ignored before the hook is first registered
+        supervisor.sessionChanged("the session was unlocked");
+        supervisor.start(readyCalls::incrementAndGet, firstFailureCalls::incrementAndGet);
+        await(() -> readyCalls.get() == 1, 5);
+        assertEquals(0, service.reregistrations.get());
+
+        supervisor.sessionChanged("the session was unlocked");
+        await(() -> service.reregistrations.get() == 1, 5);
+        assertEquals(1L, statistics().get("hookSessionChanges"));
+    }
+
+    @Test
+    void suspendedSystemRegistersAgain() throws InterruptedException {
+        AtomicLong wallClock = new AtomicLong();
+        supervisor = new HookSupervisor(service, HEARTBEAT, wallClock::get);
+        supervisor.start(readyCalls::incrementAndGet, null);
+        await(() -> readyCalls.get() == 1, 5);
+
+        // Beats on time: the wall clock moves with them
+        for (int i = 0; i < 30; i++) {
+            wallClock.addAndGet(10);
+            Thread.sleep(10);
+        }
+        assertEquals(0, service.reregistrations.get());
+
+        // The machine slept for an hour between two beats
+        wallClock.addAndGet(3_600_000);
+        await(() -> service.reregistrations.get() == 1, 5);
+    }
+
+    @Test
+    void droppedHookRegistersAgain() {
+        start();
+        await(() -> readyCalls.get() == 1, 5);
+
+        service.registered = false;
+        await(() -> service.reregistrations.get() > 0, 5);
+        assertTrue((long) statistics().get("hookReregistrations") >= 1);
+    }
+
+    private CountDownLatch start() {
+        CountDownLatch ready = new CountDownLatch(1);
+        supervisor = new HookSupervisor(service, HEARTBEAT);
+        supervisor.start(() -> {
+            readyCalls.incrementAndGet();
+            ready.countDown();
+        }, firstFailureCalls::incrementAndGet);
+        return ready;
+    }
+
+    private Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        supervisor.putStatistics(stats);
+        return stats;
+    }
+
+    private static void await(BooleanSupplier condition, long seconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * A service whose hook registration is simulated.
+     */
+    private static final class FakeHookService extends GlobalHotkeyService {
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        final AtomicInteger starts = new AtomicInteger();
+        final AtomicInteger reregistrations = new AtomicInteger();
+        volatile boolean registered;
+
+        @Override
+        public boolean startHook() {
+            starts.incrementAndGet();
+            registered = failuresLeft.getAndDecrement() <= 0;
+            return registered;
+        }
+
+        @Override
+        boolean reregisterHook() {
+            reregistrations.incrementAndGet();
+            registered = true;
+            return true;
+        }
+
+        @Override
+        boolean isNativeHookRegistered() {
+            return registered;
+        }
+    }
+}
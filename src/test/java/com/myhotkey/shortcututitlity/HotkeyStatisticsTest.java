@@ -0,0 +1,93 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotkeyStatisticsTest {
+
+    private final HotkeyStatistics statistics = new HotkeyStatistics();
+
+    @BeforeEach
+    void setUp() {
+        statistics.setEnabled(true);
+    }
+
+    @Test
+    void countsReloadedCopiesOnOneEntry() {
+        Shortcut loaded = withId(7, "Ctrl+Alt+K", SystemAction.MUTE);
+        Shortcut reloaded = withId(7, "ctrl+alt+k", SystemAction.MUTE);
+
+        statistics.recordTrigger(SystemAction.MUTE, loaded);
+        statistics.recordTrigger(SystemAction.MUTE, reloaded);
+        statistics.recordTrigger(SystemAction.MUTE, reloaded);
+
+        assertEquals(Map.of("Ctrl+Alt+K", 3L), byShortcut());
+        assertEquals(3, statistics.snapshot().shortcutsTriggered());
+    }
+
+    @Test
+    void mergesSpellingsOfEntriesWithoutId() {
+        statistics.recordTrigger(SystemAction.PLAY_PAUSE, new Shortcut("Alt+Ctrl+P", SystemAction.PLAY_PAUSE));
+        statistics.recordTrigger(SystemAction.PLAY_PAUSE, new Shortcut("Ctrl+Alt+P", SystemAction.PLAY_PAUSE));
+
+        assertEquals(Map.of("Ctrl+Alt+P", 2L), byShortcut());
+    }
+
+    @Test
+    void dropsRemovedShortcuts() {
+        Shortcut kept = withId(1, "Ctrl+Alt+1", SystemAction.MUTE);
+        Shortcut removed = withId(2, "Ctrl+Alt+2", SystemAction.MUTE);
+        Shortcut layerEntry = new Shortcut("Ctrl+Alt+3", SystemAction.MUTE);
+        statistics.recordTrigger(SystemAction.MUTE, kept);
+        statistics.recordTrigger(SystemAction.MUTE, removed);
+        statistics.recordTrigger(SystemAction.MUTE, layerEntry);
+
+        statistics.forget(List.of(removed, layerEntry));
+
+        assertEquals(Map.of("Ctrl+Alt+1", 1L), byShortcut());
+    }
+
+    @Test
+    void dropsCountsOfRebindingToOtherKeys() {
+        Shortcut before = withId(3, "Ctrl+Alt+A", SystemAction.MUTE);
+        statistics.recordTrigger(SystemAction.MUTE, before);
+
+        statistics.rebind(before, withId(3, "ctrl+alt+a", SystemAction.PLAY_PAUSE));
+        assertEquals(Map.of("Ctrl+Alt+A", 1L), byShortcut());
+
+        Shortcut moved = withId(3, "Ctrl+Alt+B", SystemAction.PLAY_PAUSE);
+        statistics.rebind(before, moved);
+        statistics.recordTrigger(SystemAction.PLAY_PAUSE, moved);
+        assertEquals(Map.of("Ctrl+Alt+B", 1L), byShortcut());
+    }
+
+    @Test
+    void countsNothingWhileDisabled() {
+        statistics.setEnabled(false);
+        statistics.recordEvent();
+        statistics.recordTrigger(SystemAction.MUTE, withId(1, "Ctrl+M", SystemAction.MUTE));
+
+        StatisticsSnapshot snapshot = statistics.snapshot();
+        assertEquals(0, snapshot.eventsProcessed());
+        assertEquals(0, snapshot.shortcutsTriggered());
+        assertTrue(snapshot.triggersByShortcut().isEmpty());
+    }
+
+    private Map<String, Long> byShortcut() {
+        return statistics.snapshot().triggersByShortcut();
+    }
+
+    private static Shortcut withId(long id, String keys, SystemAction action) {
+        Shortcut shortcut = new Shortcut(keys, action);
+        shortcut.setId(id);
+        return shortcut;
+    }
+}
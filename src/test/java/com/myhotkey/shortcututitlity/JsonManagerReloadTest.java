@@ -0,0 +1,145 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Edits shortcuts.json behind the back of an attached manager, as a
+ * provisioning tool would.
+ */
+class JsonManagerReloadTest {
+
+    @TempDir
+    Path dir;
+
+    private Path json;
+    private JsonManager manager;
+    private ShortcutRepository repository;
+    private final List<ShortcutRepository.Change> fileChanges = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        json = dir.resolve("shortcuts.json");
+        try (JsonManager first = new JsonManager(json.toString(), false)) {
+            first.saveShortcuts(List.of(shortcut(1, "Ctrl+Alt+1", SystemAction.VOLUME_UP),
+                    shortcut(2, "Ctrl+Alt+2", SystemAction.MUTE)));
+        }
+        manager = new JsonManager(json.toString(), false);
+        repository = new ShortcutRepository(manager.loadShortcuts(), manager.nextFreeId());
+        repository.addListener(change -> {
+            if (change.source() == ShortcutRepository.Source.FILE) {
+                fileChanges.add(change);
+            }
+        });
+        manager.attach(repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    void externalEditIsAppliedAsDelta() throws Exception {
+        Shortcut handWritten = new Shortcut("Ctrl+Alt+3", SystemAction.NEXT_TRACK);
+        writeAsTool(List.of(shortcut(1, "Ctrl+Alt+1", SystemAction.VOLUME_UP),
+                shortcut(2, "Ctrl+Alt+2", SystemAction.PLAY_PAUSE),
+                handWritten));
+
+        await(() -> fileChanges.size() == 1);
+        ShortcutDelta delta = fileChanges.get(0).delta();
+        assertTrue(delta.removed().isEmpty());
+        assertEquals(List.of("Ctrl+Alt+3"), delta.added().stream().map(Shortcut::getKeyCombo).toList());
+        assertEquals(1, delta.updated().size());
+        assertEquals(SystemAction.PLAY_PAUSE, repository.get(2).getAction());
+
+        // Rewritten with the id the new entry got
+        await(() -> idsOnDisk().equals(List.of(1L, 2L, 3L)));
+        assertEquals(1L, manager.getStatistics().get("externalReloads"));
+    }
+
+    @Test
+    void ownWritesAreNotReloaded() throws Exception {
+        repository.add(new Shortcut("Ctrl+Alt+4", SystemAction.PREV_TRACK));
+        manager.saveShortcuts(repository.list());
+        assertTrue(manager.flush());
+
+        // Long enough for the watcher's burst to end and be handled
+        Thread.sleep(ShortcutFileWatcher.DEFAULT_QUIET_PERIOD.toMillis() * 4);
+        assertTrue(manager.flush());
+        assertTrue(fileChanges.isEmpty());
+        assertEquals(0L, manager.getStatistics().get("externalReloads"));
+    }
+
+    @Test
+    void journaledEditsSurviveExternalEdit() throws Exception {
+        // Made in the application: journaled, not yet folded into the file
+        repository.add(new Shortcut("Ctrl+Alt+5", SystemAction.BRIGHTNESS_UP));
+        repository.remove(1);
+        assertTrue(manager.flush());
+
+        // A tool that read the file before those edits changes one entry
+        writeAsTool(List.of(shortcut(1, "Ctrl+Alt+1", SystemAction.VOLUME_UP),
+                shortcut(2, "Ctrl+Alt+2", SystemAction.PLAY_PAUSE)));
+
+        await(() -> fileChanges.size() == 1);
+        assertEquals(List.of("Ctrl+Alt+2", "Ctrl+Alt+5"),
+                repository.list().stream().map(Shortcut::getKeyCombo).toList());
+        assertEquals(SystemAction.PLAY_PAUSE, repository.get(2).getAction());
+
+        // The file holds all of it and the journal is empty
+        await(() -> idsOnDisk().equals(List.of(2L, 3L)));
+        assertTrue(manager.flush());
+        assertEquals(8, Files.size(dir.resolve("shortcuts.journal")));
+    }
+
+    private void writeAsTool(List<Shortcut> shortcuts) throws IOException {
+        Path temp = dir.resolve("tool.tmp");
+        Files.write(temp, new ShortcutCodec().write(shortcuts));
+        Files.move(temp, json, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private List<Long> idsOnDisk() {
+        try {
+            return new ShortcutCodec().read(json).shortcuts().stream().map(Shortcut::getId).toList();
+        } catch (IOException e) {
+            // Mid-write
+            return List.of();
+        }
+    }
+
+    private static Shortcut shortcut(long id, String keys, SystemAction action) {
+        Shortcut shortcut = new Shortcut(keys, action);
+        shortcut.setId(id);
+        return shortcut;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
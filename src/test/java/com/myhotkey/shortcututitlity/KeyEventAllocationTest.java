@@ -0,0 +1,155 @@
+package com.myhotkey.shortcututitlity;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.myhotkey.shortcututitlity.backend.ActionBackends;
+import com.myhotkey.shortcututitlity.backend.RecordingActionBackend;
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that the hook thread allocates nothing per key event once warmed
+ * up: for keys no shortcut uses, for bound chords that are debounced and
+ * for presses that are dispatched or start a hold. Events enter through
+ * {@link GlobalHotkeyService#nativeKeyPressed}, as the hook delivers them.
+ */
+class KeyEventAllocationTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int EVENTS = 10_000;
+    private static final int ROUNDS = 5;
+    private static final int BOUND_MODIFIERS = NativeKeyEvent.CTRL_L_MASK | NativeKeyEvent.ALT_L_MASK;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private GlobalHotkeyService service;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        ActionBackends.set(new RecordingActionBackend(1024));
+
+        service = new GlobalHotkeyService();
+        // Every press after the first is debounced, so the bound path stays on the hook thread
+        service.setDefaultRepeatPolicy(RepeatPolicy.DEBOUNCE);
+        service.setDebounceWindow(Duration.ofHours(1));
+        service.setShortcuts(List.of(
+                new Shortcut("Ctrl+Alt+P", SystemAction.PLAY_PAUSE),
+                new Shortcut("Ctrl+Alt+M", SystemAction.MUTE),
+                new Shortcut("Ctrl+Alt+Up", SystemAction.VOLUME_UP),
+                new Shortcut("Ctrl+Alt+Down", SystemAction.VOLUME_DOWN)));
+        service.enableWithoutHook();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void unboundKeysDoNotAllocate() {
+        NativeKeyEvent a = pressed(NativeKeyEvent.VC_A, 0);
+        NativeKeyEvent b = pressed(NativeKeyEvent.VC_B, NativeKeyEvent.SHIFT_L_MASK);
+        NativeKeyEvent q = pressed(NativeKeyEvent.VC_Q, BOUND_MODIFIERS);
+        assertEquals(0, allocatedBytes(() -> {
+            service.nativeKeyPressed(a);
+            service.nativeKeyPressed(b);
+            service.nativeKeyPressed(q);
+        }));
+    }
+
+    @Test
+    void debouncedChordsDoNotAllocate() {
+        NativeKeyEvent p = pressed(NativeKeyEvent.VC_P, BOUND_MODIFIERS);
+        NativeKeyEvent m = pressed(NativeKeyEvent.VC_M, BOUND_MODIFIERS);
+        assertEquals(0, allocatedBytes(() -> {
+            service.nativeKeyPressed(p);
+            service.nativeKeyPressed(m);
+        }));
+    }
+
+    @Test
+    void dispatchedChordsDoNotAllocate() {
+        // Every press is enqueued; full lanes drop their oldest trigger
+        service.setDefaultRepeatPolicy(RepeatPolicy.AUTO_REPEAT);
+        NativeKeyEvent p = pressed(NativeKeyEvent.VC_P, BOUND_MODIFIERS);
+        NativeKeyEvent m = pressed(NativeKeyEvent.VC_M, BOUND_MODIFIERS);
+        assertEquals(0, allocatedBytes(() -> {
+            service.nativeKeyPressed(p);
+            service.nativeKeyPressed(m);
+        }));
+        assertTrue((long) service.getStatistics().get("dispatched") > 0);
+    }
+
+    @Test
+    void startingHoldsDoesNotAllocate() {
+        // Each press is dispatched and starts a hold that replaces the other one
+        service.setDefaultRepeatPolicy(RepeatPolicy.THROTTLE);
+        service.setDebounceWindow(Duration.ZERO);
+        NativeKeyEvent up = pressed(NativeKeyEvent.VC_UP, BOUND_MODIFIERS);
+        NativeKeyEvent down = pressed(NativeKeyEvent.VC_DOWN, BOUND_MODIFIERS);
+        assertEquals(0, allocatedBytes(() -> {
+            service.nativeKeyPressed(up);
+            service.nativeKeyPressed(down);
+        }));
+    }
+
+    @Test
+    void mixedEventsWithStatisticsDoNotAllocate() {
+        service.setStatisticsEnabled(true);
+        NativeKeyEvent a = pressed(NativeKeyEvent.VC_A, 0);
+        NativeKeyEvent p = pressed(NativeKeyEvent.VC_P, BOUND_MODIFIERS);
+        NativeKeyEvent ctrl = pressed(NativeKeyEvent.VC_CONTROL, NativeKeyEvent.CTRL_L_MASK);
+        assertEquals(0, allocatedBytes(() -> {
+            service.nativeKeyPressed(a);
+            service.nativeKeyPressed(p);
+            service.nativeKeyPressed(ctrl);
+        }));
+    }
+
+    // Made up front: the hook allocates the event, not the service
+    private static NativeKeyEvent pressed(int keyCode, int modifiers) {
+        return new NativeKeyEvent(NativeKeyEvent.NATIVE_KEY_PRESSED, modifiers, 0, keyCode,
+                NativeKeyEvent.CHAR_UNDEFINED);
+    }
+
+    /**
+     * Runs the events {@link #EVENTS} times per round, after a warm-up.
+     * A per-event allocation shows in every round; a one-off one, such as
+     * the JIT swapping in compiled code, does not, so the best round counts.
+     *
+     * @return Fewest bytes the current thread allocated in one round, less
+     *         what reading the counter itself allocates
+     */
+    private long allocatedBytes(Runnable events) {
+        long thread = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP; i++) {
+            events.run();
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        long overhead = threads.getThreadAllocatedBytes(thread) - before;
+
+        long fewest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && fewest > 0; round++) {
+            before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < EVENTS; i++) {
+                events.run();
+            }
+            long after = threads.getThreadAllocatedBytes(thread);
+            fewest = Math.min(fewest, after - before - overhead);
+        }
+        return fewest;
+    }
+}
@@ -0,0 +1,123 @@
+package com.myhotkey.shortcututitlity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    /** One sub-bucket of a power of two: the documented bound. */
+    private static final double MAX_ERROR = 1.0 / 16;
+
+    @Test
+    void smallValuesHaveExactBuckets() {
+        for (int value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.highestValueIn(value));
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousUpToTheTop() {
+        int top = LatencyHistogram.BUCKET_COUNT - 1;
+        for (int i = 0; i < top; i++) {
+            long highest = LatencyHistogram.highestValueIn(i);
+            assertEquals(i, LatencyHistogram.indexOf(highest));
+            assertEquals(i + 1, LatencyHistogram.indexOf(highest + 1));
+        }
+        assertEquals(top, LatencyHistogram.indexOf(LatencyHistogram.MAX_TRACKABLE));
+        assertEquals(LatencyHistogram.MAX_TRACKABLE, LatencyHistogram.highestValueIn(top));
+    }
+
+    @Test
+    void bucketTopIsWithinErrorOfAnyValueInIt() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong(LatencyHistogram.MAX_TRACKABLE + 1);
+            long highest = LatencyHistogram.highestValueIn(LatencyHistogram.indexOf(value));
+            assertTrue(highest >= value && highest - value <= value * MAX_ERROR, value + " -> " + highest);
+        }
+    }
+
+    @Test
+    void valuesAboveTheRangeAreClampedButMaxIsExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long huge = LatencyHistogram.MAX_TRACKABLE * 10;
+        histogram.record(huge);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.count());
+        assertEquals(LatencyHistogram.MAX_TRACKABLE / 1_000.0, snapshot.p50Micros());
+        assertEquals(huge / 1_000.0, snapshot.maxMicros());
+    }
+
+    @Test
+    void resetEmptiesTheHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertSame(LatencyHistogram.Snapshot.EMPTY, histogram.snapshot());
+
+        histogram.record(-5);
+        histogram.record(2_000);
+        assertEquals(2, histogram.getCount());
+        // A negative value counts as zero
+        assertEquals(0.0, histogram.snapshot().p50Micros());
+        assertEquals(2.0, histogram.snapshot().maxMicros());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertSame(LatencyHistogram.Snapshot.EMPTY, histogram.snapshot());
+    }
+
+    @Test
+    void uniformValuesReportPercentilesWithinError() {
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        assertPercentilesWithinError(values);
+    }
+
+    @Test
+    void skewedValuesReportPercentilesWithinError() {
+        // Mostly tens of microseconds with a long tail, like hook latencies
+        Random random = new Random(7);
+        long[] values = new long[200_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (20_000 * Math.exp(random.nextGaussian() * 1.5));
+        }
+        assertPercentilesWithinError(values);
+    }
+
+    private static void assertPercentilesWithinError(long[] values) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value : values) {
+            histogram.record(value);
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.count());
+        assertWithinError(exact(sorted, 50.0), snapshot.p50Micros());
+        assertWithinError(exact(sorted, 99.0), snapshot.p99Micros());
+        assertWithinError(exact(sorted, 99.9), snapshot.p999Micros());
+        assertEquals(sorted[sorted.length - 1] / 1_000.0, snapshot.maxMicros());
+    }
+
+    // Nearest rank, as the histogram ranks
+    private static long exact(long[] sorted, double percentile) {
+        int rank = (int) Math.max(1, Math.ceil(sorted.length * percentile / 100.0));
+        return sorted[rank - 1];
+    }
+
+    private static void assertWithinError(long expectedNanos, double reportedMicros) {
+        long reportedNanos = Math.round(reportedMicros * 1_000);
+        assertTrue(reportedNanos >= expectedNanos && reportedNanos <= expectedNanos * (1 + MAX_ERROR),
+                "expected " + expectedNanos + " ns, reported " + reportedNanos);
+    }
+}
@@ -0,0 +1,139 @@
+package com.myhotkey.shortcututitlity;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.myhotkey.shortcututitlity.backend.ActionBackends;
+import com.myhotkey.shortcututitlity.backend.RecordingActionBackend;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.ProfileSet;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives layer toggle keys through the hook-thread entry point.
+ */
+class LayerToggleTest {
+
+    private static final int MODIFIERS = NativeKeyEvent.CTRL_L_MASK | NativeKeyEvent.ALT_L_MASK;
+
+    private GlobalHotkeyService service;
+
+    @BeforeEach
+    void setUp() {
+        ActionBackends.set(new RecordingActionBackend());
+        service = new GlobalHotkeyService();
+        service.setShortcuts(List.of(
+                toggle("Ctrl+Alt+L", "nav"),
+                toggle("Ctrl+Alt+G", "gaming"),
+                new Shortcut("Ctrl+Alt+M", SystemAction.MUTE)));
+
+        ProfileSet set = new ProfileSet();
+        set.getLayers().put("nav", List.of(new Shortcut("Ctrl+Alt+N", SystemAction.NEXT_TRACK)));
+        set.getLayers().put("gaming", List.of(new Shortcut("Ctrl+Alt+M", SystemAction.PLAY_PAUSE)));
+        service.setProfiles(set);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void toggleKeySwitchesBeforeTheNextKeyPress() {
+        press(NativeKeyEvent.VC_L);
+
+        // No wait: the target was built in advance and swapped in on this thread
+        assertEquals(List.of("nav"), service.getActiveLayers());
+        assertTrue(bound("Ctrl+Alt+N"));
+    }
+
+    @Test
+    void rapidTogglesAllApplyInOrder() {
+        press(NativeKeyEvent.VC_L);
+        press(NativeKeyEvent.VC_G);
+        press(NativeKeyEvent.VC_L);
+        press(NativeKeyEvent.VC_G);
+        press(NativeKeyEvent.VC_G);
+
+        await(() -> service.getActiveLayers().equals(List.of("gaming")));
+        assertEquals(List.of("gaming"), service.getActiveLayers());
+        // The layer on top wins
+        assertEquals(SystemAction.PLAY_PAUSE, actionOf("Ctrl+Alt+M"));
+        assertFalse(bound("Ctrl+Alt+N"));
+    }
+
+    @Test
+    void heldToggleKeyTogglesOnce() {
+        service.handleKeyPressed(NativeKeyEvent.VC_L, MODIFIERS);
+        service.handleKeyPressed(NativeKeyEvent.VC_L, MODIFIERS);
+        service.handleKeyPressed(NativeKeyEvent.VC_L, MODIFIERS);
+        release(NativeKeyEvent.VC_L);
+
+        assertEquals(List.of("nav"), service.getActiveLayers());
+    }
+
+    @Test
+    void editsKeepActiveLayers() {
+        press(NativeKeyEvent.VC_L);
+        service.addShortcut(new Shortcut("Ctrl+Alt+P", SystemAction.PLAY_PAUSE));
+
+        assertEquals(List.of("nav"), service.getActiveLayers());
+        assertTrue(bound("Ctrl+Alt+P"));
+        assertTrue(bound("Ctrl+Alt+N"));
+
+        press(NativeKeyEvent.VC_L);
+        assertEquals(List.of(), service.getActiveLayers());
+        assertTrue(bound("Ctrl+Alt+P"));
+    }
+
+    @Test
+    void toggleLayerRejectsUnknownLayer() {
+        assertFalse(service.toggleLayer("missing"));
+        assertTrue(service.toggleLayer("gaming"));
+        assertFalse(service.toggleLayer("gaming"));
+        assertEquals(List.of(), service.getActiveLayers());
+    }
+
+    private void press(int keyCode) {
+        service.handleKeyPressed(keyCode, MODIFIERS);
+        release(keyCode);
+    }
+
+    private void release(int keyCode) {
+        service.nativeKeyReleased(new NativeKeyEvent(NativeKeyEvent.NATIVE_KEY_RELEASED, MODIFIERS, 0, keyCode,
+                NativeKeyEvent.CHAR_UNDEFINED));
+    }
+
+    private boolean bound(String keyCombo) {
+        return actionOf(keyCombo) != null;
+    }
+
+    private SystemAction actionOf(String keyCombo) {
+        return service.getShortcuts().stream()
+                .filter(shortcut -> shortcut.getKeyCombo().equals(keyCombo))
+                .map(Shortcut::getAction)
+                .findFirst().orElse(null);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static Shortcut toggle(String keys, String layer) {
+        Shortcut shortcut = new Shortcut(keys, SystemAction.TOGGLE_LAYER);
+        shortcut.setLayer(layer);
+        return shortcut;
+    }
+}
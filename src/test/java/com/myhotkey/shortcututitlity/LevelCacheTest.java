@@ -0,0 +1,113 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.backend.RecordingActionBackend;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds and reconciles a cache from the recording backend's levels.
+ */
+class LevelCacheTest {
+
+    private static final Duration TICK = Duration.ofMillis(50);
+
+    private final RecordingActionBackend backend = new RecordingActionBackend();
+    private final LevelCache cache = new LevelCache();
+
+    @AfterEach
+    void tearDown() {
+        cache.stop();
+    }
+
+    @Test
+    void startSeedsFromTheProbe() {
+        backend.setLevels(new LevelCache.Levels(LevelCache.VOLUME_MAX / 2, 0, 40));
+        cache.start(backend::queryLevels, Duration.ofHours(1));
+
+        await(() -> cache.getVolumePercent() != LevelCache.UNKNOWN);
+        assertEquals(50, cache.getVolumePercent());
+        assertEquals(0, cache.getMuted());
+        assertEquals(40, cache.getBrightness());
+        assertEquals("50%", cache.describe(SystemAction.VOLUME_UP));
+        assertEquals("Unmuted", cache.describe(SystemAction.MUTE));
+    }
+
+    @Test
+    void actionsUpdateOptimisticallyWithinRange() {
+        assertEquals(LevelCache.UNKNOWN, cache.adjustVolume(1_000));
+        assertEquals("", cache.describe(SystemAction.BRIGHTNESS_UP));
+
+        // Unknown fields of a reading leave the cached ones alone
+        cache.update(new LevelCache.Levels(LevelCache.VOLUME_MAX - 100, 1, LevelCache.UNKNOWN));
+        cache.update(new LevelCache.Levels(LevelCache.UNKNOWN, LevelCache.UNKNOWN, 95));
+
+        assertEquals(LevelCache.VOLUME_MAX, cache.adjustVolume(1_000));
+        assertEquals(0, cache.adjustVolume(-LevelCache.VOLUME_MAX * 2));
+        assertEquals(100, cache.adjustBrightness(10));
+        assertEquals(90, cache.adjustBrightness(-10));
+        assertEquals(0, cache.toggleMute());
+        assertEquals(1, cache.toggleMute());
+        assertEquals("Muted", cache.describe(SystemAction.MUTE));
+        assertEquals("", cache.describe(SystemAction.NEXT_TRACK));
+    }
+
+    @Test
+    void reconcilesWhileInUse() {
+        backend.setLevels(new LevelCache.Levels(0, 0, 10));
+        cache.start(backend::queryLevels, TICK);
+        await(() -> cache.getBrightness() == 10);
+
+        // Changed outside the application, then an action on our side
+        backend.setLevels(new LevelCache.Levels(0, 0, 70));
+        cache.adjustBrightness(5);
+
+        await(() -> cache.getBrightness() == 70);
+    }
+
+    @Test
+    void idleTicksSkipTheProbeAndForgetLevels() throws InterruptedException {
+        backend.setLevels(new LevelCache.Levels(LevelCache.VOLUME_MAX, 0, 60));
+        cache.start(backend::queryLevels, TICK);
+        await(() -> cache.getBrightness() == 60);
+        await(() -> cache.getBrightness() == LevelCache.UNKNOWN);
+
+        int queries = backend.getLevelQueries();
+        Thread.sleep(TICK.toMillis() * 10);
+        assertEquals(queries, backend.getLevelQueries());
+
+        // The next action re-seeds
+        assertEquals(LevelCache.UNKNOWN, cache.adjustBrightness(5));
+        await(() -> cache.getBrightness() == 60);
+        assertTrue(backend.getLevelQueries() > queries);
+    }
+
+    @Test
+    void actionsBeforeStartRequestNoSeed() {
+        cache.adjustVolume(100);
+        cache.toggleMute();
+
+        assertEquals(0, backend.getLevelQueries());
+        assertEquals(LevelCache.UNKNOWN, cache.getVolumePercent());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
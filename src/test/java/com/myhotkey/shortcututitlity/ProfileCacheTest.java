@@ -0,0 +1,110 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProfileCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private Path json;
+    private Path cacheFile;
+    private ProfileCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        json = dir.resolve("shortcuts.json");
+        cacheFile = dir.resolve("shortcuts.bin");
+        Files.writeString(json, "[{\"keyCombo\":\"Ctrl+Alt+M\",\"action\":\"MUTE\"}]");
+        cache = new ProfileCache(cacheFile);
+    }
+
+    @Test
+    void roundTripsCompiledProfile() throws IOException {
+        Shortcut mute = new Shortcut("Ctrl+Alt+M", SystemAction.MUTE);
+        mute.setId(42L);
+        Shortcut sequence = new Shortcut("Ctrl+K, Ctrl+M", SystemAction.VOLUME_UP, RepeatPolicy.THROTTLE);
+        sequence.setLayer("media");
+        Shortcut broken = new Shortcut("Ctrl+Nonsense", null);
+        ProfileCache.CompiledProfile written = ProfileCache.compile(List.of(mute, sequence, broken));
+
+        ProfileCache.Key key = ProfileCache.keyOf(json);
+        cache.write(key, written);
+        ProfileCache.CompiledProfile read = cache.read(key);
+
+        assertNotNull(read);
+        assertEquals(3, read.shortcuts().size());
+        for (int i = 0; i < 3; i++) {
+            Shortcut expected = written.shortcuts().get(i);
+            Shortcut actual = read.shortcuts().get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getKeyCombo(), actual.getKeyCombo());
+            assertEquals(expected.getAction(), actual.getAction());
+            assertEquals(expected.getRepeatPolicy(), actual.getRepeatPolicy());
+            assertEquals(expected.getLayer(), actual.getLayer());
+            assertArrayEquals(written.chords()[i], read.chords()[i]);
+        }
+        assertEquals(2, read.chords()[1].length);
+        assertEquals(0, read.chords()[2].length);
+    }
+
+    @Test
+    void ignoresSnapshotOfAnotherJsonVersion() throws IOException {
+        ProfileCache.Key key = ProfileCache.keyOf(json);
+        cache.write(key, ProfileCache.compile(List.of(new Shortcut("Ctrl+Alt+M", SystemAction.MUTE))));
+
+        // Same size and time, other content: only the CRC differs
+        FileTime modified = Files.getLastModifiedTime(json);
+        Files.writeString(json, Files.readString(json).replace("MUTE", "MUT_"));
+        Files.setLastModifiedTime(json, modified);
+        ProfileCache.Key edited = ProfileCache.keyOf(json);
+
+        assertEquals(key.size(), edited.size());
+        assertEquals(key.modifiedMillis(), edited.modifiedMillis());
+        assertNull(cache.read(edited));
+        assertNull(cache.read(new ProfileCache.Key(key.size() + 1, key.modifiedMillis(), key.crc())));
+        assertNull(cache.read(new ProfileCache.Key(key.size(), key.modifiedMillis() + 1, key.crc())));
+        assertNotNull(cache.read(key));
+    }
+
+    @Test
+    void keyOfWrittenBytesMatchesKeyOfFile() throws IOException {
+        byte[] bytes = "[]".getBytes(StandardCharsets.UTF_8);
+        Files.write(json, bytes);
+
+        assertEquals(ProfileCache.keyOf(json), ProfileCache.keyOf(json, bytes));
+    }
+
+    @Test
+    void ignoresMissingOrCorruptSnapshot() throws IOException {
+        ProfileCache.Key key = ProfileCache.keyOf(json);
+        assertNull(cache.read(key));
+
+        cache.write(key, ProfileCache.compile(List.of(new Shortcut("Ctrl+Alt+M", SystemAction.MUTE))));
+        byte[] bytes = Files.readAllBytes(cacheFile);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(cacheFile, bytes);
+        assertNull(cache.read(key));
+
+        Files.write(cacheFile, Arrays.copyOf(bytes, 10));
+        assertNull(cache.read(key));
+    }
+}
@@ -0,0 +1,75 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepeatFilterTest {
+
+    private static final long MS = 1_000_000L;
+    private static final long WINDOW = 100 * MS;
+
+    private final ChordTable table = tableOf("Ctrl+Alt+A", "Ctrl+Alt+B");
+    private final int a = table.slotOf(KeyChord.parse("Ctrl+Alt+A"));
+    private final int b = table.slotOf(KeyChord.parse("Ctrl+Alt+B"));
+    private final RepeatFilter filter = new RepeatFilter(table);
+
+    @Test
+    void debounceWaitsForAPauseInPressing() {
+        assertTrue(filter.accept(a, RepeatPolicy.DEBOUNCE, 0, WINDOW));
+        // Auto-repeat every 30 ms keeps extending the window
+        assertFalse(filter.accept(a, RepeatPolicy.DEBOUNCE, 30 * MS, WINDOW));
+        assertFalse(filter.accept(a, RepeatPolicy.DEBOUNCE, 60 * MS, WINDOW));
+        assertFalse(filter.accept(a, RepeatPolicy.DEBOUNCE, 150 * MS, WINDOW));
+        assertTrue(filter.accept(a, RepeatPolicy.DEBOUNCE, 250 * MS, WINDOW));
+    }
+
+    @Test
+    void throttleAcceptsOncePerWindow() {
+        assertTrue(filter.accept(a, RepeatPolicy.THROTTLE, 0, WINDOW));
+        assertFalse(filter.accept(a, RepeatPolicy.THROTTLE, 30 * MS, WINDOW));
+        assertFalse(filter.accept(a, RepeatPolicy.THROTTLE, 60 * MS, WINDOW));
+        assertTrue(filter.accept(a, RepeatPolicy.THROTTLE, 100 * MS, WINDOW));
+        assertFalse(filter.accept(a, RepeatPolicy.THROTTLE, 150 * MS, WINDOW));
+        assertTrue(filter.accept(a, RepeatPolicy.THROTTLE, 210 * MS, WINDOW));
+    }
+
+    @Test
+    void autoRepeatAcceptsEveryPress() {
+        for (long t = 0; t < 10; t++) {
+            assertTrue(filter.accept(a, RepeatPolicy.AUTO_REPEAT, t * MS, WINDOW));
+        }
+    }
+
+    @Test
+    void slotsAreIndependent() {
+        assertTrue(filter.accept(a, RepeatPolicy.DEBOUNCE, 0, WINDOW));
+        assertTrue(filter.accept(b, RepeatPolicy.DEBOUNCE, 10 * MS, WINDOW));
+        assertFalse(filter.accept(a, RepeatPolicy.DEBOUNCE, 20 * MS, WINDOW));
+    }
+
+    @Test
+    void firstPressIsAcceptedWhateverTheClock() {
+        // nanoTime may be negative; a slot never pressed must still accept
+        assertTrue(filter.accept(a, RepeatPolicy.DEBOUNCE, Long.MIN_VALUE + 1, WINDOW));
+        assertTrue(filter.accept(b, RepeatPolicy.THROTTLE, -5 * MS, WINDOW));
+    }
+
+    @Test
+    void belongsToOneTable() {
+        assertTrue(filter.isFor(table));
+        assertFalse(filter.isFor(tableOf("Ctrl+Alt+A", "Ctrl+Alt+B")));
+    }
+
+    private static ChordTable tableOf(String... keyCombos) {
+        ChordTable.Builder builder = ChordTable.builder(keyCombos.length);
+        for (String keyCombo : keyCombos) {
+            builder.put(KeyChord.parse(keyCombo), new Shortcut(keyCombo, SystemAction.MUTE));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.backend.ActionBackends;
+import com.myhotkey.shortcututitlity.backend.RecordingActionBackend;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Follows repository changes in the hotkey table, as the application wires
+ * them, with several entries bound to the same keys.
+ */
+class RepositoryBindingTest {
+
+    private final Shortcut first = new Shortcut("Ctrl+Alt+K", SystemAction.VOLUME_UP);
+    private final Shortcut second = new Shortcut("alt+ctrl+k", SystemAction.VOLUME_DOWN);
+    private final Shortcut other = new Shortcut("Ctrl+Alt+M", SystemAction.MUTE);
+
+    private GlobalHotkeyService service;
+    private ShortcutRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        ActionBackends.set(new RecordingActionBackend());
+        List<Shortcut> shortcuts = List.of(first, second, other);
+        repository = new ShortcutRepository(shortcuts, 1);
+        service = new GlobalHotkeyService();
+        service.setShortcuts(shortcuts);
+        repository.addListener(change -> service.applyDelta(change.delta(), repository::findByCombo));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void firstDuplicateIsBoundOnBothSides() {
+        assertSame(first, repository.findByCombo("Ctrl+Alt+K"));
+        assertSame(first, boundTo("Ctrl+Alt+K"));
+    }
+
+    @Test
+    void removingShadowedDuplicateKeepsBinding() {
+        repository.remove(second.getId());
+
+        assertSame(first, boundTo("Ctrl+Alt+K"));
+        assertSame(other, boundTo("Ctrl+Alt+M"));
+    }
+
+    @Test
+    void removingBoundDuplicateBindsSurvivor() {
+        repository.remove(first.getId());
+
+        assertSame(second, repository.findByCombo("Ctrl+Alt+K"));
+        assertSame(second, boundTo("Ctrl+Alt+K"));
+
+        repository.remove(second.getId());
+        assertNull(boundTo("Ctrl+Alt+K"));
+    }
+
+    @Test
+    void updatingBoundDuplicateKeepsItBound() {
+        Shortcut louder = new Shortcut("Ctrl+Alt+K", SystemAction.MUTE);
+        repository.batch().update(first.getId(), louder).commit();
+
+        assertSame(louder, repository.findByCombo("Ctrl+Alt+K"));
+        assertSame(louder, boundTo("Ctrl+Alt+K"));
+    }
+
+    @Test
+    void movingBoundDuplicateBindsSurvivor() {
+        Shortcut moved = new Shortcut("Ctrl+Alt+J", SystemAction.VOLUME_UP);
+        repository.batch().update(first.getId(), moved).commit();
+
+        assertSame(second, boundTo("Ctrl+Alt+K"));
+        assertSame(moved, boundTo("Ctrl+Alt+J"));
+    }
+
+    @Test
+    void fileWithoutBoundDuplicateBindsSurvivor() {
+        Shortcut secondCopy = new Shortcut("alt+ctrl+k", SystemAction.VOLUME_DOWN);
+        secondCopy.setId(second.getId());
+        Shortcut otherCopy = new Shortcut("Ctrl+Alt+M", SystemAction.MUTE);
+        otherCopy.setId(other.getId());
+
+        repository.replaceAll(List.of(secondCopy, otherCopy), ShortcutRepository.Source.FILE);
+
+        assertSame(second, boundTo("Ctrl+Alt+K"));
+        assertEquals(2, service.getShortcutCount());
+    }
+
+    private Shortcut boundTo(String keyCombo) {
+        String keys = KeyChord.formatSequence(KeyChord.parseSequence(keyCombo));
+        return service.getShortcuts().stream()
+                .filter(shortcut -> KeyChord.formatSequence(KeyChord.parseSequence(shortcut.getKeyCombo())).equals(keys))
+                .findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,140 @@
+package com.myhotkey.shortcututitlity;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import com.myhotkey.shortcututitlity.backend.ActionBackends;
+import com.myhotkey.shortcututitlity.backend.RecordingActionBackend;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Types multi-stroke sequences through the hook-thread entry point.
+ */
+class SequenceShortcutTest {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(200);
+    // Long enough for a dispatched action to have run
+    private static final long SETTLE_MILLIS = 100;
+
+    private final RecordingActionBackend backend = new RecordingActionBackend();
+    private GlobalHotkeyService service;
+
+    @BeforeEach
+    void setUp() {
+        ActionBackends.set(backend);
+        service = new GlobalHotkeyService();
+        service.setSequenceTimeout(TIMEOUT);
+        service.setShortcuts(List.of(
+                new Shortcut("Ctrl+K, Ctrl+M", SystemAction.MUTE),
+                new Shortcut("Ctrl+K, Ctrl+P", SystemAction.PLAY_PAUSE),
+                new Shortcut("Ctrl+J, Ctrl+K, Ctrl+N", SystemAction.NEXT_TRACK),
+                new Shortcut("Ctrl+U", SystemAction.VOLUME_UP)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void completedSequenceRunsOnce() throws InterruptedException {
+        stroke(NativeKeyEvent.VC_K);
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(List.of(), actions());
+
+        stroke(NativeKeyEvent.VC_M);
+        await(() -> actions().equals(List.of(SystemAction.MUTE)));
+
+        // The cursor is back at the root: the last stroke alone is nothing
+        stroke(NativeKeyEvent.VC_M);
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(List.of(SystemAction.MUTE), actions());
+    }
+
+    @Test
+    void brokenSequenceRestartsAtRoot() {
+        // Ctrl+K then Ctrl+J: the break starts Ctrl+J, Ctrl+K, Ctrl+N
+        stroke(NativeKeyEvent.VC_K);
+        stroke(NativeKeyEvent.VC_J);
+        stroke(NativeKeyEvent.VC_K);
+        stroke(NativeKeyEvent.VC_N);
+
+        await(() -> actions().equals(List.of(SystemAction.NEXT_TRACK)));
+    }
+
+    @Test
+    void unboundKeyBreaksSequence() throws InterruptedException {
+        stroke(NativeKeyEvent.VC_K);
+        stroke(NativeKeyEvent.VC_X);
+        stroke(NativeKeyEvent.VC_M);
+        // A single-chord shortcut still runs after a pending first stroke
+        stroke(NativeKeyEvent.VC_K);
+        stroke(NativeKeyEvent.VC_U);
+
+        await(() -> actions().equals(List.of(SystemAction.VOLUME_UP)));
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(List.of(SystemAction.VOLUME_UP), actions());
+    }
+
+    @Test
+    void sequenceTimesOutBetweenStrokes() throws InterruptedException {
+        stroke(NativeKeyEvent.VC_K);
+        Thread.sleep(TIMEOUT.toMillis() * 2);
+        stroke(NativeKeyEvent.VC_M);
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(List.of(), actions());
+
+        stroke(NativeKeyEvent.VC_K);
+        stroke(NativeKeyEvent.VC_P);
+        await(() -> actions().equals(List.of(SystemAction.PLAY_PAUSE)));
+    }
+
+    @Test
+    void canBindRejectsPrefixConflicts() {
+        // A prefix or an extension of a bound sequence
+        assertFalse(service.canBind(new Shortcut("Ctrl+K", SystemAction.MUTE)));
+        assertFalse(service.canBind(new Shortcut("Ctrl+J, Ctrl+K", SystemAction.MUTE)));
+        assertFalse(service.canBind(new Shortcut("Ctrl+K, Ctrl+M, Ctrl+X", SystemAction.MUTE)));
+        // An extension of a bound single chord
+        assertFalse(service.canBind(new Shortcut("Ctrl+U, Ctrl+I", SystemAction.MUTE)));
+
+        // The same keys replace; a sibling branch is free
+        assertTrue(service.canBind(new Shortcut("Ctrl+K, Ctrl+M", SystemAction.VOLUME_DOWN)));
+        assertTrue(service.canBind(new Shortcut("Ctrl+K, Ctrl+Q", SystemAction.VOLUME_DOWN)));
+        assertTrue(service.canBind(new Shortcut("Ctrl+J, Ctrl+M", SystemAction.VOLUME_DOWN)));
+    }
+
+    private void stroke(int keyCode) {
+        service.handleKeyPressed(keyCode, NativeKeyEvent.CTRL_L_MASK);
+        service.nativeKeyReleased(new NativeKeyEvent(NativeKeyEvent.NATIVE_KEY_RELEASED,
+                NativeKeyEvent.CTRL_L_MASK, 0, keyCode, NativeKeyEvent.CHAR_UNDEFINED));
+    }
+
+    private List<SystemAction> actions() {
+        return backend.getCalls().stream().map(RecordingActionBackend.Call::action).toList();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
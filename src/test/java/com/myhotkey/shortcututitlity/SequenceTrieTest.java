@@ -0,0 +1,63 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SequenceTrieTest {
+
+    private final Shortcut mute = new Shortcut("Ctrl+K, Ctrl+M", SystemAction.MUTE);
+    private final Shortcut play = new Shortcut("Ctrl+K, Ctrl+P", SystemAction.PLAY_PAUSE);
+    private final Shortcut next = new Shortcut("Ctrl+J, Ctrl+K, Ctrl+N", SystemAction.NEXT_TRACK);
+
+    private final SequenceTrie trie = SequenceTrie.build(List.of(binding(mute), binding(play), binding(next)));
+
+    @Test
+    void strokesLeadToTheCompletedShortcut() {
+        int k = trie.next(SequenceTrie.ROOT, KeyChord.parse("Ctrl+K"));
+        assertNotEquals(SequenceTrie.NO_NODE, k);
+        assertNull(trie.terminalAt(k));
+
+        assertSame(mute, trie.terminalAt(trie.next(k, KeyChord.parse("Ctrl+M"))));
+        assertSame(play, trie.terminalAt(trie.next(k, KeyChord.parse("Ctrl+P"))));
+
+        int node = SequenceTrie.ROOT;
+        for (int chord : KeyChord.parseSequence(next.getKeyCombo())) {
+            node = trie.next(node, chord);
+        }
+        assertSame(next, trie.terminalAt(node));
+    }
+
+    @Test
+    void strokesOffThePathFindNoNode() {
+        int k = trie.next(SequenceTrie.ROOT, KeyChord.parse("Ctrl+K"));
+
+        assertEquals(SequenceTrie.NO_NODE, trie.next(k, KeyChord.parse("Ctrl+N")));
+        assertEquals(SequenceTrie.NO_NODE, trie.next(SequenceTrie.ROOT, KeyChord.parse("Ctrl+M")));
+        // The same chord under another node is a different edge
+        int j = trie.next(SequenceTrie.ROOT, KeyChord.parse("Ctrl+J"));
+        assertNotEquals(k, trie.next(j, KeyChord.parse("Ctrl+K")));
+        assertEquals(SequenceTrie.NO_NODE, trie.next(SequenceTrie.ROOT, KeyChord.NONE));
+    }
+
+    @Test
+    void noSequencesGiveTheEmptyTrie() {
+        SequenceTrie empty = SequenceTrie.build(List.of());
+
+        assertSame(SequenceTrie.EMPTY, empty);
+        assertTrue(empty.isEmpty());
+        assertEquals(SequenceTrie.NO_NODE, empty.next(SequenceTrie.ROOT, KeyChord.parse("Ctrl+K")));
+    }
+
+    private static ChordTable.SequenceBinding binding(Shortcut shortcut) {
+        return new ChordTable.SequenceBinding(KeyChord.parseSequence(shortcut.getKeyCombo()), shortcut);
+    }
+}
@@ -0,0 +1,141 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.ProfileSet;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortcutCodecTest {
+
+    @TempDir
+    Path dir;
+
+    private final ShortcutCodec codec = new ShortcutCodec();
+
+    @Test
+    void badEntriesAreSkippedOneByOne() throws IOException {
+        Path file = write("shortcuts.json", """
+                [
+                  {"id": 1, "keyCombo": "Ctrl+Alt+1", "action": "VOLUME_UP"},
+                  {"id": 2, "action": "MUTE"},
+                  {"id": 3, "keyCombo": "Ctrl+Alt+3", "action": "SHUTDOWN"},
+                  {"id": {"nested": [1, 2]}, "keyCombo": "Ctrl+Alt+4", "action": "MUTE"},
+                  {"id": 5, "keyCombo": ["Ctrl", "5"], "action": "MUTE"},
+                  {"id": 6, "keyCombo": "Ctrl+Alt+6", "action": "MUTE", "repeatPolicy": "SOMETIMES"},
+                  42,
+                  {"id": 7, "keyCombo": "Ctrl+Alt+7", "action": " next_track ", "repeatPolicy": " throttle ",
+                   "comment": {"by": ["a", "tool"]}, "layer": null}
+                ]
+                """);
+
+        ShortcutCodec.Decoded decoded = codec.read(file);
+
+        assertEquals(List.of(1L, 7L), decoded.shortcuts().stream().map(Shortcut::getId).toList());
+        assertEquals(6, decoded.skipped());
+        assertFalse(decoded.truncated());
+        Shortcut lenient = decoded.shortcuts().get(1);
+        assertEquals(SystemAction.NEXT_TRACK, lenient.getAction());
+        assertEquals(RepeatPolicy.THROTTLE, lenient.getRepeatPolicy());
+        assertNull(lenient.getLayer());
+    }
+
+    @Test
+    void truncatedFileKeepsEntriesBeforeTheBreak() throws IOException {
+        byte[] whole = codec.write(List.of(
+                shortcut(1, "Ctrl+Alt+1", SystemAction.VOLUME_UP),
+                shortcut(2, "Ctrl+Alt+2", SystemAction.MUTE)));
+        String text = new String(whole, StandardCharsets.UTF_8);
+        // Cut inside the second entry, as an interrupted write leaves it
+        Path file = dir.resolve("shortcuts.json");
+        Files.write(file, Arrays.copyOf(whole, text.indexOf("Ctrl+Alt+2")));
+
+        ShortcutCodec.Decoded decoded = codec.read(file);
+
+        assertTrue(decoded.truncated());
+        assertEquals(List.of(1L), decoded.shortcuts().stream().map(Shortcut::getId).toList());
+    }
+
+    @Test
+    void fileThatIsNotAListIsRejected() throws IOException {
+        Path file = write("shortcuts.json", "{\"keyCombo\": \"Ctrl+Alt+1\"}");
+
+        assertThrows(IOException.class, () -> codec.read(file));
+    }
+
+    @Test
+    void writtenListReadsBack() throws IOException {
+        Shortcut plain = shortcut(1, "Ctrl+Alt+1", SystemAction.VOLUME_UP);
+        Shortcut throttled = shortcut(2, "Ctrl+K Ctrl+M", SystemAction.MUTE);
+        throttled.setRepeatPolicy(RepeatPolicy.THROTTLE);
+        Shortcut toggle = new Shortcut("Ctrl+Alt+L", SystemAction.TOGGLE_LAYER);
+        toggle.setLayer("media");
+        Path file = dir.resolve("shortcuts.json");
+        Files.write(file, codec.write(Arrays.asList(plain, null, throttled, toggle)));
+
+        ShortcutCodec.Decoded decoded = codec.read(file);
+
+        assertEquals(0, decoded.skipped());
+        assertEquals(List.of(plain, throttled, toggle).stream().map(ShortcutCodecTest::describe).toList(),
+                decoded.shortcuts().stream().map(ShortcutCodecTest::describe).toList());
+    }
+
+    @Test
+    void profileSetReadsBackAndSkipsBadActiveProfile() throws IOException {
+        ProfileSet set = new ProfileSet();
+        set.setActiveProfile("work");
+        set.getProfiles().put("work", List.of(shortcut(1, "Ctrl+Alt+1", SystemAction.VOLUME_UP)));
+        set.getLayers().put("media", List.of(shortcut(2, "Ctrl+Alt+2", SystemAction.PLAY_PAUSE)));
+        Path file = dir.resolve("profiles.json");
+        Files.write(file, codec.write(set));
+
+        ProfileSet read = codec.readProfileSet(file);
+        assertEquals("work", read.getActiveProfile());
+        assertEquals(List.of("Ctrl+Alt+1"), combos(read.getProfiles().get("work")));
+        assertEquals(List.of("Ctrl+Alt+2"), combos(read.getLayers().get("media")));
+
+        // An object where the name belongs is passed over whole
+        Path odd = write("odd.json", """
+                {"activeProfile": {"name": "work", "tags": ["a"]},
+                 "profiles": {"work": [{"keyCombo": "Ctrl+Alt+1", "action": "MUTE"}]}}
+                """);
+        ProfileSet oddSet = codec.readProfileSet(odd);
+        assertNull(oddSet.getActiveProfile());
+        assertEquals(List.of("Ctrl+Alt+1"), combos(oddSet.getProfiles().get("work")));
+    }
+
+    private Path write(String name, String json) throws IOException {
+        Path file = dir.resolve(name);
+        Files.writeString(file, json);
+        return file;
+    }
+
+    private static List<String> combos(List<Shortcut> shortcuts) {
+        return shortcuts.stream().map(Shortcut::getKeyCombo).toList();
+    }
+
+    private static String describe(Shortcut shortcut) {
+        return shortcut.getId() + " " + shortcut.getKeyCombo() + " " + shortcut.getAction() + " "
+                + shortcut.getRepeatPolicy() + " " + shortcut.getLayer();
+    }
+
+    private static Shortcut shortcut(long id, String keys, SystemAction action) {
+        Shortcut shortcut = new Shortcut(keys, action);
+        shortcut.setId(id);
+        return shortcut;
+    }
+}
@@ -0,0 +1,109 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.OverflowPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortcutDispatcherTest {
+
+    private static final int CAPACITY = 4;
+    private static final int PRESSES = 20;
+
+    private final Shortcut volumeUp = new Shortcut("Ctrl+Alt+Up", SystemAction.VOLUME_UP);
+    private final AtomicInteger runs = new AtomicInteger();
+    private final Semaphore released = new Semaphore(0);
+    private final CountDownLatch firstRunStarted = new CountDownLatch(1);
+    private ShortcutDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        released.release(Integer.MAX_VALUE / 2);
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void coalesceRunsEveryFoldedTrigger() throws Exception {
+        dispatcher = blockedDispatcher(OverflowPolicy.COALESCE);
+
+        int enqueued = 1;
+        for (int i = 1; i < PRESSES; i++) {
+            if (dispatcher.submit(volumeUp, 0, System.nanoTime())) {
+                enqueued++;
+            }
+        }
+        assertTrue(enqueued < PRESSES, "lane should have overflowed");
+
+        released.release(Integer.MAX_VALUE / 2);
+        awaitRuns(PRESSES);
+        assertEquals(PRESSES, runs.get());
+        assertEquals((long) PRESSES - enqueued, statistics().get("dispatchCoalesced"));
+    }
+
+    @Test
+    void dropOldestDiscardsOverflow() throws Exception {
+        dispatcher = blockedDispatcher(OverflowPolicy.DROP_OLDEST);
+
+        for (int i = 1; i < PRESSES; i++) {
+            assertTrue(dispatcher.submit(volumeUp, 0, System.nanoTime()));
+        }
+
+        released.release(Integer.MAX_VALUE / 2);
+        awaitRuns(1 + CAPACITY);
+        Thread.sleep(50);
+        assertEquals(1 + CAPACITY, runs.get());
+        assertEquals((long) PRESSES - 1 - CAPACITY, statistics().get("dispatchDropped"));
+    }
+
+    @Test
+    void foldedTriggerRunsAfterLaneDrained() throws Exception {
+        dispatcher = blockedDispatcher(OverflowPolicy.COALESCE);
+        for (int i = 0; i < CAPACITY; i++) {
+            dispatcher.submit(volumeUp, 0, System.nanoTime());
+        }
+        assertFalse(dispatcher.submit(volumeUp, 0, System.nanoTime()));
+
+        released.release(Integer.MAX_VALUE / 2);
+        awaitRuns(CAPACITY + 2);
+        assertEquals(CAPACITY + 2, runs.get());
+    }
+
+    /**
+     * @return A dispatcher whose VOLUME_UP worker is blocked in its first run
+     */
+    private ShortcutDispatcher blockedDispatcher(OverflowPolicy policy) throws InterruptedException {
+        ShortcutDispatcher created = new ShortcutDispatcher(trigger -> {
+            firstRunStarted.countDown();
+            released.acquireUninterruptibly();
+            runs.incrementAndGet();
+        }, CAPACITY, policy, Thread.ofPlatform().factory());
+        created.submit(volumeUp, 0, System.nanoTime());
+        assertTrue(firstRunStarted.await(5, TimeUnit.SECONDS));
+        return created;
+    }
+
+    private void awaitRuns(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runs.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        dispatcher.putStatistics(stats);
+        return stats;
+    }
+}
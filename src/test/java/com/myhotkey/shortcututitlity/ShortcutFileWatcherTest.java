@@ -0,0 +1,95 @@
+package com.myhotkey.shortcututitlity;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortcutFileWatcherTest {
+
+    private static final Duration QUIET = Duration.ofMillis(300);
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger changes = new AtomicInteger();
+    private ShortcutFileWatcher watcher;
+
+    @AfterEach
+    void tearDown() {
+        watcher.close();
+    }
+
+    @Test
+    void burstOfWritesRunsCallbackOnce() throws Exception {
+        Path file = dir.resolve("shortcuts.json");
+        start(file);
+
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(file, "[" + i + "]");
+            Thread.sleep(QUIET.toMillis() / 6);
+        }
+        await(() -> changes.get() == 1);
+        Thread.sleep(QUIET.toMillis() * 3);
+        assertEquals(1, changes.get());
+
+        Files.writeString(file, "[]");
+        await(() -> changes.get() == 2);
+        Map<String, Object> stats = new HashMap<>();
+        watcher.putStatistics(stats);
+        assertEquals(2L, stats.get("watchBursts"));
+        assertTrue((long) stats.get("watchEvents") >= 2);
+    }
+
+    @Test
+    void replacementByRenameIsSeen() throws Exception {
+        Path file = dir.resolve("shortcuts.json");
+        start(file);
+
+        Path temp = dir.resolve("shortcuts.json.tmp");
+        Files.writeString(temp, "[]");
+        Files.move(temp, file);
+
+        await(() -> changes.get() == 1);
+    }
+
+    @Test
+    void otherFilesAreIgnored() throws Exception {
+        start(dir.resolve("shortcuts.json"));
+
+        Files.writeString(dir.resolve("profiles.json"), "{}");
+        Thread.sleep(QUIET.toMillis() * 4);
+
+        assertEquals(0, changes.get());
+    }
+
+    private void start(Path file) throws IOException {
+        watcher = new ShortcutFileWatcher(file, QUIET, changes::incrementAndGet);
+        watcher.start();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
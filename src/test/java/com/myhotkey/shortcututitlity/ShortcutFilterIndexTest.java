@@ -0,0 +1,67 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortcutFilterIndexTest {
+
+    private final Shortcut volumeUp = new Shortcut("Ctrl+Alt+Up", SystemAction.VOLUME_UP);
+    private final Shortcut volumeDown = new Shortcut("Shift+Alt+Down", SystemAction.VOLUME_DOWN);
+    private final Shortcut playPause = new Shortcut("Ctrl+K, Ctrl+P", SystemAction.PLAY_PAUSE);
+    private final List<Shortcut> all = List.of(volumeUp, volumeDown, playPause);
+    private final ShortcutFilterIndex index = new ShortcutFilterIndex();
+
+    @Test
+    void blankQueryShowsAll() {
+        index.addAll(all);
+
+        assertNull(index.filter(null));
+        assertNull(index.filter("   "));
+    }
+
+    @Test
+    void everyTermMustMatchKeysOrAction() {
+        index.addAll(all);
+
+        assertEquals(List.of(volumeUp), matching("ctrl vol"));
+        assertEquals(List.of(volumeUp, volumeDown), matching("VOLUME"));
+        assertEquals(List.of(volumeDown), matching("  alt   down "));
+        // Display name of the action
+        assertEquals(List.of(playPause), matching("play/pause"));
+        assertEquals(List.of(), matching("ctrl mute"));
+    }
+
+    @Test
+    void removedEntriesAreReindexedOnUse() {
+        index.addAll(all);
+        index.removeAll(List.of(volumeUp));
+        index.clear();
+
+        // Entries the index no longer knows are indexed when first tested
+        assertEquals(List.of(volumeUp), matching("ctrl vol"));
+    }
+
+    @Test
+    void entryWithoutActionMatchesByKeys() {
+        Shortcut unbound = new Shortcut("Ctrl+Alt+X", null);
+        index.add(unbound);
+
+        Predicate<Shortcut> filter = index.filter("ctrl+alt+x");
+        assertTrue(filter.test(unbound));
+        assertFalse(index.filter("volume").test(unbound));
+    }
+
+    private List<Shortcut> matching(String query) {
+        Predicate<Shortcut> filter = index.filter(query);
+        return all.stream().filter(filter).toList();
+    }
+}
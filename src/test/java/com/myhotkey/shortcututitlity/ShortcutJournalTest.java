@@ -0,0 +1,157 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.RepeatPolicy;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortcutJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysRecordsOnTopOfSnapshot() {
+        Path path = dir.resolve("shortcuts.journal");
+        try (ShortcutJournal journal = open(path, Long.MAX_VALUE, () -> { })) {
+            journal.append(new ShortcutJournal.Entry(ShortcutJournal.Op.UPDATE, 1, shortcut(1, "Ctrl+Alt+1", SystemAction.PLAY_PAUSE)));
+            journal.append(new ShortcutJournal.Entry(ShortcutJournal.Op.REMOVE, 2, null));
+            Shortcut layered = shortcut(3, "Ctrl+K, Ctrl+M", SystemAction.VOLUME_UP);
+            layered.setRepeatPolicy(RepeatPolicy.AUTO_REPEAT);
+            layered.setLayer("media");
+            journal.append(new ShortcutJournal.Entry(ShortcutJournal.Op.ADD, 3, layered));
+        }
+
+        List<Shortcut> snapshot = List.of(
+                shortcut(1, "Ctrl+Alt+1", SystemAction.MUTE),
+                shortcut(2, "Ctrl+Alt+2", SystemAction.MUTE));
+        List<ShortcutJournal.Entry> entries;
+        try (ShortcutJournal reopened = open(path, Long.MAX_VALUE, () -> { })) {
+            entries = reopened.readAll();
+        }
+        List<Shortcut> replayed = ShortcutJournal.replay(snapshot, entries);
+
+        assertEquals(3, entries.size());
+        assertEquals(2, replayed.size());
+        assertEquals(1L, replayed.get(0).getId());
+        assertEquals(SystemAction.PLAY_PAUSE, replayed.get(0).getAction());
+        Shortcut added = replayed.get(1);
+        assertEquals(3L, added.getId());
+        assertEquals("Ctrl+K, Ctrl+M", added.getKeyCombo());
+        assertEquals(RepeatPolicy.AUTO_REPEAT, added.getRepeatPolicy());
+        assertEquals("media", added.getLayer());
+    }
+
+    @Test
+    void replayIsIdempotent() {
+        List<Shortcut> snapshot = List.of(shortcut(1, "Ctrl+Alt+1", SystemAction.MUTE));
+        List<ShortcutJournal.Entry> entries = List.of(
+                new ShortcutJournal.Entry(ShortcutJournal.Op.UPDATE, 1, shortcut(1, "Ctrl+Alt+1", SystemAction.PLAY_PAUSE)));
+
+        List<Shortcut> once = ShortcutJournal.replay(snapshot, entries);
+        List<Shortcut> twice = ShortcutJournal.replay(once, entries);
+
+        assertEquals(1, twice.size());
+        assertEquals(SystemAction.PLAY_PAUSE, twice.get(0).getAction());
+    }
+
+    @Test
+    void cutsOffTornTailAndAppendsAfterLastGoodRecord() throws IOException {
+        Path path = dir.resolve("shortcuts.journal");
+        try (ShortcutJournal journal = open(path, Long.MAX_VALUE, () -> { })) {
+            journal.append(new ShortcutJournal.Entry(ShortcutJournal.Op.ADD, 1, shortcut(1, "Ctrl+Alt+1", SystemAction.MUTE)));
+        }
+        long intact = Files.size(path);
+        // A crash mid-append: a frame header promising more bytes than were written
+        Files.write(path, new byte[] {0, 0, 0, 40, 1, 2, 3, 4, 9, 9}, StandardOpenOption.APPEND);
+
+        try (ShortcutJournal journal = open(path, Long.MAX_VALUE, () -> { })) {
+            assertEquals(1, journal.readAll().size());
+            assertEquals(intact, Files.size(path));
+
+            journal.append(new ShortcutJournal.Entry(ShortcutJournal.Op.REMOVE, 1, null));
+            List<ShortcutJournal.Entry> entries = journal.readAll();
+            assertEquals(2, entries.size());
+            assertEquals(ShortcutJournal.Op.REMOVE, entries.get(1).op());
+            assertNull(entries.get(1).shortcut());
+        }
+    }
+
+    @Test
+    void compactsOnceOversizedAndStartsEmpty() throws IOException {
+        Path path = dir.resolve("shortcuts.journal");
+        AtomicInteger compactions = new AtomicInteger();
+        List<ShortcutJournal> holder = new ArrayList<>();
+        // The app folds the journal into shortcuts.json and then truncates it
+        ShortcutJournal journal = open(path, 256, () -> {
+            compactions.incrementAndGet();
+            holder.get(0).truncate();
+        });
+        holder.add(journal);
+        try (journal) {
+            for (int id = 1; id <= 20; id++) {
+                journal.append(new ShortcutJournal.Entry(ShortcutJournal.Op.ADD, id,
+                        shortcut(id, "Ctrl+Alt+F" + (id % 12 + 1), SystemAction.MUTE)));
+            }
+
+            assertTrue(compactions.get() > 0);
+            assertTrue(Files.size(path) <= 256, "journal size " + Files.size(path));
+            assertTrue(journal.readAll().size() < 20);
+        }
+    }
+
+    @Test
+    void jsonManagerFoldsJournalIntoSnapshotOnLoad() throws IOException {
+        Path json = dir.resolve("shortcuts.json");
+        Path journalFile = dir.resolve("shortcuts.journal");
+        Shortcut kept = shortcut(1, "Ctrl+Alt+1", SystemAction.MUTE);
+        Shortcut removed = shortcut(2, "Ctrl+Alt+2", SystemAction.MUTE);
+        try (JsonManager manager = new JsonManager(json.toString(), false)) {
+            manager.saveShortcuts(List.of(kept, removed));
+        }
+        try (JsonManager manager = new JsonManager(json.toString(), false)) {
+            manager.loadShortcuts();
+            manager.recordRemove(removed);
+            manager.recordAdd(new Shortcut("Ctrl+Alt+3", SystemAction.PLAY_PAUSE));
+        }
+        assertTrue(Files.size(journalFile) > 8);
+
+        List<Shortcut> loaded;
+        try (JsonManager manager = new JsonManager(json.toString(), false)) {
+            loaded = manager.loadShortcuts();
+            assertEquals(4, manager.nextFreeId());
+        }
+
+        assertEquals(List.of("Ctrl+Alt+1", "Ctrl+Alt+3"), loaded.stream().map(Shortcut::getKeyCombo).toList());
+        assertEquals(3L, loaded.get(1).getId());
+        // Compacted: the journal is empty and the snapshot alone has the result
+        assertEquals(8, Files.size(journalFile));
+        try (JsonManager manager = new JsonManager(json.toString(), false)) {
+            assertEquals(List.of(1L, 3L), manager.loadShortcuts().stream().map(Shortcut::getId).toList());
+        }
+    }
+
+    private static ShortcutJournal open(Path path, long threshold, Runnable onOversize) {
+        // Commits run inline, so every append is on disk when it returns
+        return new ShortcutJournal(path, Runnable::run, threshold, onOversize);
+    }
+
+    private static Shortcut shortcut(long id, String keys, SystemAction action) {
+        Shortcut shortcut = new Shortcut(keys, action);
+        shortcut.setId(id);
+        return shortcut;
+    }
+}
@@ -0,0 +1,217 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import com.myhotkey.shortcututitlity.model.Shortcut;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortcutRepositoryTest {
+
+    @Test
+    void assignsIdsAboveKnownOnes() {
+        Shortcut known = new Shortcut("Ctrl+Alt+A", SystemAction.VOLUME_UP);
+        known.setId(7L);
+        Shortcut fresh = new Shortcut("Ctrl+Alt+B", SystemAction.VOLUME_DOWN);
+        ShortcutRepository repository = new ShortcutRepository(List.of(known, fresh), 3);
+
+        assertEquals(7L, known.getId());
+        assertEquals(8L, fresh.getId());
+
+        Shortcut added = new Shortcut("Ctrl+Alt+C", SystemAction.MUTE);
+        repository.add(added);
+        assertEquals(9L, added.getId());
+        assertSame(added, repository.get(9L));
+    }
+
+    @Test
+    void duplicateKeysFallBackToSurvivor() {
+        Shortcut first = new Shortcut("Ctrl+Alt+K", SystemAction.VOLUME_UP);
+        Shortcut second = new Shortcut("alt+ctrl+k", SystemAction.VOLUME_DOWN);
+        Shortcut third = new Shortcut("Ctrl+Alt+K", SystemAction.MUTE);
+        ShortcutRepository repository = new ShortcutRepository(List.of(first, second, third), 1);
+        assertSame(first, repository.findByCombo("ctrl+alt+k"));
+
+        repository.remove(first.getId());
+        assertSame(second, repository.findByCombo("Ctrl+Alt+K"));
+
+        // Rebinding the indexed entry to other keys hands the combo on as well
+        Shortcut moved = new Shortcut("Ctrl+Alt+J", SystemAction.VOLUME_DOWN);
+        repository.batch().update(second.getId(), moved).commit();
+        assertSame(third, repository.findByCombo("Ctrl+Alt+K"));
+        assertSame(moved, repository.findByCombo("Ctrl+Alt+J"));
+
+        repository.remove(third.getId());
+        assertNull(repository.findByCombo("Ctrl+Alt+K"));
+    }
+
+    @Test
+    void updateWithSameKeysKeepsIndexPlace() {
+        Shortcut first = new Shortcut("Ctrl+Alt+K", SystemAction.VOLUME_UP);
+        Shortcut second = new Shortcut("Ctrl+Alt+K", SystemAction.VOLUME_DOWN);
+        ShortcutRepository repository = new ShortcutRepository(List.of(first, second), 1);
+
+        Shortcut secondEdited = new Shortcut("Ctrl+Alt+K", SystemAction.MUTE);
+        repository.batch().update(second.getId(), secondEdited).commit();
+        assertSame(first, repository.findByCombo("Ctrl+Alt+K"));
+
+        Shortcut firstEdited = new Shortcut("Ctrl+Alt+K", SystemAction.PLAY_PAUSE);
+        repository.batch().update(first.getId(), firstEdited).commit();
+        assertSame(firstEdited, repository.findByCombo("Ctrl+Alt+K"));
+
+        repository.remove(firstEdited.getId());
+        assertSame(secondEdited, repository.findByCombo("Ctrl+Alt+K"));
+    }
+
+    @Test
+    void removingShadowedDuplicateKeepsIndexedEntry() {
+        Shortcut first = new Shortcut("Ctrl+Alt+K", SystemAction.VOLUME_UP);
+        Shortcut second = new Shortcut("Ctrl+Alt+K", SystemAction.VOLUME_DOWN);
+        ShortcutRepository repository = new ShortcutRepository(List.of(first, second), 1);
+
+        repository.remove(second.getId());
+        repository.remove(first.getId());
+        assertNull(repository.findByCombo("Ctrl+Alt+K"));
+    }
+
+    @Test
+    void batchIsPublishedAsOneChange() {
+        Shortcut kept = new Shortcut("Ctrl+Alt+A", SystemAction.VOLUME_UP);
+        Shortcut gone = new Shortcut("Ctrl+Alt+B", SystemAction.VOLUME_DOWN);
+        Shortcut edited = new Shortcut("Ctrl+Alt+C", SystemAction.MUTE);
+        ShortcutRepository repository = new ShortcutRepository(List.of(kept, gone, edited), 1);
+        List<ShortcutRepository.Change> changes = new ArrayList<>();
+        repository.addListener(changes::add);
+
+        Shortcut added = new Shortcut("Ctrl+Alt+D", SystemAction.PLAY_PAUSE);
+        Shortcut replacement = new Shortcut("Ctrl+Alt+E", SystemAction.MUTE);
+        ShortcutDelta delta = repository.batch()
+                .add(added)
+                .remove(gone.getId())
+                .update(edited.getId(), replacement)
+                .commit();
+
+        assertEquals(1, changes.size());
+        ShortcutRepository.Change change = changes.get(0);
+        assertSame(delta, change.delta());
+        assertEquals(ShortcutRepository.Source.USER, change.source());
+        assertEquals(1, change.version());
+        assertEquals(List.of(added), delta.added());
+        assertEquals(List.of(gone), delta.removed());
+        assertEquals(Map.of(edited, replacement), delta.updated());
+        assertEquals(edited.getId(), replacement.getId());
+        assertEquals(List.of(kept, replacement, added), repository.list());
+        assertEquals(1, repository.snapshot().version());
+    }
+
+    @Test
+    void addingSameKeysUpdatesInPlace() {
+        Shortcut existing = new Shortcut("Ctrl+Alt+A", SystemAction.VOLUME_UP);
+        ShortcutRepository repository = new ShortcutRepository(List.of(existing), 1);
+
+        Shortcut rebound = new Shortcut("alt+ctrl+a", SystemAction.MUTE);
+        ShortcutDelta delta = repository.add(rebound);
+
+        assertTrue(delta.added().isEmpty());
+        assertEquals(Map.of(existing, rebound), delta.updated());
+        assertEquals(existing.getId(), rebound.getId());
+        assertEquals(List.of(rebound), repository.list());
+    }
+
+    @Test
+    void changesWithinBatchCollapse() {
+        Shortcut existing = new Shortcut("Ctrl+Alt+A", SystemAction.VOLUME_UP);
+        ShortcutRepository repository = new ShortcutRepository(List.of(existing), 1);
+        List<ShortcutRepository.Change> changes = new ArrayList<>();
+        repository.addListener(changes::add);
+
+        // Added and removed again: nothing to publish
+        Shortcut added = new Shortcut("Ctrl+Alt+B", SystemAction.MUTE);
+        ShortcutRepository.Batch batch = repository.batch().add(added);
+        assertTrue(batch.commit().added().contains(added));
+        ShortcutDelta delta = repository.batch()
+                .update(added.getId(), new Shortcut("Ctrl+Alt+B", SystemAction.VOLUME_DOWN))
+                .remove(added.getId())
+                .commit();
+        assertEquals(List.of(added), delta.removed());
+        assertTrue(delta.updated().isEmpty());
+
+        // Updated twice then removed: reported as the removal of the original
+        Shortcut once = new Shortcut("Ctrl+Alt+A", SystemAction.MUTE);
+        Shortcut twice = new Shortcut("Ctrl+Alt+A", SystemAction.PLAY_PAUSE);
+        delta = repository.batch()
+                .update(existing.getId(), once)
+                .update(existing.getId(), twice)
+                .remove(existing.getId())
+                .commit();
+        assertEquals(List.of(existing), delta.removed());
+        assertTrue(delta.updated().isEmpty());
+        assertEquals(3, changes.size());
+        assertEquals(3, changes.get(2).version());
+    }
+
+    @Test
+    void emptyBatchPublishesNothing() {
+        ShortcutRepository repository = new ShortcutRepository(List.of(), 1);
+        List<ShortcutRepository.Change> changes = new ArrayList<>();
+        repository.addListener(changes::add);
+
+        assertTrue(repository.remove(42).isEmpty());
+        assertTrue(changes.isEmpty());
+        assertEquals(0, repository.snapshot().version());
+    }
+
+    @Test
+    void fileReplacePublishesOnlyDifference() {
+        Shortcut kept = new Shortcut("Ctrl+Alt+A", SystemAction.VOLUME_UP);
+        Shortcut edited = new Shortcut("Ctrl+Alt+B", SystemAction.VOLUME_DOWN);
+        Shortcut gone = new Shortcut("Ctrl+Alt+C", SystemAction.MUTE);
+        ShortcutRepository repository = new ShortcutRepository(List.of(kept, edited, gone), 1);
+        List<ShortcutRepository.Change> changes = new ArrayList<>();
+        repository.addListener(changes::add);
+
+        // As read back from the file: copies, one edited, one dropped, one written by hand
+        Shortcut keptCopy = new Shortcut("Ctrl+Alt+A", SystemAction.VOLUME_UP);
+        keptCopy.setId(kept.getId());
+        Shortcut editedCopy = new Shortcut("Ctrl+Alt+B", SystemAction.MUTE);
+        editedCopy.setId(edited.getId());
+        Shortcut handWritten = new Shortcut("Ctrl+Alt+D", SystemAction.PLAY_PAUSE);
+        ShortcutDelta delta = repository.replaceAll(
+                List.of(keptCopy, editedCopy, handWritten), ShortcutRepository.Source.FILE);
+
+        assertEquals(List.of(gone), delta.removed());
+        assertEquals(List.of(handWritten), delta.added());
+        assertEquals(Map.of(edited, editedCopy), delta.updated());
+        assertEquals(4L, handWritten.getId());
+        assertSame(kept, repository.get(kept.getId()));
+        assertEquals(1, changes.size());
+        assertEquals(ShortcutRepository.Source.FILE, changes.get(0).source());
+
+        assertTrue(repository.replaceAll(List.of(keptCopy, editedCopy, handWritten),
+                ShortcutRepository.Source.FILE).isEmpty());
+        assertEquals(1, changes.size());
+    }
+
+    @Test
+    void failingListenerDoesNotBlockOthers() {
+        ShortcutRepository repository = new ShortcutRepository(List.of(), 1);
+        List<ShortcutRepository.Change> changes = new ArrayList<>();
+        repository.addListener(change -> {
+            throw new IllegalStateException("listener failure");
+        });
+        repository.addListener(changes::add);
+
+        Shortcut added = new Shortcut("Ctrl+Alt+A", SystemAction.VOLUME_UP);
+        repository.add(added);
+
+        assertEquals(1, changes.size());
+        assertSame(added, repository.findByCombo("Ctrl+Alt+A"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.myhotkey.shortcututitlity;
+
+import com.myhotkey.shortcututitlity.backend.ActionBackends;
+import com.myhotkey.shortcututitlity.backend.RecordingActionBackend;
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TriggerCoalescerTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(20);
+
+    private final RecordingActionBackend backend = new RecordingActionBackend(100_000);
+    private TriggerCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        ActionBackends.set(backend);
+        coalescer = new TriggerCoalescer(WINDOW, action -> { });
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void mergesBurstIntoOneCommand() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(coalescer.submit(SystemAction.VOLUME_UP));
+        }
+        awaitQuiet();
+
+        List<RecordingActionBackend.Call> calls = backend.getCalls();
+        assertEquals(2, calls.size());
+        assertEquals(1, calls.get(0).steps());
+        assertEquals(4, calls.get(1).steps());
+        assertEquals(SystemAction.VOLUME_UP, calls.get(1).action());
+    }
+
+    @Test
+    void oppositeStepsCancel() throws Exception {
+        coalescer.submit(SystemAction.BRIGHTNESS_UP);
+        coalescer.submit(SystemAction.BRIGHTNESS_UP);
+        coalescer.submit(SystemAction.BRIGHTNESS_DOWN);
+        coalescer.submit(SystemAction.BRIGHTNESS_DOWN);
+        coalescer.submit(SystemAction.BRIGHTNESS_DOWN);
+        awaitQuiet();
+
+        // Leading UP, then +1 -3 merged into one DOWN of two steps
+        assertEquals(List.of(SystemAction.BRIGHTNESS_UP, SystemAction.BRIGHTNESS_DOWN),
+                backend.getCalls().stream().map(RecordingActionBackend.Call::action).toList());
+        assertEquals(2, backend.getCalls().get(1).steps());
+        assertEquals(2L, statistics().get("coalescedStepsCancelled"));
+    }
+
+    @Test
+    void leavesOtherActionsToTheCaller() {
+        assertFalse(coalescer.submit(SystemAction.PLAY_PAUSE));
+        assertEquals(0, backend.getTotalCalls());
+    }
+
+    @Test
+    void concurrentTriggersAreCountedOnce() throws Exception {
+        int threads = 4;
+        int perThread = 5_000;
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                // Two threads go up three steps for every one down, two the other way round
+                SystemAction often = t % 2 == 0 ? SystemAction.VOLUME_UP : SystemAction.VOLUME_DOWN;
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        coalescer.submit(i % 4 == 3 ? often.getOpposite() : often);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        awaitQuiet();
+
+        long net = 0;
+        long issuedSteps = 0;
+        for (RecordingActionBackend.Call call : backend.getCalls()) {
+            net += call.action().getStepDirection() * call.steps();
+            issuedSteps += call.steps();
+        }
+        Map<String, Object> stats = statistics();
+        long triggers = (long) stats.get("coalescedTriggers");
+        assertEquals((long) threads * perThread, triggers);
+        assertEquals(0, net);
+        // Every trigger is either issued as a step or cancelled by an opposite one
+        assertEquals(triggers, issuedSteps + (long) stats.get("coalescedStepsCancelled"));
+        assertEquals(triggers, backend.getCalls().size() + (long) stats.get("coalescedCommandsSaved"));
+    }
+
+    /**
+     * Waits until no merge window has issued a command for a while.
+     */
+    private void awaitQuiet() throws InterruptedException {
+        long calls = -1;
+        while (calls != backend.getTotalCalls()) {
+            calls = backend.getTotalCalls();
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(WINDOW.toNanos()) * 5);
+        }
+    }
+
+    private Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        coalescer.putStatistics(stats);
+        return stats;
+    }
+}
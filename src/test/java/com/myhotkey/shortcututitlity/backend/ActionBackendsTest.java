@@ -0,0 +1,50 @@
+package com.myhotkey.shortcututitlity.backend;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActionBackendsTest {
+
+    @Test
+    void findsInstalledBackendsByPriority() {
+        List<ActionBackend> installed = ActionBackends.getInstalled();
+
+        List<String> names = installed.stream().map(ActionBackend::getName).toList();
+        assertTrue(names.containsAll(List.of("nircmd", "powershell", "recording")), names.toString());
+        for (int i = 1; i < installed.size(); i++) {
+            assertTrue(installed.get(i - 1).getPriority() >= installed.get(i).getPriority(), names.toString());
+        }
+        // The recording backend is the last resort
+        assertEquals("recording", names.get(names.size() - 1));
+    }
+
+    @Test
+    void actionsReachTheSetBackend() {
+        RecordingActionBackend backend = new RecordingActionBackend();
+        ActionBackends.set(backend);
+        assertSame(backend, ActionBackends.current());
+
+        SystemAction.PLAY_PAUSE.execute();
+        SystemAction.VOLUME_DOWN.executeSteps(3);
+
+        List<RecordingActionBackend.Call> calls = backend.getCalls();
+        assertEquals(2, calls.size());
+        assertEquals(SystemAction.PLAY_PAUSE, calls.get(0).action());
+        assertEquals(1, calls.get(0).steps());
+        assertEquals(SystemAction.VOLUME_DOWN, calls.get(1).action());
+        assertEquals(3, calls.get(1).steps());
+        assertTrue(calls.get(0).nanoTime() <= calls.get(1).nanoTime());
+    }
+
+    @Test
+    void rejectsNullBackend() {
+        assertThrows(IllegalArgumentException.class, () -> ActionBackends.set(null));
+    }
+}
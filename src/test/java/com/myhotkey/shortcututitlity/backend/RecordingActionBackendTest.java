@@ -0,0 +1,47 @@
+package com.myhotkey.shortcututitlity.backend;
+
+import com.myhotkey.shortcututitlity.enums.SystemAction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordingActionBackendTest {
+
+    @Test
+    void keepsOnlyTheMostRecentCalls() {
+        RecordingActionBackend backend = new RecordingActionBackend(3);
+        for (int steps = 1; steps <= 5; steps++) {
+            backend.execute(SystemAction.BRIGHTNESS_UP, steps);
+        }
+
+        List<Integer> kept = backend.getCalls().stream().map(RecordingActionBackend.Call::steps).toList();
+        assertEquals(List.of(3, 4, 5), kept);
+        assertEquals(5, backend.getTotalCalls());
+
+        backend.clear();
+        assertEquals(0, backend.getTotalCalls());
+        assertTrue(backend.getCalls().isEmpty());
+    }
+
+    @Test
+    void simulatesBackendLatency() {
+        RecordingActionBackend backend = new RecordingActionBackend();
+        backend.setSimulatedLatency(Duration.ofMillis(20));
+
+        long start = System.nanoTime();
+        backend.execute(SystemAction.MUTE, 1);
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+    }
+
+    @Test
+    void isAlwaysAvailableWithLowestPriority() {
+        RecordingActionBackend backend = new RecordingActionBackend();
+        assertTrue(backend.isAvailable());
+        assertEquals(Integer.MIN_VALUE, backend.getPriority());
+    }
+}
@@ -0,0 +1,81 @@
+package com.myhotkey.shortcututitlity.process;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs /bin/sh stand-in helpers.
+ */
+class HelperProcessPoolTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final int POOL_SIZE = 2;
+    private static final int CALLERS = 8;
+
+    private final HelperProcessPool pool = new HelperProcessPool("test-pool", HelperShell.POSIX, POOL_SIZE);
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void overlappingCommandsShareAtMostPoolSizeHelpers() throws Exception {
+        Set<Long> pids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HelperResult>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newFixedThreadPool(CALLERS)) {
+            for (int i = 0; i < CALLERS; i++) {
+                int caller = i;
+                results.add(callers.submit(() -> {
+                    start.await();
+                    HelperResult result = pool.execute("sleep 0.1; echo $$; echo caller-" + caller, TIMEOUT);
+                    pids.add(HelperProcessTest.pidOf(result));
+                    return result;
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < CALLERS; i++) {
+                HelperResult result = results.get(i).get(20, TimeUnit.SECONDS);
+                assertTrue(result.isSuccess());
+                assertEquals("caller-" + i, result.output().get(1));
+            }
+        }
+
+        assertEquals(CALLERS, pool.getCommandCount());
+        assertTrue(pool.getProcessCount() <= POOL_SIZE, "helpers: " + pool.getProcessCount());
+        assertTrue(pids.size() <= POOL_SIZE, "distinct helper processes: " + pids);
+        assertEquals(0, pool.getRestartCount());
+    }
+
+    @Test
+    void restartsKilledHelperOnNextCommand() throws Exception {
+        long pid = HelperProcessTest.pidOf(pool.execute("echo $$", TIMEOUT));
+        ProcessHandle handle = ProcessHandle.of(pid).orElseThrow();
+        handle.destroyForcibly();
+        handle.onExit().get(5, TimeUnit.SECONDS);
+
+        HelperResult result = pool.execute("echo $$", TIMEOUT);
+
+        assertTrue(result.isSuccess());
+        assertNotEquals(pid, HelperProcessTest.pidOf(result));
+        assertEquals(1, pool.getProcessCount());
+        assertEquals(1, pool.getRestartCount());
+    }
+}
@@ -0,0 +1,71 @@
+package com.myhotkey.shortcututitlity.process;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a /bin/sh stand-in helper.
+ */
+class HelperProcessTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final HelperProcess helper =
+            new HelperProcess("test-helper", HelperShell.POSIX, HelperShell.POSIX.getLaunchCommand());
+
+    @AfterEach
+    void tearDown() {
+        helper.close();
+    }
+
+    @Test
+    void runsCommandsInOneProcess() throws Exception {
+        HelperResult first = helper.execute("echo one; echo two", TIMEOUT);
+        HelperResult failed = helper.execute("echo three; false", TIMEOUT);
+
+        assertEquals(0, first.exitCode());
+        assertEquals(List.of("one", "two"), first.output());
+        assertEquals(1, failed.exitCode());
+        assertEquals(List.of("three"), failed.output());
+        assertEquals(1, helper.getStartCount());
+    }
+
+    @Test
+    void restartsAfterBeingKilled() throws Exception {
+        long pid = pidOf(helper.execute("echo $$", TIMEOUT));
+        ProcessHandle handle = ProcessHandle.of(pid).orElseThrow();
+        handle.destroyForcibly();
+        handle.onExit().get(5, TimeUnit.SECONDS);
+        assertFalse(helper.isAlive());
+
+        HelperResult result = helper.execute("echo $$", TIMEOUT);
+
+        assertTrue(result.isSuccess());
+        assertNotEquals(pid, pidOf(result));
+        assertEquals(2, helper.getStartCount());
+    }
+
+    @Test
+    void killsHelperOnTimeout() throws Exception {
+        assertThrows(TimeoutException.class, () -> helper.execute("sleep 5", Duration.ofMillis(200)));
+        assertFalse(helper.isAlive());
+
+        assertEquals(List.of("back"), helper.execute("echo back", TIMEOUT).output());
+        assertEquals(2, helper.getStartCount());
+    }
+
+    static long pidOf(HelperResult result) {
+        return Long.parseLong(result.output().get(0).trim());
+    }
+}
@@ -0,0 +1,87 @@
+package com.myhotkey.shortcututitlity.process;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hosts a /bin/sh session in place of PowerShell.
+ */
+class ScriptHostSessionTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private ScriptHostSession session;
+
+    @AfterEach
+    void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void framesMultiLineOutputAndExitStatus() throws Exception {
+        session = new ScriptHostSession("test-sh", HelperShell.POSIX, Duration.ofMinutes(1));
+
+        HelperResult listing = session.run("printf 'first\\nsecond\\n\\nfourth\\n'", TIMEOUT);
+        HelperResult failed = session.run("echo oops; exit_status() { return 3; }; exit_status", TIMEOUT);
+        HelperResult state = session.run("x=kept; echo $x", TIMEOUT);
+        HelperResult reused = session.run("echo $x", TIMEOUT);
+
+        assertEquals(0, listing.exitCode());
+        assertEquals(List.of("first", "second", "", "fourth"), listing.output());
+        assertEquals(3, failed.exitCode());
+        assertEquals(List.of("oops"), failed.output());
+        assertEquals(List.of("kept"), state.output());
+        // Session state survives between requests in one interpreter
+        assertEquals(List.of("kept"), reused.output());
+        assertEquals(1, session.getStartCount());
+    }
+
+    @Test
+    void restartsAfterTimedOutRequest() throws Exception {
+        session = new ScriptHostSession("test-sh", HelperShell.POSIX, Duration.ofMinutes(1));
+        session.run("true", TIMEOUT);
+
+        CompletableFuture<HelperResult> stuck = session.submit("sleep 10", Duration.ofMillis(200));
+        CompletableFuture<HelperResult> next = session.submit("echo after", TIMEOUT);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> stuck.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        HelperResult result = next.get(5, TimeUnit.SECONDS);
+        assertTrue(result.isSuccess());
+        assertEquals(List.of("after"), result.output());
+        assertEquals(2, session.getStartCount());
+    }
+
+    @Test
+    void stopsWhenIdleAndRestartsLazily() throws Exception {
+        session = new ScriptHostSession("test-sh", HelperShell.POSIX, Duration.ofMillis(200));
+        assertFalse(session.isRunning());
+
+        session.run("echo hello", TIMEOUT);
+        assertTrue(session.isRunning());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (session.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertFalse(session.isRunning());
+        assertEquals(1, session.getStartCount());
+
+        assertEquals(List.of("again"), session.run("echo again", TIMEOUT).output());
+        assertTrue(session.isRunning());
+        assertEquals(2, session.getStartCount());
+    }
+}